@@ -0,0 +1,170 @@
+package de.test.antennapod.adapter;
+
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.ListUpdateCallback;
+import androidx.test.filters.SmallTest;
+import de.danoeh.antennapod.adapter.EpisodeItemListDiff;
+import de.danoeh.antennapod.model.feed.FeedItem;
+import de.danoeh.antennapod.model.feed.FeedMedia;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Makes sure that reloading a list only produces the operations that are actually needed.
+ */
+@SmallTest
+public class EpisodeItemListDiffTest {
+    private static final int NUM_ITEMS = 2000;
+
+    @Test
+    public void testUnchangedListHasNoUpdates() {
+        List<FeedItem> items = createItems(NUM_ITEMS);
+        EpisodeItemListDiff.Snapshot snapshot = EpisodeItemListDiff.Snapshot.of(items);
+        CountingCallback callback = dispatch(EpisodeItemListDiff.calculate(snapshot, createItems(NUM_ITEMS)));
+        assertEquals(0, callback.total());
+    }
+
+    @Test
+    public void testChangedProgressIsSingleChange() {
+        List<FeedItem> items = createItems(NUM_ITEMS);
+        EpisodeItemListDiff.Snapshot snapshot = EpisodeItemListDiff.Snapshot.of(items);
+        List<FeedItem> newItems = createItems(NUM_ITEMS);
+        newItems.get(42).getMedia().setPosition(1000);
+        CountingCallback callback = dispatch(EpisodeItemListDiff.calculate(snapshot, newItems));
+        assertEquals(1, callback.changed);
+        assertEquals(1, callback.total());
+    }
+
+    @Test
+    public void testInsertRemoveMove() {
+        List<FeedItem> items = createItems(NUM_ITEMS);
+        EpisodeItemListDiff.Snapshot snapshot = EpisodeItemListDiff.Snapshot.of(items);
+        List<FeedItem> newItems = createItems(NUM_ITEMS);
+        newItems.remove(10);
+        newItems.add(0, createItem(NUM_ITEMS + 1));
+        newItems.add(500, newItems.remove(1500));
+        CountingCallback callback = dispatch(EpisodeItemListDiff.calculate(snapshot, newItems));
+        assertEquals(1, callback.inserted);
+        assertEquals(1, callback.removed);
+        assertEquals(1, callback.moved);
+        assertEquals(0, callback.changed);
+    }
+
+    @Test
+    public void testLargeListWithSwapAndChanges() {
+        List<FeedItem> items = createItems(NUM_ITEMS);
+        EpisodeItemListDiff.Snapshot snapshot = EpisodeItemListDiff.Snapshot.of(items);
+        List<FeedItem> newItems = createItems(NUM_ITEMS);
+        Collections.swap(newItems, 3, 1700);
+        Set<Long> played = new HashSet<>();
+        for (int i = 0; i < NUM_ITEMS; i += 100) {
+            newItems.get(i).setPlayed(true);
+            played.add(newItems.get(i).getId());
+        }
+
+        // Applying the updates to the old list must result in the new list
+        ApplyingCallback callback = new ApplyingCallback(items);
+        EpisodeItemListDiff.calculate(snapshot, newItems).dispatchUpdatesTo(callback);
+        List<Long> expectedIds = new ArrayList<>();
+        for (FeedItem item : newItems) {
+            expectedIds.add(item.getId());
+        }
+        assertEquals(expectedIds, callback.ids);
+        assertEquals(played, callback.changedIds);
+    }
+
+    private static CountingCallback dispatch(EpisodeItemListDiff diff) {
+        CountingCallback callback = new CountingCallback();
+        diff.dispatchUpdatesTo(callback);
+        return callback;
+    }
+
+    private static List<FeedItem> createItems(int count) {
+        List<FeedItem> items = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            items.add(createItem(i));
+        }
+        return items;
+    }
+
+    private static FeedItem createItem(int id) {
+        FeedItem item = new FeedItem(id, "Episode " + id, "guid-" + id, "http://example.com/" + id,
+                new Date(1000L * id), FeedItem.UNPLAYED, null);
+        item.setMedia(new FeedMedia(id, item, 3600000, 0, 1000, "audio/mp3",
+                null, "http://example.com/" + id + ".mp3", false, null, 0, 0));
+        return item;
+    }
+
+    private static class CountingCallback implements ListUpdateCallback {
+        int inserted = 0;
+        int removed = 0;
+        int moved = 0;
+        int changed = 0;
+
+        @Override
+        public void onInserted(int position, int count) {
+            inserted += count;
+        }
+
+        @Override
+        public void onRemoved(int position, int count) {
+            removed += count;
+        }
+
+        @Override
+        public void onMoved(int fromPosition, int toPosition) {
+            moved++;
+        }
+
+        @Override
+        public void onChanged(int position, int count, @Nullable Object payload) {
+            changed += count;
+        }
+
+        int total() {
+            return inserted + removed + moved + changed;
+        }
+    }
+
+    /**
+     * Applies the updates to the ids of a list, like an adapter would.
+     */
+    private static class ApplyingCallback implements ListUpdateCallback {
+        final List<Long> ids = new ArrayList<>();
+        final Set<Long> changedIds = new HashSet<>();
+
+        ApplyingCallback(List<FeedItem> items) {
+            for (FeedItem item : items) {
+                ids.add(item.getId());
+            }
+        }
+
+        @Override
+        public void onInserted(int position, int count) {
+            ids.addAll(position, Collections.nCopies(count, (Long) null));
+        }
+
+        @Override
+        public void onRemoved(int position, int count) {
+            ids.subList(position, position + count).clear();
+        }
+
+        @Override
+        public void onMoved(int fromPosition, int toPosition) {
+            ids.add(toPosition, ids.remove(fromPosition));
+        }
+
+        @Override
+        public void onChanged(int position, int count, @Nullable Object payload) {
+            changedIds.addAll(ids.subList(position, position + count));
+        }
+    }
+}
@@ -26,6 +26,8 @@ import de.danoeh.antennapod.error.CrashReportWriter;
 import de.danoeh.antennapod.R;
 import de.danoeh.antennapod.storage.preferences.UserPreferences;
 import de.danoeh.antennapod.core.util.IntentUtils;
+import de.danoeh.antennapod.storage.database.DatabaseTimings;
+import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
 
 import java.io.File;
@@ -81,9 +83,24 @@ public class BugReportActivity extends AppCompatActivity {
         return super.onCreateOptionsMenu(menu);
     }
 
+    @Override
+    public boolean onPrepareOptionsMenu(Menu menu) {
+        menu.findItem(R.id.database_timings_enabled).setChecked(DatabaseTimings.isEnabled());
+        return super.onPrepareOptionsMenu(menu);
+    }
+
     @Override
     public boolean onOptionsItemSelected(@NonNull MenuItem item) {
-        if (item.getItemId() == R.id.export_logcat) {
+        if (item.getItemId() == R.id.database_timings_enabled) {
+            boolean enabled = !item.isChecked();
+            item.setChecked(enabled);
+            UserPreferences.setDatabaseTimingsEnabled(enabled);
+            DatabaseTimings.setEnabled(enabled);
+            return true;
+        } else if (item.getItemId() == R.id.database_timings_report) {
+            showDatabaseTimings();
+            return true;
+        } else if (item.getItemId() == R.id.export_logcat) {
             MaterialAlertDialogBuilder alertBuilder = new MaterialAlertDialogBuilder(this);
             alertBuilder.setMessage(R.string.confirm_export_log_dialog_message);
             alertBuilder.setPositiveButton(R.string.confirm_label, (dialog, which) -> {
@@ -97,32 +114,57 @@ public class BugReportActivity extends AppCompatActivity {
         return super.onOptionsItemSelected(item);
     }
 
+    private void showDatabaseTimings() {
+        String report = DatabaseTimings.getReport();
+        new MaterialAlertDialogBuilder(this)
+                .setTitle(R.string.database_timings_label)
+                .setMessage(report)
+                .setPositiveButton(R.string.share_label, (dialog, which) -> exportDatabaseTimings(report))
+                .setNeutralButton(R.string.reset, (dialog, which) -> DatabaseTimings.reset())
+                .setNegativeButton(R.string.close_label, null)
+                .show();
+    }
+
+    private void exportDatabaseTimings(String report) {
+        try {
+            File filename = new File(UserPreferences.getDataFolder(null), "database-timings.txt");
+            FileUtils.writeStringToFile(filename, report, Charset.forName("UTF-8"));
+            shareFile(filename);
+        } catch (IOException e) {
+            e.printStackTrace();
+            Snackbar.make(findViewById(android.R.id.content), e.getMessage(), Snackbar.LENGTH_LONG).show();
+        }
+    }
+
     private void exportLog() {
         try {
             File filename = new File(UserPreferences.getDataFolder(null), "full-logs.txt");
             String cmd = "logcat -d -f " + filename.getAbsolutePath();
             Runtime.getRuntime().exec(cmd);
-            //share file
-            try {
-                String authority = getString(R.string.provider_authority);
-                Uri fileUri = FileProvider.getUriForFile(this, authority, filename);
-
-                new ShareCompat.IntentBuilder(this)
-                        .setType("text/*")
-                        .addStream(fileUri)
-                        .setChooserTitle(R.string.share_file_label)
-                        .startChooser();
-            } catch (Exception e) {
-                e.printStackTrace();
-                int strResId = R.string.log_file_share_exception;
-                Snackbar.make(findViewById(android.R.id.content), strResId, Snackbar.LENGTH_LONG)
-                        .show();
-            }
+            shareFile(filename);
         } catch (IOException e) {
             e.printStackTrace();
             Snackbar.make(findViewById(android.R.id.content), e.getMessage(), Snackbar.LENGTH_LONG).show();
         }
     }
 
+    private void shareFile(File filename) {
+        try {
+            String authority = getString(R.string.provider_authority);
+            Uri fileUri = FileProvider.getUriForFile(this, authority, filename);
+
+            new ShareCompat.IntentBuilder(this)
+                    .setType("text/*")
+                    .addStream(fileUri)
+                    .setChooserTitle(R.string.share_file_label)
+                    .startChooser();
+        } catch (Exception e) {
+            e.printStackTrace();
+            int strResId = R.string.log_file_share_exception;
+            Snackbar.make(findViewById(android.R.id.content), strResId, Snackbar.LENGTH_LONG)
+                    .show();
+        }
+    }
+
 
 }
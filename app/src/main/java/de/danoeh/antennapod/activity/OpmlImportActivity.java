@@ -91,6 +91,7 @@ public class OpmlImportActivity extends AppCompatActivity {
             viewBinding.progressBar.setVisibility(View.VISIBLE);
             Completable.fromAction(() -> {
                 SparseBooleanArray checked = viewBinding.feedlist.getCheckedItemPositions();
+                List<Feed> feeds = new ArrayList<>();
                 for (int i = 0; i < checked.size(); i++) {
                     if (!checked.valueAt(i)) {
                         continue;
@@ -99,9 +100,10 @@ public class OpmlImportActivity extends AppCompatActivity {
                     Feed feed = new Feed(element.getXmlUrl(), null,
                             element.getText() != null ? element.getText() : "Unknown podcast");
                     feed.setItems(Collections.emptyList());
-                    DBTasks.updateFeed(this, feed, false);
+                    feeds.add(feed);
                 }
-                FeedUpdateManager.runOnce(this);
+                List<Feed> addedFeeds = DBTasks.subscribeToFeeds(this, feeds);
+                FeedUpdateManager.runOnce(this, addedFeeds);
             })
                     .subscribeOn(Schedulers.io())
                     .observeOn(AndroidSchedulers.mainThread())
@@ -12,6 +12,7 @@ import com.bumptech.glide.request.RequestOptions;
 import com.bumptech.glide.request.target.CustomViewTarget;
 import com.bumptech.glide.request.transition.Transition;
 import de.danoeh.antennapod.activity.MainActivity;
+import de.danoeh.antennapod.ui.glide.ThumbnailBucket;
 
 import java.lang.ref.WeakReference;
 
@@ -23,6 +24,7 @@ public class CoverLoader {
     private boolean textAndImageCombined;
     private MainActivity activity;
     private TextView fallbackTitle;
+    private ThumbnailBucket bucket;
 
     public CoverLoader(MainActivity activity) {
         this.activity = activity;
@@ -48,6 +50,14 @@ public class CoverLoader {
         return this;
     }
 
+    /**
+     * Decode the cover to a fixed size instead of the exact view size, so the thumbnail is cached once.
+     */
+    public CoverLoader withBucket(ThumbnailBucket bucket) {
+        this.bucket = bucket;
+        return this;
+    }
+
     public CoverLoader withPlaceholderView(TextView title) {
         this.fallbackTitle = title;
         return this;
@@ -78,6 +88,9 @@ public class CoverLoader {
         RequestOptions options = new RequestOptions()
                 .fitCenter()
                 .dontAnimate();
+        if (bucket != null) {
+            options = options.apply(bucket.getRequestOptions(imgvCover.getContext()));
+        }
 
         RequestBuilder<Drawable> builder = Glide.with(imgvCover)
                 .as(Drawable.class)
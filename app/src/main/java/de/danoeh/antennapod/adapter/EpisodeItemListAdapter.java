@@ -12,6 +12,7 @@ import android.view.ViewGroup;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.AdapterListUpdateCallback;
 import androidx.recyclerview.widget.RecyclerView;
 
 import de.danoeh.antennapod.ui.common.ThemeUtils;
@@ -48,6 +49,9 @@ public class EpisodeItemListAdapter extends SelectableAdapter<EpisodeItemViewHol
     }
 
     public void setDummyViews(int dummyViews) {
+        if (this.dummyViews == dummyViews) {
+            return;
+        }
         this.dummyViews = dummyViews;
         notifyDataSetChanged();
     }
@@ -58,6 +62,28 @@ public class EpisodeItemListAdapter extends SelectableAdapter<EpisodeItemViewHol
         updateTitle();
     }
 
+    /**
+     * Applies a diff that was calculated in the background against {@link #getSnapshot()}.
+     * Only rebinds the rows that actually changed. Falls back to a full update if the displayed list
+     * was modified structurally while the diff was calculated.
+     */
+    public void updateItems(EpisodeItemListDiff diff) {
+        if (!diff.isBasedOn(episodes)) {
+            updateItems(diff.getItems());
+            return;
+        }
+        episodes = diff.getItems();
+        diff.dispatchUpdatesTo(new AdapterListUpdateCallback(this));
+        updateTitle();
+    }
+
+    /**
+     * @return Snapshot of the displayed items to calculate an {@link EpisodeItemListDiff} against.
+     */
+    public EpisodeItemListDiff.Snapshot getSnapshot() {
+        return EpisodeItemListDiff.Snapshot.of(episodes);
+    }
+
     @Override
     public final int getItemViewType(int position) {
         return R.id.view_type_episode_item;
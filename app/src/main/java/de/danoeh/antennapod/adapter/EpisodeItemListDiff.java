@@ -0,0 +1,135 @@
+package de.danoeh.antennapod.adapter;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListUpdateCallback;
+
+import java.util.List;
+import java.util.Objects;
+
+import de.danoeh.antennapod.model.feed.FeedItem;
+import de.danoeh.antennapod.model.feed.FeedMedia;
+
+/**
+ * Minimal set of insert/remove/move/change operations between the list an {@link EpisodeItemListAdapter}
+ * currently displays and a freshly loaded list. Calculate it on a background thread with
+ * {@link #calculate(Snapshot, List)} and hand it to {@link EpisodeItemListAdapter#updateItems(EpisodeItemListDiff)}.
+ */
+public class EpisodeItemListDiff {
+    @NonNull private final List<FeedItem> items;
+    @NonNull private final Snapshot oldSnapshot;
+    @NonNull private final DiffUtil.DiffResult result;
+
+    private EpisodeItemListDiff(@NonNull List<FeedItem> items, @NonNull Snapshot oldSnapshot,
+                                @NonNull DiffUtil.DiffResult result) {
+        this.items = items;
+        this.oldSnapshot = oldSnapshot;
+        this.result = result;
+    }
+
+    /**
+     * Compares the items by id and by a fingerprint of everything that is displayed in the list row.
+     * Does not need to run on the main thread.
+     *
+     * @param oldSnapshot Snapshot of the displayed list, taken on the main thread
+     * @param newItems The new list. Must not be modified while the diff is calculated.
+     */
+    @NonNull
+    public static EpisodeItemListDiff calculate(@NonNull Snapshot oldSnapshot, @NonNull List<FeedItem> newItems) {
+        Snapshot newSnapshot = Snapshot.of(newItems);
+        DiffUtil.DiffResult result = DiffUtil.calculateDiff(new DiffUtil.Callback() {
+            @Override
+            public int getOldListSize() {
+                return oldSnapshot.ids.length;
+            }
+
+            @Override
+            public int getNewListSize() {
+                return newSnapshot.ids.length;
+            }
+
+            @Override
+            public boolean areItemsTheSame(int oldItemPosition, int newItemPosition) {
+                return oldSnapshot.ids[oldItemPosition] == newSnapshot.ids[newItemPosition];
+            }
+
+            @Override
+            public boolean areContentsTheSame(int oldItemPosition, int newItemPosition) {
+                return oldSnapshot.fingerprints[oldItemPosition] == newSnapshot.fingerprints[newItemPosition];
+            }
+
+            @Override
+            public Object getChangePayload(int oldItemPosition, int newItemPosition) {
+                // Same as EpisodeItemListAdapter.notifyItemChangedCompat: re-use the ViewHolder
+                return "foo";
+            }
+        });
+        return new EpisodeItemListDiff(newItems, oldSnapshot, result);
+    }
+
+    @NonNull
+    public List<FeedItem> getItems() {
+        return items;
+    }
+
+    boolean isBasedOn(@NonNull List<FeedItem> displayedItems) {
+        if (displayedItems.size() != oldSnapshot.ids.length) {
+            return false;
+        }
+        for (int i = 0; i < oldSnapshot.ids.length; i++) {
+            if (displayedItems.get(i).getId() != oldSnapshot.ids[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public void dispatchUpdatesTo(@NonNull ListUpdateCallback callback) {
+        result.dispatchUpdatesTo(callback);
+    }
+
+    /**
+     * Ids and content fingerprints of a list at one point in time.
+     * The items of a displayed list are changed in place on the main thread,
+     * so the diff must not look at them while it runs in the background.
+     */
+    public static class Snapshot {
+        final long[] ids;
+        final long[] fingerprints;
+
+        private Snapshot(long[] ids, long[] fingerprints) {
+            this.ids = ids;
+            this.fingerprints = fingerprints;
+        }
+
+        @NonNull
+        public static Snapshot of(@NonNull List<FeedItem> items) {
+            long[] ids = new long[items.size()];
+            long[] fingerprints = new long[items.size()];
+            for (int i = 0; i < ids.length; i++) {
+                FeedItem item = items.get(i);
+                ids[i] = item.getId();
+                fingerprints[i] = fingerprint(item);
+            }
+            return new Snapshot(ids, fingerprints);
+        }
+    }
+
+    static long fingerprint(@NonNull FeedItem item) {
+        long hash = Objects.hashCode(item.getTitle());
+        hash = 31 * hash + item.getPlayState();
+        hash = 31 * hash + (item.getPubDate() != null ? item.getPubDate().getTime() : 0);
+        hash = 31 * hash + Objects.hashCode(item.getImageLocation());
+        hash = 31 * hash + (item.isTagged(FeedItem.TAG_QUEUE) ? 1 : 0);
+        hash = 31 * hash + (item.isTagged(FeedItem.TAG_FAVORITE) ? 1 : 0);
+        FeedMedia media = item.getMedia();
+        if (media != null) {
+            hash = 31 * hash + media.getPosition();
+            hash = 31 * hash + media.getDuration();
+            hash = 31 * hash + (media.isDownloaded() ? 1 : 0);
+            hash = 31 * hash + media.getSize();
+            hash = 31 * hash + media.getLastPlayedTime();
+        }
+        return hash;
+    }
+}
@@ -37,6 +37,7 @@ import de.danoeh.antennapod.core.storage.NavDrawerData;
 import de.danoeh.antennapod.fragment.FeedItemlistFragment;
 import de.danoeh.antennapod.fragment.SubscriptionFragment;
 import de.danoeh.antennapod.model.feed.Feed;
+import de.danoeh.antennapod.ui.glide.ThumbnailBucket;
 
 /**
  * Adapter for subscriptions
@@ -242,7 +243,8 @@ public class SubscriptionsRecyclerAdapter extends SelectableAdapter<Subscription
                 count.setVisibility(View.GONE);
             }
 
-            CoverLoader coverLoader = new CoverLoader(mainActivityRef.get());
+            CoverLoader coverLoader = new CoverLoader(mainActivityRef.get())
+                    .withBucket(ThumbnailBucket.forGridColumns(coverImage.getContext(), columnCount));
             boolean textAndImageCombined;
             if (drawerItem.type == NavDrawerData.DrawerItem.Type.FEED) {
                 Feed feed = ((NavDrawerData.FeedDrawerItem) drawerItem).feed;
@@ -267,6 +267,7 @@ public class CoverFragment extends Fragment {
     }
 
     private void displayCoverImage() {
+        // Decoded to the view size, so the corners are rounded in the size they are shown in
         RequestOptions options = new RequestOptions()
                 .dontAnimate()
                 .transform(new FitCenter(),
@@ -26,12 +26,15 @@ import com.leinardi.android.speeddial.SpeedDialView;
 import de.danoeh.antennapod.R;
 import de.danoeh.antennapod.activity.MainActivity;
 import de.danoeh.antennapod.adapter.EpisodeItemListAdapter;
+import de.danoeh.antennapod.adapter.EpisodeItemListDiff;
 import de.danoeh.antennapod.core.dialog.ConfirmationDialog;
 import de.danoeh.antennapod.core.menuhandler.MenuItemUtils;
 import de.danoeh.antennapod.core.util.FeedItemUtil;
 import de.danoeh.antennapod.core.util.download.FeedUpdateManager;
 import de.danoeh.antennapod.event.EpisodeDownloadEvent;
+import de.danoeh.antennapod.event.EpisodeEventCoalescer;
 import de.danoeh.antennapod.event.FeedItemEvent;
+import de.danoeh.antennapod.event.FeedItemPositionIndex;
 import de.danoeh.antennapod.event.FeedListUpdateEvent;
 import de.danoeh.antennapod.event.FeedUpdateRunningEvent;
 import de.danoeh.antennapod.event.PlayerStatusEvent;
@@ -84,6 +87,8 @@ public abstract class EpisodesListFragment extends Fragment
     List<FeedItem> episodes = new ArrayList<>();
 
     protected Disposable disposable;
+    private final EpisodeEventCoalescer eventCoalescer = new EpisodeEventCoalescer(this::onEpisodeEventsCoalesced);
+    private final FeedItemPositionIndex positionIndex = new FeedItemPositionIndex();
     protected TextView txtvInformation;
 
     @Override
@@ -110,6 +115,7 @@ public abstract class EpisodesListFragment extends Fragment
     public void onStop() {
         super.onStop();
         EventBus.getDefault().unregister(this);
+        eventCoalescer.cancel();
         if (disposable != null) {
             disposable.dispose();
         }
@@ -230,15 +236,8 @@ public abstract class EpisodesListFragment extends Fragment
             }
         });
         speedDialView.setOnActionSelectedListener(actionItem -> {
-            int confirmationString = 0;
-            if (listAdapter.getSelectedItems().size() >= 25 || listAdapter.shouldSelectLazyLoadedItems()) {
-                // Should ask for confirmation
-                if (actionItem.getId() == R.id.mark_read_batch) {
-                    confirmationString = R.string.multi_select_mark_played_confirmation;
-                } else if (actionItem.getId() == R.id.mark_unread_batch) {
-                    confirmationString = R.string.multi_select_mark_unplayed_confirmation;
-                }
-            }
+            int confirmationString = EpisodeMultiSelectActionHandler.getConfirmationMessage(actionItem.getId(),
+                    listAdapter.getSelectedCount(), listAdapter.shouldSelectLazyLoadedItems());
             if (confirmationString == 0) {
                 performMultiSelectAction(actionItem.getId());
             } else {
@@ -343,18 +342,36 @@ public abstract class EpisodesListFragment extends Fragment
     @Subscribe(threadMode = ThreadMode.MAIN)
     public void onEventMainThread(FeedItemEvent event) {
         Log.d(TAG, "onEventMainThread() called with: " + "event = [" + event + "]");
-        for (FeedItem item : event.items) {
-            int pos = FeedItemUtil.indexOfItemWithId(episodes, item.getId());
+        eventCoalescer.add(event);
+    }
+
+    private void onEpisodeEventsCoalesced(EpisodeEventCoalescer.Delta delta) {
+        if (delta.reload) {
+            loadItems();
+            return;
+        }
+        positionIndex.setItems(episodes);
+        List<Integer> removedPositions = new ArrayList<>();
+        for (FeedItem item : delta.updatedItems) {
+            int pos = positionIndex.indexOf(item.getId());
             if (pos >= 0) {
-                episodes.remove(pos);
                 if (getFilter().matches(item)) {
-                    episodes.add(pos, item);
+                    episodes.set(pos, item);
                     listAdapter.notifyItemChangedCompat(pos);
                 } else {
-                    listAdapter.notifyItemRemoved(pos);
+                    removedPositions.add(pos);
                 }
             }
         }
+        // From the end, so that the positions of the remaining removals stay valid
+        Collections.sort(removedPositions, Collections.reverseOrder());
+        for (int pos : removedPositions) {
+            episodes.remove(pos);
+            listAdapter.notifyItemRemoved(pos);
+        }
+        if (!removedPositions.isEmpty()) {
+            positionIndex.invalidate();
+        }
     }
 
     @Subscribe(threadMode = ThreadMode.MAIN)
@@ -397,34 +414,36 @@ public abstract class EpisodesListFragment extends Fragment
 
     @Subscribe(threadMode = ThreadMode.MAIN)
     public void onPlayerStatusChanged(PlayerStatusEvent event) {
-        loadItems();
+        eventCoalescer.requestReload();
     }
 
     @Subscribe(threadMode = ThreadMode.MAIN)
     public void onUnreadItemsChanged(UnreadItemsUpdateEvent event) {
-        loadItems();
+        eventCoalescer.requestReload();
     }
 
     @Subscribe(threadMode = ThreadMode.MAIN)
     public void onFeedListChanged(FeedListUpdateEvent event) {
-        loadItems();
+        eventCoalescer.requestReload();
     }
 
     void loadItems() {
         if (disposable != null) {
             disposable.dispose();
         }
-        disposable = Observable.fromCallable(() -> new Pair<>(loadData(), loadTotalItemCount()))
+        EpisodeItemListDiff.Snapshot displayedItems = listAdapter.getSnapshot();
+        disposable = Observable.fromCallable(() ->
+                        new Pair<>(EpisodeItemListDiff.calculate(displayedItems, loadData()), loadTotalItemCount()))
                 .subscribeOn(Schedulers.io())
                 .observeOn(AndroidSchedulers.mainThread())
                 .subscribe(
                         data -> {
                             final boolean restoreScrollPosition = episodes.isEmpty();
-                            episodes = data.first;
+                            episodes = data.first.getItems();
                             hasMoreItems = !(page == 1 && episodes.size() < EPISODES_PER_PAGE);
                             progressBar.setVisibility(View.GONE);
                             listAdapter.setDummyViews(0);
-                            listAdapter.updateItems(episodes);
+                            listAdapter.updateItems(data.first);
                             listAdapter.setTotalNumberOfItems(data.second);
                             if (restoreScrollPosition) {
                                 recyclerView.restoreScrollPosition(getPrefName());
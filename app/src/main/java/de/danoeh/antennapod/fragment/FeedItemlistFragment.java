@@ -1,6 +1,7 @@
 package de.danoeh.antennapod.fragment;
 
 import android.content.Context;
+import android.content.DialogInterface;
 import android.content.res.Configuration;
 import android.graphics.LightingColorFilter;
 import android.os.Bundle;
@@ -19,6 +20,7 @@ import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.appcompat.content.res.AppCompatResources;
 import com.google.android.material.appbar.MaterialToolbar;
+import androidx.core.util.Pair;
 import androidx.fragment.app.Fragment;
 import androidx.recyclerview.widget.RecyclerView;
 import com.bumptech.glide.Glide;
@@ -29,11 +31,12 @@ import com.leinardi.android.speeddial.SpeedDialView;
 import de.danoeh.antennapod.R;
 import de.danoeh.antennapod.activity.MainActivity;
 import de.danoeh.antennapod.adapter.EpisodeItemListAdapter;
+import de.danoeh.antennapod.adapter.EpisodeItemListDiff;
+import de.danoeh.antennapod.core.dialog.ConfirmationDialog;
 import de.danoeh.antennapod.core.feed.FeedEvent;
 import de.danoeh.antennapod.core.menuhandler.MenuItemUtils;
 import de.danoeh.antennapod.core.storage.DBReader;
 import de.danoeh.antennapod.core.storage.DBTasks;
-import de.danoeh.antennapod.core.util.FeedItemPermutors;
 import de.danoeh.antennapod.core.util.FeedItemUtil;
 import de.danoeh.antennapod.core.util.download.FeedUpdateManager;
 import de.danoeh.antennapod.core.util.gui.MoreContentListFooterUtil;
@@ -44,8 +47,10 @@ import de.danoeh.antennapod.dialog.FeedItemFilterDialog;
 import de.danoeh.antennapod.dialog.RemoveFeedDialog;
 import de.danoeh.antennapod.dialog.RenameItemDialog;
 import de.danoeh.antennapod.event.EpisodeDownloadEvent;
+import de.danoeh.antennapod.event.EpisodeEventCoalescer;
 import de.danoeh.antennapod.event.FavoritesEvent;
 import de.danoeh.antennapod.event.FeedItemEvent;
+import de.danoeh.antennapod.event.FeedItemPositionIndex;
 import de.danoeh.antennapod.event.FeedListUpdateEvent;
 import de.danoeh.antennapod.event.FeedUpdateRunningEvent;
 import de.danoeh.antennapod.event.PlayerStatusEvent;
@@ -64,6 +69,7 @@ import de.danoeh.antennapod.storage.preferences.UserPreferences;
 import de.danoeh.antennapod.ui.glide.FastBlurTransformation;
 import de.danoeh.antennapod.view.ToolbarIconTintManager;
 import de.danoeh.antennapod.view.viewholder.EpisodeItemViewHolder;
+import io.reactivex.Completable;
 import io.reactivex.Maybe;
 import io.reactivex.Observable;
 import io.reactivex.android.schedulers.AndroidSchedulers;
@@ -85,6 +91,7 @@ public class FeedItemlistFragment extends Fragment implements AdapterView.OnItem
     public static final String TAG = "ItemlistFragment";
     private static final String ARGUMENT_FEED_ID = "argument.de.danoeh.antennapod.feed_id";
     private static final String KEY_UP_ARROW = "up_arrow";
+    private static final int EPISODES_PER_PAGE = 150;
 
     private FeedItemListAdapter adapter;
     private SwipeActions swipeActions;
@@ -94,6 +101,11 @@ public class FeedItemlistFragment extends Fragment implements AdapterView.OnItem
     private Feed feed;
     private boolean headerCreated = false;
     private Disposable disposable;
+    private int page = 1;
+    private boolean isLoadingMore = false;
+    private boolean hasMoreItems = false;
+    private final EpisodeEventCoalescer eventCoalescer = new EpisodeEventCoalescer(this::onEpisodeEventsCoalesced);
+    private final FeedItemPositionIndex positionIndex = new FeedItemPositionIndex();
     private FeedItemListFragmentBinding viewBinding;
     private MultiSelectSpeedDialBinding speedDialBinding;
 
@@ -172,8 +184,13 @@ public class FeedItemlistFragment extends Fragment implements AdapterView.OnItem
             @Override
             public void onScrolled(@NonNull RecyclerView view, int deltaX, int deltaY) {
                 super.onScrolled(view, deltaX, deltaY);
+                if (!isLoadingMore && hasMoreItems && viewBinding.recyclerView.isScrolledToBottom()) {
+                    page++;
+                    loadMoreItems();
+                }
                 boolean hasMorePages = feed != null && feed.isPaged() && feed.getNextPageLink() != null;
-                boolean pageLoaderVisible = viewBinding.recyclerView.isScrolledToBottom() && hasMorePages;
+                boolean pageLoaderVisible = viewBinding.recyclerView.isScrolledToBottom() && hasMorePages
+                        && !hasMoreItems;
                 nextPageLoader.getRoot().setVisibility(pageLoaderVisible ? View.VISIBLE : View.GONE);
                 viewBinding.recyclerView.setPadding(
                         viewBinding.recyclerView.getPaddingLeft(), 0, viewBinding.recyclerView.getPaddingRight(),
@@ -211,19 +228,58 @@ public class FeedItemlistFragment extends Fragment implements AdapterView.OnItem
             }
         });
         speedDialBinding.fabSD.setOnActionSelectedListener(actionItem -> {
-            new EpisodeMultiSelectActionHandler(((MainActivity) getActivity()), actionItem.getId())
-                    .handleAction(adapter.getSelectedItems());
-            adapter.endSelectMode();
+            int confirmationString = EpisodeMultiSelectActionHandler.getConfirmationMessage(actionItem.getId(),
+                    adapter.getSelectedCount(), adapter.shouldSelectLazyLoadedItems());
+            if (confirmationString == 0) {
+                performMultiSelectAction(actionItem.getId());
+            } else {
+                new ConfirmationDialog(getActivity(), R.string.multi_select, confirmationString) {
+                    @Override
+                    public void onConfirmButtonPressed(DialogInterface dialog) {
+                        performMultiSelectAction(actionItem.getId());
+                    }
+                }.createNewDialog().show();
+            }
             return true;
         });
         return viewBinding.getRoot();
     }
 
+    private void performMultiSelectAction(int actionItemId) {
+        EpisodeMultiSelectActionHandler handler =
+                new EpisodeMultiSelectActionHandler(((MainActivity) getActivity()), actionItemId);
+        if (!adapter.shouldSelectLazyLoadedItems() || feed == null) {
+            handler.handleAction(adapter.getSelectedItems());
+            adapter.endSelectMode();
+            return;
+        }
+        final Feed selectedFeed = feed;
+        final int loadedPages = page;
+        final List<FeedItem> selectedItems = adapter.getSelectedItems();
+        Completable.fromAction(
+                () -> {
+                    handler.handleAction(selectedItems);
+                    int applyPage = loadedPages + 1;
+                    List<FeedItem> nextPage;
+                    do {
+                        nextPage = DBReader.getFeedItemList(selectedFeed, selectedFeed.getItemFilter(),
+                                selectedFeed.getSortOrder(), (applyPage - 1) * EPISODES_PER_PAGE, EPISODES_PER_PAGE);
+                        handler.handleAction(nextPage);
+                        applyPage++;
+                    } while (nextPage.size() == EPISODES_PER_PAGE);
+                })
+                .subscribeOn(Schedulers.io())
+                .observeOn(AndroidSchedulers.mainThread())
+                .subscribe(() -> adapter.endSelectMode(),
+                        error -> Log.e(TAG, Log.getStackTraceString(error)));
+    }
+
     @Override
     public void onDestroyView() {
         super.onDestroyView();
 
         EventBus.getDefault().unregister(this);
+        eventCoalescer.cancel();
         if (disposable != null) {
             disposable.dispose();
         }
@@ -317,12 +373,21 @@ public class FeedItemlistFragment extends Fragment implements AdapterView.OnItem
         if (feed == null || feed.getItems() == null) {
             return;
         }
-        for (int i = 0, size = event.items.size(); i < size; i++) {
-            FeedItem item = event.items.get(i);
-            int pos = FeedItemUtil.indexOfItemWithId(feed.getItems(), item.getId());
+        eventCoalescer.add(event);
+    }
+
+    private void onEpisodeEventsCoalesced(EpisodeEventCoalescer.Delta delta) {
+        if (delta.reload) {
+            loadItems();
+            return;
+        } else if (feed == null || feed.getItems() == null) {
+            return;
+        }
+        positionIndex.setItems(feed.getItems());
+        for (FeedItem item : delta.updatedItems) {
+            int pos = positionIndex.indexOf(item.getId());
             if (pos >= 0) {
-                feed.getItems().remove(pos);
-                feed.getItems().add(pos, item);
+                feed.getItems().set(pos, item);
                 adapter.notifyItemChangedCompat(pos);
             }
         }
@@ -383,7 +448,7 @@ public class FeedItemlistFragment extends Fragment implements AdapterView.OnItem
     }
 
     private void updateUi() {
-        loadItems();
+        eventCoalescer.requestReload();
     }
 
     @Subscribe(threadMode = ThreadMode.MAIN)
@@ -521,20 +586,27 @@ public class FeedItemlistFragment extends Fragment implements AdapterView.OnItem
         if (disposable != null) {
             disposable.dispose();
         }
+        EpisodeItemListDiff.Snapshot displayedItems = adapter.getSnapshot();
         disposable = Observable.fromCallable(this::loadData)
+                .map(result -> new Pair<>(result,
+                        EpisodeItemListDiff.calculate(displayedItems, result.first.getItems())))
                 .subscribeOn(Schedulers.io())
                 .observeOn(AndroidSchedulers.mainThread())
                 .subscribe(
                     result -> {
-                        feed = result;
+                        feed = result.first.first;
+                        hasMoreItems = feed.getItems().size() >= page * EPISODES_PER_PAGE;
+                        isLoadingMore = false; // A reload replaces a page that was loading
+                        adapter.setTotalNumberOfItems(result.first.second);
                         swipeActions.setFilter(feed.getItemFilter());
                         refreshHeaderView();
                         viewBinding.progressBar.setVisibility(View.GONE);
                         adapter.setDummyViews(0);
-                        adapter.updateItems(feed.getItems());
+                        adapter.updateItems(result.second);
                         updateToolbar();
                     }, error -> {
                         feed = null;
+                        hasMoreItems = false;
                         refreshHeaderView();
                         adapter.setDummyViews(0);
                         adapter.updateItems(Collections.emptyList());
@@ -543,19 +615,54 @@ public class FeedItemlistFragment extends Fragment implements AdapterView.OnItem
                     });
     }
 
+    /**
+     * Loads the feed with the pages that are already displayed, and the total number of visible items.
+     */
     @Nullable
-    private Feed loadData() {
-        Feed feed = DBReader.getFeed(feedID, true);
+    private Pair<Feed, Integer> loadData() {
+        Feed feed = DBReader.getFeed(feedID, page * EPISODES_PER_PAGE);
         if (feed == null) {
             return null;
         }
-        DBReader.loadAdditionalFeedItemListData(feed.getItems());
-        if (feed.getSortOrder() != null) {
-            List<FeedItem> feedItems = feed.getItems();
-            FeedItemPermutors.getPermutor(feed.getSortOrder()).reorder(feedItems);
-            feed.setItems(feedItems);
+        return new Pair<>(feed, DBReader.getFeedEpisodeCount(feedID, feed.getItemFilter()));
+    }
+
+    private void loadMoreItems() {
+        if (disposable != null) {
+            disposable.dispose();
+        }
+        if (feed == null) {
+            return;
         }
-        return feed;
+        isLoadingMore = true;
+        adapter.setDummyViews(1);
+        adapter.notifyItemInserted(adapter.getItemCount() - 1);
+        final Feed loadedFeed = feed;
+        final int offset = (page - 1) * EPISODES_PER_PAGE;
+        disposable = Observable.fromCallable(() -> DBReader.getFeedItemList(loadedFeed,
+                        loadedFeed.getItemFilter(), loadedFeed.getSortOrder(), offset, EPISODES_PER_PAGE))
+                .subscribeOn(Schedulers.io())
+                .observeOn(AndroidSchedulers.mainThread())
+                .subscribe(
+                        data -> {
+                            if (data.size() < EPISODES_PER_PAGE) {
+                                hasMoreItems = false;
+                            }
+                            List<FeedItem> items = loadedFeed.getItems();
+                            items.addAll(data);
+                            adapter.setDummyViews(0);
+                            adapter.updateItems(items);
+                            if (adapter.shouldSelectLazyLoadedItems()) {
+                                adapter.setSelected(items.size() - data.size(), items.size(), true);
+                            }
+                        }, error -> {
+                            adapter.setDummyViews(0);
+                            adapter.updateItems(Collections.emptyList());
+                            Log.e(TAG, Log.getStackTraceString(error));
+                        }, () -> {
+                            // Make sure to not always load 2 pages at once
+                            viewBinding.recyclerView.post(() -> isLoadingMore = false);
+                        });
     }
 
     @Subscribe(threadMode = ThreadMode.MAIN)
@@ -15,6 +15,7 @@ import androidx.fragment.app.Fragment;
 import de.danoeh.antennapod.R;
 import de.danoeh.antennapod.core.storage.DBReader;
 import de.danoeh.antennapod.core.util.playback.PlaybackController;
+import de.danoeh.antennapod.core.util.gui.ShownotesCache;
 import de.danoeh.antennapod.core.util.gui.ShownotesCleaner;
 import de.danoeh.antennapod.model.feed.FeedMedia;
 import de.danoeh.antennapod.model.playback.Playable;
@@ -103,6 +104,9 @@ public class ItemDescriptionFragment extends Fragment {
                     feedMedia.setItem(DBReader.getFeedItem(feedMedia.getItemId()));
                 }
                 DBReader.loadDescriptionOfFeedItem(feedMedia.getItem());
+                emitter.onSuccess(ShownotesCache.getProcessedShownotes(context, feedMedia.getItemId(),
+                        media.getDescription(), media.getDuration()));
+                return;
             }
             ShownotesCleaner shownotesCleaner = new ShownotesCleaner(
                     context, media.getDescription(), media.getDuration());
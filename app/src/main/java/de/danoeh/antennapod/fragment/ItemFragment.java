@@ -54,7 +54,7 @@ import de.danoeh.antennapod.core.util.DateFormatter;
 import de.danoeh.antennapod.ui.common.CircularProgressBar;
 import de.danoeh.antennapod.ui.common.ThemeUtils;
 import de.danoeh.antennapod.core.util.playback.PlaybackController;
-import de.danoeh.antennapod.core.util.gui.ShownotesCleaner;
+import de.danoeh.antennapod.core.util.gui.ShownotesCache;
 import de.danoeh.antennapod.view.ShownotesWebView;
 import io.reactivex.Observable;
 import io.reactivex.android.schedulers.AndroidSchedulers;
@@ -426,8 +426,8 @@ public class ItemFragment extends Fragment {
         if (feedItem != null && context != null) {
             int duration = feedItem.getMedia() != null ? feedItem.getMedia().getDuration() : Integer.MAX_VALUE;
             DBReader.loadDescriptionOfFeedItem(feedItem);
-            ShownotesCleaner t = new ShownotesCleaner(context, feedItem.getDescription(), duration);
-            webviewData = t.processShownotes();
+            webviewData = ShownotesCache.getProcessedShownotes(context, feedItem.getId(),
+                    feedItem.getDescription(), duration);
         }
         return feedItem;
     }
@@ -30,6 +30,7 @@ import com.leinardi.android.speeddial.SpeedDialView;
 import de.danoeh.antennapod.R;
 import de.danoeh.antennapod.activity.MainActivity;
 import de.danoeh.antennapod.adapter.EpisodeItemListAdapter;
+import de.danoeh.antennapod.adapter.EpisodeItemListDiff;
 import de.danoeh.antennapod.adapter.QueueRecyclerAdapter;
 import de.danoeh.antennapod.core.dialog.ConfirmationDialog;
 import de.danoeh.antennapod.core.feed.util.PlaybackSpeedUtils;
@@ -39,8 +40,11 @@ import de.danoeh.antennapod.core.storage.DBWriter;
 import de.danoeh.antennapod.core.util.Converter;
 import de.danoeh.antennapod.core.util.FeedItemUtil;
 import de.danoeh.antennapod.core.util.download.FeedUpdateManager;
+import de.danoeh.antennapod.core.util.gui.ShownotesCache;
 import de.danoeh.antennapod.event.EpisodeDownloadEvent;
+import de.danoeh.antennapod.event.EpisodeEventCoalescer;
 import de.danoeh.antennapod.event.FeedItemEvent;
+import de.danoeh.antennapod.event.FeedItemPositionIndex;
 import de.danoeh.antennapod.event.FeedUpdateRunningEvent;
 import de.danoeh.antennapod.event.PlayerStatusEvent;
 import de.danoeh.antennapod.event.QueueEvent;
@@ -57,6 +61,7 @@ import de.danoeh.antennapod.view.EmptyViewHandler;
 import de.danoeh.antennapod.view.EpisodeItemListRecyclerView;
 import de.danoeh.antennapod.view.LiftOnScrollListener;
 import de.danoeh.antennapod.view.viewholder.EpisodeItemViewHolder;
+import io.reactivex.Completable;
 import io.reactivex.Observable;
 import io.reactivex.android.schedulers.AndroidSchedulers;
 import io.reactivex.disposables.Disposable;
@@ -65,6 +70,7 @@ import org.greenrobot.eventbus.EventBus;
 import org.greenrobot.eventbus.Subscribe;
 import org.greenrobot.eventbus.ThreadMode;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
 
@@ -89,6 +95,9 @@ public class QueueFragment extends Fragment implements MaterialToolbar.OnMenuIte
     private static final String PREF_SHOW_LOCK_WARNING = "show_lock_warning";
 
     private Disposable disposable;
+    private Disposable shownotesDisposable;
+    private final EpisodeEventCoalescer eventCoalescer = new EpisodeEventCoalescer(this::onEpisodeEventsCoalesced);
+    private final FeedItemPositionIndex positionIndex = new FeedItemPositionIndex();
     private SwipeActions swipeActions;
     private SharedPreferences prefs;
 
@@ -122,9 +131,13 @@ public class QueueFragment extends Fragment implements MaterialToolbar.OnMenuIte
     public void onStop() {
         super.onStop();
         EventBus.getDefault().unregister(this);
+        eventCoalescer.cancel();
         if (disposable != null) {
             disposable.dispose();
         }
+        if (shownotesDisposable != null) {
+            shownotesDisposable.dispose();
+        }
     }
 
     @Subscribe(threadMode = ThreadMode.MAIN)
@@ -132,35 +145,8 @@ public class QueueFragment extends Fragment implements MaterialToolbar.OnMenuIte
         Log.d(TAG, "onEventMainThread() called with: " + "event = [" + event + "]");
         if (queue == null) {
             return;
-        } else if (recyclerAdapter == null) {
-            loadItems(true);
-            return;
-        }
-        switch(event.action) {
-            case ADDED:
-                queue.add(event.position, event.item);
-                recyclerAdapter.notifyItemInserted(event.position);
-                break;
-            case SET_QUEUE:
-            case SORTED: //Deliberate fall-through
-                queue = event.items;
-                recyclerAdapter.updateItems(event.items);
-                break;
-            case REMOVED:
-            case IRREVERSIBLE_REMOVED:
-                int position = FeedItemUtil.indexOfItemWithId(queue, event.item.getId());
-                queue.remove(position);
-                recyclerAdapter.notifyItemRemoved(position);
-                break;
-            case CLEARED:
-                queue.clear();
-                recyclerAdapter.updateItems(queue);
-                break;
-            case MOVED:
-                return;
         }
-        recyclerView.saveScrollPosition(QueueFragment.TAG);
-        refreshInfoBar();
+        eventCoalescer.add(event);
     }
 
     @Subscribe(threadMode = ThreadMode.MAIN)
@@ -168,20 +154,66 @@ public class QueueFragment extends Fragment implements MaterialToolbar.OnMenuIte
         Log.d(TAG, "onEventMainThread() called with: " + "event = [" + event + "]");
         if (queue == null) {
             return;
-        } else if (recyclerAdapter == null) {
-            loadItems(true);
+        }
+        eventCoalescer.add(event);
+    }
+
+    private void onEpisodeEventsCoalesced(EpisodeEventCoalescer.Delta delta) {
+        if (queue == null || recyclerAdapter == null) {
+            return; // The view is gone, onStart() loads the items again
+        } else if (delta.reload) {
+            loadItems(false);
             return;
         }
-        for (int i = 0, size = event.items.size(); i < size; i++) {
-            FeedItem item = event.items.get(i);
-            int pos = FeedItemUtil.indexOfItemWithId(queue, item.getId());
+        boolean queueChanged = false;
+        positionIndex.setItems(queue);
+        for (QueueEvent event : delta.queueEvents) {
+            switch (event.action) {
+                case ADDED:
+                    queue.add(event.position, event.item);
+                    positionIndex.invalidate();
+                    recyclerAdapter.notifyItemInserted(event.position);
+                    break;
+                case SET_QUEUE:
+                case SORTED: //Deliberate fall-through
+                    queue = event.items;
+                    positionIndex.setItems(queue);
+                    recyclerAdapter.updateItems(event.items);
+                    break;
+                case REMOVED:
+                case IRREVERSIBLE_REMOVED:
+                    int position = positionIndex.indexOf(event.item.getId());
+                    if (position >= 0) {
+                        queue.remove(position);
+                        positionIndex.invalidate();
+                        recyclerAdapter.notifyItemRemoved(position);
+                    }
+                    break;
+                case CLEARED:
+                    queue.clear();
+                    positionIndex.invalidate();
+                    recyclerAdapter.updateItems(queue);
+                    break;
+                default:
+                    continue;
+            }
+            queueChanged = true;
+        }
+
+        for (FeedItem item : delta.updatedItems) {
+            int pos = positionIndex.indexOf(item.getId());
             if (pos >= 0) {
-                queue.remove(pos);
-                queue.add(pos, item);
+                queue.set(pos, item);
                 recyclerAdapter.notifyItemChangedCompat(pos);
-                refreshInfoBar();
+                queueChanged = true;
             }
         }
+        if (queueChanged) {
+            if (!delta.queueEvents.isEmpty()) {
+                recyclerView.saveScrollPosition(QueueFragment.TAG);
+            }
+            refreshInfoBar();
+        }
     }
 
     @Subscribe(sticky = true, threadMode = ThreadMode.MAIN)
@@ -213,14 +245,14 @@ public class QueueFragment extends Fragment implements MaterialToolbar.OnMenuIte
 
     @Subscribe(threadMode = ThreadMode.MAIN)
     public void onPlayerStatusChanged(PlayerStatusEvent event) {
-        loadItems(false);
+        eventCoalescer.requestReload();
         refreshToolbarState();
     }
 
     @Subscribe(threadMode = ThreadMode.MAIN)
     public void onUnreadItemsChanged(UnreadItemsUpdateEvent event) {
         // Sent when playback position is reset
-        loadItems(false);
+        eventCoalescer.requestReload();
         refreshToolbarState();
     }
 
@@ -533,24 +565,43 @@ public class QueueFragment extends Fragment implements MaterialToolbar.OnMenuIte
         if (disposable != null) {
             disposable.dispose();
         }
+        if (recyclerAdapter == null) {
+            return;
+        }
         if (queue == null) {
             emptyView.hide();
         }
-        disposable = Observable.fromCallable(DBReader::getQueue)
+        EpisodeItemListDiff.Snapshot displayedItems = recyclerAdapter.getSnapshot();
+        disposable = Observable.fromCallable(() -> EpisodeItemListDiff.calculate(displayedItems, DBReader.getQueue()))
                 .subscribeOn(Schedulers.io())
                 .observeOn(AndroidSchedulers.mainThread())
-                .subscribe(items -> {
-                    queue = items;
+                .subscribe(diff -> {
+                    queue = diff.getItems();
                     progressBar.setVisibility(View.GONE);
                     recyclerAdapter.setDummyViews(0);
-                    recyclerAdapter.updateItems(queue);
+                    recyclerAdapter.updateItems(diff);
                     if (restoreScrollPosition) {
                         recyclerView.restoreScrollPosition(QueueFragment.TAG);
+                        precomputeShownotes();
                     }
                     refreshInfoBar();
                 }, error -> Log.e(TAG, Log.getStackTraceString(error)));
     }
 
+    private void precomputeShownotes() {
+        if (shownotesDisposable != null) {
+            shownotesDisposable.dispose();
+        }
+        Context context = getContext();
+        if (context == null || queue == null) {
+            return;
+        }
+        List<FeedItem> items = new ArrayList<>(queue);
+        shownotesDisposable = Completable.fromAction(() -> ShownotesCache.precompute(context, items))
+                .subscribeOn(Schedulers.io())
+                .subscribe(() -> { }, error -> Log.e(TAG, Log.getStackTraceString(error)));
+    }
+
     @Override
     public void onStartSelectMode() {
         swipeActions.detach();
@@ -3,6 +3,7 @@ package de.danoeh.antennapod.fragment.actions;
 import android.util.Log;
 
 import androidx.annotation.PluralsRes;
+import androidx.annotation.StringRes;
 
 import com.google.android.material.snackbar.Snackbar;
 
@@ -17,6 +18,7 @@ import de.danoeh.antennapod.model.feed.FeedItem;
 
 public class EpisodeMultiSelectActionHandler {
     private static final String TAG = "EpisodeSelectHandler";
+    private static final int CONFIRM_MIN_ITEMS = 25;
     private final MainActivity activity;
     private final int actionId;
     private int totalNumItems = 0;
@@ -27,6 +29,24 @@ public class EpisodeMultiSelectActionHandler {
         this.actionId = actionId;
     }
 
+    /**
+     * Marking many episodes can not be undone easily, so it needs to be confirmed first.
+     *
+     * @param includesLazyLoadedItems If the selection also contains items that are not loaded yet
+     * @return The confirmation message, or 0 if the action can be performed right away
+     */
+    @StringRes
+    public static int getConfirmationMessage(int actionId, int numSelected, boolean includesLazyLoadedItems) {
+        if (numSelected < CONFIRM_MIN_ITEMS && !includesLazyLoadedItems) {
+            return 0;
+        } else if (actionId == R.id.mark_read_batch) {
+            return R.string.multi_select_mark_played_confirmation;
+        } else if (actionId == R.id.mark_unread_batch) {
+            return R.string.multi_select_mark_unplayed_confirmation;
+        }
+        return 0;
+    }
+
     public void handleAction(List<FeedItem> items) {
         if (actionId == R.id.add_to_queue_batch) {
             queueChecked(items);
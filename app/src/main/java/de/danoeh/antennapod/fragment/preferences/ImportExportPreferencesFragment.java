@@ -56,7 +56,7 @@ public class ImportExportPreferencesFragment extends PreferenceFragmentCompat {
     private static final String DEFAULT_HTML_OUTPUT_NAME = "antennapod-feeds-%s.html";
     private static final String CONTENT_TYPE_HTML = "text/html";
     private static final String DEFAULT_FAVORITES_OUTPUT_NAME = "antennapod-favorites-%s.html";
-    private static final String DATABASE_EXPORT_FILENAME = "AntennaPodBackup-%s.db";
+    private static final String DATABASE_EXPORT_FILENAME = "AntennaPodBackup-%s.db.gz";
     private final ActivityResultLauncher<Intent> chooseOpmlExportPathLauncher =
             registerForActivityResult(new StartActivityForResult(), this::chooseOpmlExportPathResult);
     private final ActivityResultLauncher<Intent> chooseHtmlExportPathLauncher =
@@ -306,7 +306,7 @@ public class ImportExportPreferencesFragment extends PreferenceFragmentCompat {
         public Intent createIntent(@NonNull final Context context, @NonNull final String input) {
             return super.createIntent(context, input)
                     .addCategory(Intent.CATEGORY_OPENABLE)
-                    .setType("application/x-sqlite3");
+                    .setType("application/gzip");
         }
     }
 
@@ -36,6 +36,7 @@ import de.danoeh.antennapod.core.util.NetworkUtils;
 import de.danoeh.antennapod.model.playback.Playable;
 import de.danoeh.antennapod.ui.common.CircularProgressBar;
 import de.danoeh.antennapod.ui.common.ThemeUtils;
+import de.danoeh.antennapod.ui.glide.ThumbnailBucket;
 
 /**
  * Holds the view which shows FeedItems.
@@ -130,6 +131,7 @@ public class EpisodeItemViewHolder extends RecyclerView.ViewHolder {
                     .withFallbackUri(item.getFeed().getImageUrl())
                     .withPlaceholderView(placeholder)
                     .withCoverView(cover)
+                    .withBucket(ThumbnailBucket.LIST)
                     .load();
         }
     }
@@ -23,6 +23,7 @@ import de.danoeh.antennapod.net.download.serviceinterface.DownloadServiceInterfa
 import de.danoeh.antennapod.ui.common.CircularProgressBar;
 import de.danoeh.antennapod.ui.common.SquareImageView;
 import de.danoeh.antennapod.ui.common.ThemeUtils;
+import de.danoeh.antennapod.ui.glide.ThumbnailBucket;
 
 public class HorizontalItemViewHolder extends RecyclerView.ViewHolder {
     public final CardView card;
@@ -62,6 +63,7 @@ public class HorizontalItemViewHolder extends RecyclerView.ViewHolder {
                 .withUri(ImageResourceUtils.getEpisodeListImageLocation(item))
                 .withFallbackUri(item.getFeed().getImageUrl())
                 .withCoverView(cover)
+                .withBucket(ThumbnailBucket.GRID)
                 .load();
         title.setText(item.getTitle());
         date.setText(DateFormatter.formatAbbrev(activity, item.getPubDate()));
@@ -14,6 +14,7 @@ import de.danoeh.antennapod.core.util.NetworkUtils;
 import de.danoeh.antennapod.core.util.download.NetworkConnectionChangeHandler;
 import de.danoeh.antennapod.core.util.gui.NotificationUtils;
 import de.danoeh.antennapod.net.ssl.SslProviderInstaller;
+import de.danoeh.antennapod.storage.database.DatabaseTimings;
 import de.danoeh.antennapod.storage.database.PodDBAdapter;
 
 import java.io.File;
@@ -27,6 +28,7 @@ public class ClientConfigurator {
         }
         PodDBAdapter.init(context);
         UserPreferences.init(context);
+        DatabaseTimings.setEnabled(UserPreferences.isDatabaseTimingsEnabled());
         UsageStatistics.init(context);
         PlaybackPreferences.init(context);
         SslProviderInstaller.install(context);
@@ -30,6 +30,7 @@ import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 
 import de.danoeh.antennapod.core.export.opml.OpmlElement;
 import de.danoeh.antennapod.core.export.opml.OpmlReader;
@@ -142,12 +143,14 @@ public class OpmlBackupAgent extends BackupAgentHelper {
             try {
                 ArrayList<OpmlElement> opmlElements = new OpmlReader().readDocument(reader);
                 mChecksum = digester == null ? null : digester.digest();
+                List<Feed> feeds = new ArrayList<>();
                 for (OpmlElement opmlElem : opmlElements) {
                     Feed feed = new Feed(opmlElem.getXmlUrl(), null, opmlElem.getText());
                     feed.setItems(Collections.emptyList());
-                    DBTasks.updateFeed(mContext, feed, false);
+                    feeds.add(feed);
                 }
-                FeedUpdateManager.runOnce(mContext);
+                List<Feed> addedFeeds = DBTasks.subscribeToFeeds(mContext, feeds);
+                FeedUpdateManager.runOnce(mContext, addedFeeds);
             } catch (XmlPullParserException e) {
                 Log.e(TAG, "Error while parsing the OPML file", e);
             } catch (IOException e) {
@@ -17,12 +17,18 @@ import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import androidx.annotation.VisibleForTesting;
 import androidx.documentfile.provider.DocumentFile;
@@ -49,6 +55,8 @@ import org.apache.commons.io.input.CountingInputStream;
 public class LocalFeedUpdater {
     private static final String TAG = "LocalFeedUpdater";
 
+    private static final int METADATA_THREADS = 4;
+
     static final String[] PREFERRED_FEED_IMAGE_FILENAMES = {"folder.jpg", "Folder.jpg", "folder.png", "Folder.png"};
 
     public static void updateFeed(Feed feed, Context context,
@@ -97,19 +105,54 @@ public class LocalFeedUpdater {
             }
         }
 
+        // index existing items, so that matching does not need to scan the item list for every file
+        Map<String, FeedItem> itemsByFilename = new HashMap<>();
+        Map<String, FeedItem> itemsByUri = new HashMap<>();
+        for (FeedItem item : feed.getItems()) {
+            if (item.getMedia() != null) {
+                itemsByFilename.put(item.getLink(), item);
+                itemsByUri.put(item.getMedia().getDownload_url(), item);
+            }
+        }
+
         // add new files to feed and update item data
+        final Feed savedFeed = feed;
         List<FeedItem> newItems = feed.getItems();
-        for (int i = 0; i < mediaFiles.size(); i++) {
-            FeedItem oldItem = feedContainsFile(feed, mediaFiles.get(i).getName());
-            FeedItem newItem = createFeedItem(feed, mediaFiles.get(i), context);
-            if (oldItem == null) {
-                newItems.add(newItem);
-            } else {
-                oldItem.updateFromOther(newItem);
+        List<Future<FeedItem>> scannedItems = new ArrayList<>();
+        List<FeedItem> oldItems = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(METADATA_THREADS);
+        try {
+            for (FastDocumentFile file : mediaFiles) {
+                FeedItem oldItem = itemsByFilename.get(file.getName());
+                if (oldItem != null && isUnchanged(oldItem.getMedia(), file)) {
+                    continue;
+                }
+                FeedItem existingItem = itemsByUri.get(file.getUri().toString());
+                scannedItems.add(executor.submit(
+                        () -> createFeedItem(savedFeed, existingItem, file, context)));
+                oldItems.add(oldItem);
             }
-            if (updaterProgressListener != null) {
-                updaterProgressListener.onLocalFileScanned(i, mediaFiles.size());
+            int skipped = mediaFiles.size() - scannedItems.size();
+            Log.d(TAG, "Skipped " + skipped + " unchanged files, scanning " + scannedItems.size());
+            for (int i = 0; i < scannedItems.size(); i++) {
+                FeedItem newItem = scannedItems.get(i).get();
+                FeedItem oldItem = oldItems.get(i);
+                if (oldItem == null) {
+                    newItems.add(newItem);
+                } else {
+                    oldItem.updateFromOther(newItem);
+                }
+                if (updaterProgressListener != null) {
+                    updaterProgressListener.onLocalFileScanned(skipped + i, mediaFiles.size());
+                }
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while scanning local files", e);
+        } catch (ExecutionException e) {
+            throw new IOException(e.getCause());
+        } finally {
+            executor.shutdownNow();
         }
 
         // remove feed items without corresponding file
@@ -139,38 +182,47 @@ public class LocalFeedUpdater {
      */
     @NonNull
     static String getImageUrl(List<FastDocumentFile> files, Uri folderUri) {
-        // look for special file names
-        for (String iconLocation : PREFERRED_FEED_IMAGE_FILENAMES) {
-            for (FastDocumentFile file : files) {
-                if (iconLocation.equals(file.getName())) {
-                    return file.getUri().toString();
+        FastDocumentFile preferredImage = null;
+        int preferredImageRank = PREFERRED_FEED_IMAGE_FILENAMES.length;
+        FastDocumentFile firstImage = null;
+        for (FastDocumentFile file : files) {
+            // look for special file names
+            for (int i = 0; i < preferredImageRank; i++) {
+                if (PREFERRED_FEED_IMAGE_FILENAMES[i].equals(file.getName())) {
+                    preferredImage = file;
+                    preferredImageRank = i;
+                    break;
                 }
             }
-        }
-
-        // use the first image in the folder if existing
-        for (FastDocumentFile file : files) {
+            // remember the first image in the folder
             String mime = file.getType();
-            if (mime != null && (mime.startsWith("image/jpeg") || mime.startsWith("image/png"))) {
-                return file.getUri().toString();
+            if (firstImage == null && mime != null
+                    && (mime.startsWith("image/jpeg") || mime.startsWith("image/png"))) {
+                firstImage = file;
             }
         }
 
+        if (preferredImage != null) {
+            return preferredImage.getUri().toString();
+        } else if (firstImage != null) {
+            return firstImage.getUri().toString();
+        }
         // use default icon as fallback
         return Feed.PREFIX_GENERATIVE_COVER + folderUri;
     }
 
-    private static FeedItem feedContainsFile(Feed feed, String filename) {
-        List<FeedItem> items = feed.getItems();
-        for (FeedItem i : items) {
-            if (i.getMedia() != null && i.getLink().equals(filename)) {
-                return i;
-            }
-        }
-        return null;
+    /**
+     * Returns true if the file was already scanned and did not change since then.
+     */
+    private static boolean isUnchanged(FeedMedia media, FastDocumentFile file) {
+        return media.getDownload_url().equals(file.getUri().toString())
+                && media.getSize() == file.getLength()
+                && media.getLastModified() > 0
+                && media.getLastModified() == file.getLastModified();
     }
 
-    private static FeedItem createFeedItem(Feed feed, FastDocumentFile file, Context context) {
+    private static FeedItem createFeedItem(Feed feed, @Nullable FeedItem existingItem,
+                                           FastDocumentFile file, Context context) {
         FeedItem item = new FeedItem(0, file.getName(), UUID.randomUUID().toString(),
                 file.getName(), new Date(file.getLastModified()), FeedItem.UNPLAYED, feed);
         item.disableAutoDownload();
@@ -178,16 +230,14 @@ public class LocalFeedUpdater {
         long size = file.getLength();
         FeedMedia media = new FeedMedia(0, item, 0, 0, size, file.getType(),
                 file.getUri().toString(), file.getUri().toString(), false, null, 0, 0);
+        media.setLastModified(file.getLastModified());
         item.setMedia(media);
 
-        for (FeedItem existingItem : feed.getItems()) {
-            if (existingItem.getMedia() != null
-                    && existingItem.getMedia().getDownload_url().equals(file.getUri().toString())
-                    && file.getLength() == existingItem.getMedia().getSize()) {
-                // We found an old file that we already scanned. Re-use metadata.
-                item.updateFromOther(existingItem);
-                return item;
-            }
+        if (existingItem != null && file.getLength() == existingItem.getMedia().getSize()) {
+            // We found an old file that we already scanned. Re-use metadata.
+            item.updateFromOther(existingItem);
+            media.setLastModified(file.getLastModified());
+            return item;
         }
 
         // Did not find existing item. Scan metadata.
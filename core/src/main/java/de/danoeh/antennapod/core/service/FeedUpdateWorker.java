@@ -23,6 +23,7 @@ import de.danoeh.antennapod.core.storage.DBReader;
 import de.danoeh.antennapod.core.storage.DBTasks;
 import de.danoeh.antennapod.core.storage.DBWriter;
 import de.danoeh.antennapod.core.util.NetworkUtils;
+import de.danoeh.antennapod.core.util.download.CoverPrefetcher;
 import de.danoeh.antennapod.core.util.download.FeedUpdateManager;
 import de.danoeh.antennapod.core.util.gui.NotificationUtils;
 import de.danoeh.antennapod.model.download.DownloadError;
@@ -34,17 +35,23 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 public class FeedUpdateWorker extends Worker {
     private static final String TAG = "FeedUpdateWorker";
+    private static final int CONCURRENT_REFRESHES = 4;
 
     private final NewEpisodesNotification newEpisodesNotification;
     private final NotificationManagerCompat notificationManager;
+    private final CoverPrefetcher coverPrefetcher;
 
     public FeedUpdateWorker(@NonNull Context context, @NonNull WorkerParameters params) {
         super(context, params);
         newEpisodesNotification = new NewEpisodesNotification();
         notificationManager = NotificationManagerCompat.from(context);
+        coverPrefetcher = new CoverPrefetcher(context);
     }
 
     @Override
@@ -60,7 +67,17 @@ public class FeedUpdateWorker extends Worker {
 
         List<Feed> toUpdate;
         long feedId = getInputData().getLong(FeedUpdateManager.EXTRA_FEED_ID, -1);
-        if (feedId == -1) { // Update all
+        long[] feedIds = getInputData().getLongArray(FeedUpdateManager.EXTRA_FEED_IDS);
+        if (feedIds != null) { // New subscriptions
+            toUpdate = new ArrayList<>();
+            for (long id : feedIds) {
+                Feed feed = DBReader.getFeed(id);
+                if (feed != null) {
+                    toUpdate.add(feed);
+                }
+            }
+            refreshFeedsConcurrently(toUpdate);
+        } else if (feedId == -1) { // Update all
             toUpdate = DBReader.getFeedList();
             Iterator<Feed> itr = toUpdate.iterator();
             while (itr.hasNext()) {
@@ -82,6 +99,9 @@ public class FeedUpdateWorker extends Worker {
         }
         notificationManager.cancel(R.id.notification_updating_feeds);
         DBTasks.autodownloadUndownloadedItems(getApplicationContext());
+        if (!isStopped()) {
+            coverPrefetcher.run(this::isStopped);
+        }
         return Result.success();
     }
 
@@ -108,20 +128,59 @@ public class FeedUpdateWorker extends Worker {
                 return;
             }
             notificationManager.notify(R.id.notification_updating_feeds, createNotification(toUpdate));
-            Feed feed = toUpdate.get(0);
-            try {
-                if (feed.isLocalFeed()) {
-                    LocalFeedUpdater.updateFeed(feed, getApplicationContext(), null);
-                } else {
-                    refreshFeed(feed, force);
+            refreshFeedOrReportError(toUpdate.get(0), force);
+            toUpdate.remove(0);
+        }
+    }
+
+    /**
+     * Refreshes several feeds at the same time, in the order of the list.
+     * Used for new subscriptions, which have nothing to compare against and mostly wait for the network.
+     */
+    private void refreshFeedsConcurrently(List<Feed> toUpdate) {
+        List<Feed> remaining = new ArrayList<>(toUpdate);
+        notificationManager.notify(R.id.notification_updating_feeds, createNotification(remaining));
+        ExecutorService executor = Executors.newFixedThreadPool(CONCURRENT_REFRESHES);
+        for (Feed feed : toUpdate) {
+            executor.execute(() -> {
+                if (isStopped()) {
+                    return;
+                }
+                refreshFeedOrReportError(feed, false);
+                synchronized (remaining) {
+                    remaining.remove(feed);
+                    if (!remaining.isEmpty() && !isStopped()) {
+                        notificationManager.notify(R.id.notification_updating_feeds,
+                                createNotification(remaining));
+                    }
+                }
+            });
+        }
+        executor.shutdown();
+        try {
+            while (!executor.awaitTermination(1, TimeUnit.SECONDS)) {
+                if (isStopped()) {
+                    executor.shutdownNow();
                 }
-            } catch (Exception e) {
-                DBWriter.setFeedLastUpdateFailed(feed.getId(), true);
-                DownloadResult status = new DownloadResult(feed, feed.getTitle(),
-                        DownloadError.ERROR_IO_ERROR, false, e.getMessage());
-                DBWriter.addDownloadStatus(status);
             }
-            toUpdate.remove(0);
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void refreshFeedOrReportError(Feed feed, boolean force) {
+        try {
+            if (feed.isLocalFeed()) {
+                LocalFeedUpdater.updateFeed(feed, getApplicationContext(), null);
+            } else {
+                refreshFeed(feed, force);
+            }
+        } catch (Exception e) {
+            DBWriter.setFeedLastUpdateFailed(feed.getId(), true);
+            DownloadResult status = new DownloadResult(feed, feed.getTitle(),
+                    DownloadError.ERROR_IO_ERROR, false, e.getMessage());
+            DBWriter.addDownloadStatus(status);
         }
     }
 
@@ -163,6 +222,7 @@ public class FeedUpdateWorker extends Worker {
             return;
         }
 
+        coverPrefetcher.addFeed(feedSyncTask.getSavedFeed());
         if (request.getFeedfileId() == 0) {
             return; // No download logs for new subscriptions
         }
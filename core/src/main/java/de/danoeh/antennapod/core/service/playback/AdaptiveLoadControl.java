@@ -0,0 +1,221 @@
+package de.danoeh.antennapod.core.service.playback;
+
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import com.google.android.exoplayer2.C;
+import com.google.android.exoplayer2.DefaultLoadControl;
+import com.google.android.exoplayer2.Format;
+import com.google.android.exoplayer2.Renderer;
+import com.google.android.exoplayer2.source.TrackGroupArray;
+import com.google.android.exoplayer2.trackselection.ExoTrackSelection;
+import com.google.android.exoplayer2.upstream.BandwidthMeter;
+import com.google.android.exoplayer2.upstream.DefaultAllocator;
+import com.google.android.exoplayer2.util.Util;
+
+import de.danoeh.antennapod.core.util.NetworkUtils;
+
+/**
+ * Decides how far ahead to buffer, depending on where the episode comes from and how fast it arrives.
+ * Downloaded episodes only need a small buffer. Streams on metered or cellular networks do not load much
+ * more than is likely to be played. When the measured throughput is close to the bitrate of the episode,
+ * or playback had to wait for data, the buffer grows and loading does not pause. The decision is
+ * re-evaluated while playing. Also counts how often and how long playback waited for data.
+ */
+class AdaptiveLoadControl extends DefaultLoadControl {
+    private static final String TAG = "AdaptiveLoadControl";
+    static final int LOCAL_MIN_BUFFER_MS = 15000;
+    static final int LOCAL_MAX_BUFFER_MS = 30000;
+    static final int RESTRICTED_MIN_BUFFER_MS = 20000;
+    static final int RESTRICTED_MAX_BUFFER_MS = 60000;
+    static final int UNRESTRICTED_MIN_BUFFER_MS = 30000;
+    static final int UNRESTRICTED_MAX_BUFFER_MS = 120000;
+    static final int SLOW_BUFFER_MS = 180000;
+    static final int REBUFFER_STEP_MS = 30000;
+    static final int MAX_BUFFER_MS = 300000;
+    /** Below this ratio of throughput to bitrate, the connection can hardly keep up with playback. */
+    static final float SLOW_THROUGHPUT_RATIO = 2;
+    private static final int DEFAULT_BITRATE = 128000;
+    private static final long EVALUATE_INTERVAL_MS = 5000;
+
+    private final BandwidthMeter bandwidthMeter;
+    private volatile boolean stream = false;
+    private int bitrate = DEFAULT_BITRATE;
+    private int targetBufferBytes = C.LENGTH_UNSET;
+    private Buffers buffers = choose(false, false, 0, DEFAULT_BITRATE, 0);
+    private long lastEvaluation = 0;
+    private boolean isLoading = false;
+    private volatile long rebufferStart = 0;
+    private volatile int rebufferCount = 0;
+    private volatile long rebufferTimeMs = 0;
+
+    static class Buffers {
+        final int minBufferMs;
+        final int maxBufferMs;
+
+        Buffers(int minBufferMs, int maxBufferMs) {
+            this.minBufferMs = minBufferMs;
+            this.maxBufferMs = maxBufferMs;
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            return "min " + minBufferMs + " ms, max " + maxBufferMs + " ms";
+        }
+    }
+
+    /**
+     * @param backBufferMs How far behind the playback position to keep data. ExoPlayer only reads this when
+     *                     the player is created, so it can not adapt to the episode.
+     */
+    AdaptiveLoadControl(BandwidthMeter bandwidthMeter, int backBufferMs) {
+        super(new DefaultAllocator(true, C.DEFAULT_BUFFER_SEGMENT_SIZE),
+                LOCAL_MIN_BUFFER_MS, MAX_BUFFER_MS,
+                DEFAULT_BUFFER_FOR_PLAYBACK_MS, DEFAULT_BUFFER_FOR_PLAYBACK_AFTER_REBUFFER_MS,
+                C.LENGTH_UNSET, false, backBufferMs, true);
+        this.bandwidthMeter = bandwidthMeter;
+    }
+
+    /**
+     * Chooses the buffer durations.
+     *
+     * @param stream If the episode is loaded from the network
+     * @param restricted If the network is metered or cellular
+     * @param throughput Estimated throughput in bits per second, or 0 if unknown
+     * @param bitrate Bitrate of the episode in bits per second
+     * @param rebuffers How often playback had to wait for data in this session
+     */
+    @NonNull
+    static Buffers choose(boolean stream, boolean restricted, long throughput, int bitrate, int rebuffers) {
+        if (!stream) {
+            return new Buffers(LOCAL_MIN_BUFFER_MS, LOCAL_MAX_BUFFER_MS);
+        }
+        int minBufferMs = restricted ? RESTRICTED_MIN_BUFFER_MS : UNRESTRICTED_MIN_BUFFER_MS;
+        int maxBufferMs = restricted ? RESTRICTED_MAX_BUFFER_MS : UNRESTRICTED_MAX_BUFFER_MS;
+        if (throughput > 0 && throughput < bitrate * SLOW_THROUGHPUT_RATIO) {
+            // Keep loading all the time to build up a reserve for when the connection gets worse
+            maxBufferMs = Math.max(maxBufferMs, SLOW_BUFFER_MS);
+            minBufferMs = maxBufferMs;
+        }
+        minBufferMs = Math.min(minBufferMs + rebuffers * REBUFFER_STEP_MS, MAX_BUFFER_MS);
+        maxBufferMs = Math.min(Math.max(maxBufferMs, minBufferMs), MAX_BUFFER_MS);
+        return new Buffers(minBufferMs, maxBufferMs);
+    }
+
+    void setStream(boolean stream) {
+        this.stream = stream;
+    }
+
+    /**
+     * @return How often playback had to wait for data since the last prepare, not counting seeks
+     */
+    int getRebufferCount() {
+        return rebufferCount;
+    }
+
+    /**
+     * @return How long playback waited for data since the last prepare, not counting seeks.
+     *         Includes the current wait, so that an episode skipped while waiting reports it.
+     */
+    long getRebufferTimeMs() {
+        long start = rebufferStart;
+        return rebufferTimeMs + (start != 0 ? SystemClock.elapsedRealtime() - start : 0);
+    }
+
+    @Override
+    public void onPrepared() {
+        super.onPrepared();
+        bitrate = DEFAULT_BITRATE;
+        rebufferStart = 0;
+        rebufferCount = 0;
+        rebufferTimeMs = 0;
+        reset();
+    }
+
+    @Override
+    public void onTracksSelected(Renderer[] renderers, TrackGroupArray trackGroups,
+                                 ExoTrackSelection[] trackSelections) {
+        super.onTracksSelected(renderers, trackGroups, trackSelections);
+        targetBufferBytes = calculateTargetBufferBytes(renderers, trackSelections);
+        int selectedBitrate = 0;
+        for (ExoTrackSelection selection : trackSelections) {
+            if (selection != null && selection.getSelectedFormat().bitrate != Format.NO_VALUE) {
+                selectedBitrate += selection.getSelectedFormat().bitrate;
+            }
+        }
+        bitrate = selectedBitrate > 0 ? selectedBitrate : DEFAULT_BITRATE;
+        lastEvaluation = 0;
+    }
+
+    @Override
+    public void onStopped() {
+        super.onStopped();
+        if (rebufferStart != 0) {
+            rebufferTimeMs += SystemClock.elapsedRealtime() - rebufferStart;
+            rebufferStart = 0;
+        }
+        reset();
+    }
+
+    @Override
+    public void onReleased() {
+        super.onReleased();
+        reset();
+    }
+
+    private void reset() {
+        isLoading = false;
+        lastEvaluation = 0;
+    }
+
+    @Override
+    public boolean shouldContinueLoading(long playbackPositionUs, long bufferedDurationUs, float playbackSpeed) {
+        long now = SystemClock.elapsedRealtime();
+        if (now - lastEvaluation > EVALUATE_INTERVAL_MS) {
+            lastEvaluation = now;
+            boolean stream = this.stream;
+            Buffers newBuffers = choose(stream, stream && NetworkUtils.isNetworkRestricted(),
+                    bandwidthMeter.getBitrateEstimate(), bitrate, rebufferCount);
+            if (newBuffers.minBufferMs != buffers.minBufferMs || newBuffers.maxBufferMs != buffers.maxBufferMs) {
+                Log.d(TAG, "Buffer: " + newBuffers);
+            }
+            buffers = newBuffers;
+        }
+
+        // Same as DefaultLoadControl, with the chosen durations
+        boolean targetBufferSizeReached = targetBufferBytes != C.LENGTH_UNSET
+                && getAllocator().getTotalBytesAllocated() >= targetBufferBytes;
+        long minBufferUs = C.msToUs(buffers.minBufferMs);
+        long maxBufferUs = C.msToUs(buffers.maxBufferMs);
+        if (playbackSpeed > 1) {
+            minBufferUs = Math.min(Util.getMediaDurationForPlayoutDuration(minBufferUs, playbackSpeed), maxBufferUs);
+        }
+        minBufferUs = Math.max(minBufferUs, 500_000);
+        if (bufferedDurationUs < minBufferUs) {
+            isLoading = !targetBufferSizeReached;
+        } else if (bufferedDurationUs >= maxBufferUs || targetBufferSizeReached) {
+            isLoading = false;
+        }
+        return isLoading;
+    }
+
+    @Override
+    public boolean shouldStartPlayback(long bufferedDurationUs, float playbackSpeed,
+                                       boolean rebuffering, long targetLiveOffsetUs) {
+        boolean shouldStart = super.shouldStartPlayback(bufferedDurationUs, playbackSpeed,
+                rebuffering, targetLiveOffsetUs);
+        long now = SystemClock.elapsedRealtime();
+        if (rebuffering && rebufferStart == 0) {
+            rebufferStart = now;
+            rebufferCount++;
+            lastEvaluation = 0; // Buffer further ahead from now on
+        }
+        if (rebufferStart != 0 && (shouldStart || !rebuffering)) {
+            rebufferTimeMs += now - rebufferStart;
+            rebufferStart = 0;
+        }
+        return shouldStart;
+    }
+}
@@ -8,7 +8,6 @@ import android.view.SurfaceHolder;
 import androidx.annotation.NonNull;
 import androidx.core.util.Consumer;
 import com.google.android.exoplayer2.C;
-import com.google.android.exoplayer2.DefaultLoadControl;
 import com.google.android.exoplayer2.DefaultRenderersFactory;
 import com.google.android.exoplayer2.ExoPlaybackException;
 import com.google.android.exoplayer2.Format;
@@ -17,6 +16,7 @@ import com.google.android.exoplayer2.PlaybackParameters;
 import com.google.android.exoplayer2.Player;
 import com.google.android.exoplayer2.SeekParameters;
 import com.google.android.exoplayer2.SimpleExoPlayer;
+import com.google.android.exoplayer2.analytics.AnalyticsListener;
 import com.google.android.exoplayer2.audio.AudioAttributes;
 import com.google.android.exoplayer2.ext.okhttp.OkHttpDataSource;
 import com.google.android.exoplayer2.extractor.DefaultExtractorsFactory;
@@ -30,7 +30,9 @@ import com.google.android.exoplayer2.trackselection.MappingTrackSelector;
 import com.google.android.exoplayer2.trackselection.TrackSelectionArray;
 import com.google.android.exoplayer2.ui.DefaultTrackNameProvider;
 import com.google.android.exoplayer2.ui.TrackNameProvider;
+import com.google.android.exoplayer2.upstream.BandwidthMeter;
 import com.google.android.exoplayer2.upstream.DataSource;
+import com.google.android.exoplayer2.upstream.DefaultBandwidthMeter;
 import com.google.android.exoplayer2.upstream.DefaultDataSourceFactory;
 
 import com.google.android.exoplayer2.upstream.HttpDataSource;
@@ -49,6 +51,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 public class ExoPlayerWrapper {
@@ -67,9 +70,24 @@ public class ExoPlayerWrapper {
     private Consumer<Integer> bufferingUpdateListener;
     private PlaybackParameters playbackParameters;
     private DefaultTrackSelector trackSelector;
+    private AdaptiveLoadControl loadControl;
+    private int backBufferRewindSecs;
+    private final OkHttpDataSource.Factory httpDataSourceFactory;
+    private final DataSource.Factory upstreamDataSourceFactory;
+    private final ProgressiveMediaSource.Factory localMediaSourceFactory;
+    private ProgressiveMediaSource.Factory streamMediaSourceFactory;
+    private long prepareTime;
+    private long startTime;
+    private boolean waitingForFirstAudio = false;
+    private long prepareToReadyMs = -1;
+    private long startToFirstAudioMs = -1;
+    private boolean summaryPending = false;
 
     ExoPlayerWrapper(Context context) {
         this.context = context;
+        httpDataSourceFactory = createHttpDataSourceFactory();
+        upstreamDataSourceFactory = new DefaultDataSourceFactory(context, null, httpDataSourceFactory);
+        localMediaSourceFactory = createMediaSourceFactory(upstreamDataSourceFactory);
         createPlayer();
         playbackParameters = exoPlayer.getPlaybackParameters();
         bufferingUpdateDisposable = Observable.interval(2, TimeUnit.SECONDS)
@@ -82,20 +100,25 @@ public class ExoPlayerWrapper {
     }
 
     private void createPlayer() {
-        DefaultLoadControl.Builder loadControl = new DefaultLoadControl.Builder();
-        loadControl.setBufferDurationsMs(30000, 120000,
-                DefaultLoadControl.DEFAULT_BUFFER_FOR_PLAYBACK_MS,
-                DefaultLoadControl.DEFAULT_BUFFER_FOR_PLAYBACK_AFTER_REBUFFER_MS);
-        loadControl.setBackBuffer(UserPreferences.getRewindSecs() * 1000 + 500, true);
+        BandwidthMeter bandwidthMeter = DefaultBandwidthMeter.getSingletonInstance(context);
+        backBufferRewindSecs = UserPreferences.getRewindSecs();
+        loadControl = new AdaptiveLoadControl(bandwidthMeter, backBufferRewindSecs * 1000 + 500);
         trackSelector = new DefaultTrackSelector(context);
         exoPlayer = new SimpleExoPlayer.Builder(context, new DefaultRenderersFactory(context))
                 .setTrackSelector(trackSelector)
-                .setLoadControl(loadControl.build())
+                .setLoadControl(loadControl)
+                .setBandwidthMeter(bandwidthMeter)
                 .build();
         exoPlayer.setSeekParameters(SeekParameters.EXACT);
         exoPlayer.addListener(new Player.Listener() {
             @Override
             public void onPlaybackStateChanged(@Player.State int playbackState) {
+                if (playbackState == Player.STATE_READY && prepareToReadyMs < 0 && prepareTime > 0) {
+                    prepareToReadyMs = System.currentTimeMillis() - prepareTime;
+                }
+                if (playbackState == Player.STATE_ENDED) {
+                    logPlaybackSummary("Episode ended");
+                }
                 if (audioCompletionListener != null && playbackState == Player.STATE_ENDED) {
                     audioCompletionListener.run();
                 } else if (bufferingUpdateListener != null && playbackState == Player.STATE_BUFFERING) {
@@ -107,6 +130,7 @@ public class ExoPlayerWrapper {
 
             @Override
             public void onPlayerError(@NonNull ExoPlaybackException error) {
+                logPlaybackSummary("Playback failed");
                 if (audioErrorListener != null) {
                     if (NetworkUtils.wasDownloadBlocked(error)) {
                         audioErrorListener.accept(context.getString(R.string.download_error_blocked));
@@ -134,6 +158,18 @@ public class ExoPlayerWrapper {
                 }
             }
         });
+        exoPlayer.addAnalyticsListener(new AnalyticsListener() {
+            @Override
+            public void onAudioPositionAdvancing(@NonNull EventTime eventTime, long playoutStartSystemTimeMs) {
+                if (!waitingForFirstAudio) {
+                    return;
+                }
+                waitingForFirstAudio = false;
+                startToFirstAudioMs = playoutStartSystemTimeMs - Math.max(prepareTime, startTime);
+                Log.d(TAG, "Start latency: prepare to ready " + prepareToReadyMs
+                        + " ms, play to first audio " + startToFirstAudioMs + " ms");
+            }
+        });
     }
 
     public int getCurrentPosition() {
@@ -160,11 +196,34 @@ public class ExoPlayerWrapper {
     }
 
     public void prepare() throws IllegalStateException {
-        exoPlayer.setMediaSource(mediaSource, false);
+        logPlaybackSummary("Media changed");
+        summaryPending = true;
+        prepareTime = System.currentTimeMillis();
+        startTime = 0;
+        prepareToReadyMs = -1;
+        startToFirstAudioMs = -1;
+        waitingForFirstAudio = true;
+        // Start at the beginning, not where the previous episode of the reused player stopped
+        exoPlayer.setMediaSource(mediaSource, true);
         exoPlayer.prepare();
     }
 
+    /**
+     * Logs the start latency and the rebuffers of the current episode, once per {@link #prepare()}.
+     * Called when the episode ends, fails, is stopped or skipped, before the values are reset for the next one.
+     */
+    private void logPlaybackSummary(String reason) {
+        if (!summaryPending) {
+            return;
+        }
+        summaryPending = false;
+        Log.d(TAG, reason + ". Prepare to ready: " + prepareToReadyMs + " ms, play to first audio: "
+                + startToFirstAudioMs + " ms, rebuffers: " + loadControl.getRebufferCount()
+                + " (" + loadControl.getRebufferTimeMs() + " ms)");
+    }
+
     public void release() {
+        logPlaybackSummary("Player released");
         bufferingUpdateDisposable.dispose();
         if (exoPlayer != null) {
             exoPlayer.release();
@@ -175,9 +234,24 @@ public class ExoPlayerWrapper {
         bufferingUpdateListener = null;
     }
 
+    /**
+     * Stops playback and forgets the media, but keeps the player and its codecs around for the next episode.
+     */
     public void reset() {
-        exoPlayer.release();
-        createPlayer();
+        logPlaybackSummary("Episode stopped");
+        waitingForFirstAudio = false;
+        if (UserPreferences.getRewindSecs() != backBufferRewindSecs) {
+            // The back buffer can only be set when creating the player
+            AudioAttributes audioAttributes = exoPlayer.getAudioAttributes();
+            exoPlayer.release();
+            createPlayer();
+            exoPlayer.setAudioAttributes(audioAttributes, false);
+            return;
+        }
+        exoPlayer.setPlayWhenReady(false);
+        exoPlayer.stop();
+        exoPlayer.clearMediaItems();
+        trackSelector.setParameters(trackSelector.buildUponParameters().clearSelectionOverrides());
     }
 
     public void seekTo(int i) throws IllegalStateException {
@@ -199,25 +273,50 @@ public class ExoPlayerWrapper {
     public void setDataSource(String s, String user, String password)
             throws IllegalArgumentException, IllegalStateException {
         Log.d(TAG, "setDataSource: " + s);
-        final OkHttpDataSource.Factory httpDataSourceFactory =
-                new OkHttpDataSource.Factory(AntennapodHttpClient.getHttpClient())
-                        .setUserAgent(ClientConfig.USER_AGENT);
+        httpDataSourceFactory.setDefaultRequestProperties(createRequestProperties(user, password));
+        ProgressiveMediaSource.Factory f = localMediaSourceFactory;
+        loadControl.setStream(s.startsWith("http"));
+        if (s.startsWith("http")) {
+            if (streamMediaSourceFactory == null) {
+                streamMediaSourceFactory = createMediaSourceFactory(
+                        StreamingCache.createDataSourceFactory(context, upstreamDataSourceFactory));
+            }
+            f = streamMediaSourceFactory;
+        }
+        final MediaItem mediaItem = MediaItem.fromUri(Uri.parse(s));
+        mediaSource = f.createMediaSource(mediaItem);
+    }
+
+    private static ProgressiveMediaSource.Factory createMediaSourceFactory(DataSource.Factory dataSourceFactory) {
+        DefaultExtractorsFactory extractorsFactory = new DefaultExtractorsFactory();
+        extractorsFactory.setConstantBitrateSeekingEnabled(true);
+        extractorsFactory.setMp3ExtractorFlags(Mp3Extractor.FLAG_DISABLE_ID3_METADATA);
+        return new ProgressiveMediaSource.Factory(dataSourceFactory, extractorsFactory);
+    }
+
+    private static OkHttpDataSource.Factory createHttpDataSourceFactory() {
+        return new OkHttpDataSource.Factory(AntennapodHttpClient.getHttpClient())
+                .setUserAgent(ClientConfig.USER_AGENT);
+    }
 
+    private static Map<String, String> createRequestProperties(String user, String password) {
+        final HashMap<String, String> requestProperties = new HashMap<>();
         if (!TextUtils.isEmpty(user) && !TextUtils.isEmpty(password)) {
-            final HashMap<String, String> requestProperties = new HashMap<>();
             requestProperties.put(
                     "Authorization",
                     HttpCredentialEncoder.encode(user, password, "ISO-8859-1")
             );
-            httpDataSourceFactory.setDefaultRequestProperties(requestProperties);
         }
-        DataSource.Factory dataSourceFactory = new DefaultDataSourceFactory(context, null, httpDataSourceFactory);
-        DefaultExtractorsFactory extractorsFactory = new DefaultExtractorsFactory();
-        extractorsFactory.setConstantBitrateSeekingEnabled(true);
-        extractorsFactory.setMp3ExtractorFlags(Mp3Extractor.FLAG_DISABLE_ID3_METADATA);
-        ProgressiveMediaSource.Factory f = new ProgressiveMediaSource.Factory(dataSourceFactory, extractorsFactory);
-        final MediaItem mediaItem = MediaItem.fromUri(Uri.parse(s));
-        mediaSource = f.createMediaSource(mediaItem);
+        return requestProperties;
+    }
+
+    /**
+     * Data source for local files and for the network, without the streaming cache.
+     */
+    static DataSource.Factory createUpstreamDataSourceFactory(Context context, String user, String password) {
+        final OkHttpDataSource.Factory httpDataSourceFactory = createHttpDataSourceFactory()
+                .setDefaultRequestProperties(createRequestProperties(user, password));
+        return new DefaultDataSourceFactory(context, null, httpDataSourceFactory);
     }
 
     public void setDataSource(String s) throws IllegalArgumentException, IllegalStateException {
@@ -239,12 +338,16 @@ public class ExoPlayerWrapper {
     }
 
     public void start() {
+        if (waitingForFirstAudio && startTime == 0) {
+            startTime = System.currentTimeMillis();
+        }
         exoPlayer.play();
         // Can't set params when paused - so always set it on start in case they changed
         exoPlayer.setPlaybackParameters(playbackParameters);
     }
 
     public void stop() {
+        logPlaybackSummary("Playback stopped");
         exoPlayer.stop();
     }
 
@@ -6,6 +6,7 @@ import android.content.res.Configuration;
 import android.media.AudioManager;
 import android.os.Handler;
 import android.os.Looper;
+import android.os.SystemClock;
 import android.util.Log;
 import android.util.Pair;
 import android.view.SurfaceHolder;
@@ -26,6 +27,8 @@ import de.danoeh.antennapod.playback.base.PlaybackServiceMediaPlayer;
 import de.danoeh.antennapod.playback.base.PlayerStatus;
 import de.danoeh.antennapod.playback.base.RewindAfterPauseUtils;
 import de.danoeh.antennapod.storage.preferences.UserPreferences;
+import io.reactivex.Completable;
+import io.reactivex.schedulers.Schedulers;
 import org.greenrobot.eventbus.EventBus;
 
 import java.io.File;
@@ -56,6 +59,9 @@ public class LocalPSMP extends PlaybackServiceMediaPlayer {
     private final Handler audioFocusCanceller;
     private boolean isShutDown = false;
     private CountDownLatch seekLatch;
+    private volatile long transitionStartTime = 0;
+    private int transitionCount = 0;
+    private long transitionTotalMs = 0;
 
     public LocalPSMP(@NonNull Context context,
                      @NonNull PlaybackServiceMediaPlayer.PSMPCallback callback) {
@@ -569,17 +575,22 @@ public class LocalPSMP extends PlaybackServiceMediaPlayer {
     }
 
     private void createMediaPlayer() {
-        if (mediaPlayer != null) {
-            mediaPlayer.release();
-        }
         if (media == null) {
+            if (mediaPlayer != null) {
+                mediaPlayer.release();
+            }
             mediaPlayer = null;
             playerStatus = PlayerStatus.STOPPED;
             return;
         }
 
-        mediaPlayer = new ExoPlayerWrapper(context);
-        mediaPlayer.setAudioStreamType(AudioManager.STREAM_MUSIC);
+        if (mediaPlayer != null) {
+            // Re-using the player is a lot faster than setting up a new one
+            mediaPlayer.reset();
+        } else {
+            mediaPlayer = new ExoPlayerWrapper(context);
+            mediaPlayer.setAudioStreamType(AudioManager.STREAM_MUSIC);
+        }
         setMediaPlayerListeners(mediaPlayer);
     }
 
@@ -658,6 +669,12 @@ public class LocalPSMP extends PlaybackServiceMediaPlayer {
         abandonAudioFocus();
 
         final Playable currentMedia = media;
+        if (stream && currentMedia instanceof FeedMedia && !(hasEnded && UserPreferences.isAutoDelete())) {
+            // No need to keep an episode that would be deleted right away
+            Completable.fromAction(() -> StreamingCache.promoteIfComplete(context, (FeedMedia) currentMedia))
+                    .subscribeOn(Schedulers.io())
+                    .subscribe(() -> { }, Throwable::printStackTrace);
+        }
         Playable nextMedia = null;
 
         if (shouldContinue) {
@@ -666,6 +683,7 @@ public class LocalPSMP extends PlaybackServiceMediaPlayer {
             // Start playback immediately if continuous playback is enabled
             nextMedia = callback.getNextInQueue(currentMedia);
             if (nextMedia != null) {
+                transitionStartTime = isPlaying ? SystemClock.elapsedRealtime() : 0;
                 callback.onPlaybackEnded(nextMedia.getMediaType(), false);
                 // setting media to null signals to playMediaObject() that
                 // we're taking care of post-playback processing
@@ -718,6 +736,10 @@ public class LocalPSMP extends PlaybackServiceMediaPlayer {
                 EventBus.getDefault().post(BufferUpdateEvent.started());
             } else if (percent == ExoPlayerWrapper.BUFFERING_ENDED) {
                 EventBus.getDefault().post(BufferUpdateEvent.ended());
+                if (transitionStartTime != 0 && mediaPlayer != null && mediaPlayer.isPlaying()) {
+                    logTransitionLatency(SystemClock.elapsedRealtime() - transitionStartTime);
+                    transitionStartTime = 0;
+                }
             } else {
                 EventBus.getDefault().post(BufferUpdateEvent.progressUpdate(0.01f * percent));
             }
@@ -725,6 +747,16 @@ public class LocalPSMP extends PlaybackServiceMediaPlayer {
         mp.setOnErrorListener(message -> EventBus.getDefault().postSticky(new PlayerErrorEvent(message)));
     }
 
+    /**
+     * Time from the end of one queue item until the next one actually plays.
+     */
+    private void logTransitionLatency(long latencyMs) {
+        transitionCount++;
+        transitionTotalMs += latencyMs;
+        Log.d(TAG, "Transition to next episode took " + latencyMs + " ms, average "
+                + (transitionTotalMs / transitionCount) + " ms over " + transitionCount + " transitions");
+    }
+
     private void clearMediaPlayerListeners() {
         mediaPlayer.setOnCompletionListener(() -> { });
         mediaPlayer.setOnSeekCompleteListener(() -> { });
@@ -0,0 +1,181 @@
+package de.danoeh.antennapod.core.service.playback;
+
+import android.database.Cursor;
+import android.net.Uri;
+import android.os.Bundle;
+import android.os.SystemClock;
+import android.support.v4.media.MediaBrowserCompat;
+import android.support.v4.media.MediaDescriptionCompat;
+import android.support.v4.media.MediaMetadataCompat;
+import android.text.TextUtils;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import de.danoeh.antennapod.core.storage.DBReader;
+import de.danoeh.antennapod.model.feed.FeedItemFilter;
+import de.danoeh.antennapod.model.feed.SortOrder;
+import de.danoeh.antennapod.storage.database.PodDBAdapter;
+
+/**
+ * Loads the nodes of the media browser tree (Android Auto and other media browsers).
+ * Reads only the columns the browser shows and one page at a time, because head units give up
+ * when a node takes too long on a large library. The episode counts of the root node are cached.
+ */
+class MediaBrowserDataSource {
+    private static final String TAG = "MediaBrowserDataSource";
+    /** How long the root node waits for the first counts before it is shown without them. */
+    private static final long COUNT_BUDGET_MS = 300;
+    private static final long COUNT_MAX_AGE_MS = 60 * 1000;
+
+    private final ExecutorService countExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r);
+        t.setName("MediaBrowserCounts");
+        t.setPriority(Thread.MIN_PRIORITY);
+        return t;
+    });
+    private EpisodeCounts counts;
+    private long countsTime;
+    private Future<EpisodeCounts> pendingCounts;
+
+    static class EpisodeCounts {
+        final int queue;
+        final int downloads;
+        final int unplayed;
+
+        EpisodeCounts(int queue, int downloads, int unplayed) {
+            this.queue = queue;
+            this.downloads = downloads;
+            this.unplayed = unplayed;
+        }
+    }
+
+    /**
+     * Returns the cached counts and refreshes them in the background when they are old.
+     * Only waits for the first counts, and at most {@link #COUNT_BUDGET_MS}.
+     *
+     * @return The counts, or null if they are not known yet
+     */
+    @Nullable
+    synchronized EpisodeCounts getCounts() {
+        long now = SystemClock.elapsedRealtime();
+        if (pendingCounts == null && (counts == null || now - countsTime > COUNT_MAX_AGE_MS)) {
+            pendingCounts = countExecutor.submit(() -> new EpisodeCounts(
+                    DBReader.getTotalEpisodeCount(new FeedItemFilter(FeedItemFilter.QUEUED)),
+                    DBReader.getTotalEpisodeCount(new FeedItemFilter(FeedItemFilter.DOWNLOADED)),
+                    DBReader.getTotalEpisodeCount(new FeedItemFilter(FeedItemFilter.UNPLAYED))));
+        }
+        if (pendingCounts != null) {
+            try {
+                counts = pendingCounts.get(counts == null ? COUNT_BUDGET_MS : 0, TimeUnit.MILLISECONDS);
+                countsTime = SystemClock.elapsedRealtime();
+                pendingCounts = null;
+            } catch (TimeoutException e) {
+                Log.d(TAG, "Counts not loaded yet");
+            } catch (ExecutionException | InterruptedException e) {
+                Log.e(TAG, Log.getStackTraceString(e));
+                pendingCounts = null;
+            }
+        }
+        return counts;
+    }
+
+    @NonNull
+    List<MediaBrowserCompat.MediaItem> getFeeds() {
+        List<MediaBrowserCompat.MediaItem> mediaItems = new ArrayList<>();
+        PodDBAdapter adapter = PodDBAdapter.getInstance();
+        adapter.open();
+        try (Cursor cursor = adapter.getMediaBrowserFeedsCursor()) {
+            while (cursor.moveToNext()) {
+                String customTitle = cursor.getString(2);
+                MediaDescriptionCompat.Builder builder = new MediaDescriptionCompat.Builder()
+                        .setMediaId("FeedId:" + cursor.getLong(0))
+                        .setTitle(TextUtils.isEmpty(customTitle) ? cursor.getString(1) : customTitle)
+                        .setSubtitle(customTitle);
+                String imageUrl = cursor.getString(3);
+                if (imageUrl != null) {
+                    builder.setIconUri(Uri.parse(imageUrl));
+                }
+                mediaItems.add(new MediaBrowserCompat.MediaItem(builder.build(),
+                        MediaBrowserCompat.MediaItem.FLAG_BROWSABLE));
+            }
+        } finally {
+            adapter.close();
+        }
+        return mediaItems;
+    }
+
+    @NonNull
+    List<MediaBrowserCompat.MediaItem> getQueue(int offset, int limit) {
+        PodDBAdapter adapter = PodDBAdapter.getInstance();
+        adapter.open();
+        try (Cursor cursor = adapter.getMediaBrowserQueueCursor(offset, limit)) {
+            return extractMediaItems(cursor);
+        } finally {
+            adapter.close();
+        }
+    }
+
+    @NonNull
+    List<MediaBrowserCompat.MediaItem> getEpisodes(FeedItemFilter filter, SortOrder sortOrder, int offset, int limit) {
+        PodDBAdapter adapter = PodDBAdapter.getInstance();
+        adapter.open();
+        try (Cursor cursor = adapter.getMediaBrowserItemsCursor(0, filter, sortOrder, offset, limit)) {
+            return extractMediaItems(cursor);
+        } finally {
+            adapter.close();
+        }
+    }
+
+    /**
+     * Episodes of the feed, newest first.
+     */
+    @NonNull
+    List<MediaBrowserCompat.MediaItem> getFeedEpisodes(long feedId, int offset, int limit) {
+        PodDBAdapter adapter = PodDBAdapter.getInstance();
+        adapter.open();
+        try (Cursor cursor = adapter.getMediaBrowserItemsCursor(feedId, FeedItemFilter.unfiltered(),
+                null, offset, limit)) {
+            return extractMediaItems(cursor);
+        } finally {
+            adapter.close();
+        }
+    }
+
+    void shutdown() {
+        countExecutor.shutdownNow();
+    }
+
+    private static List<MediaBrowserCompat.MediaItem> extractMediaItems(Cursor cursor) {
+        List<MediaBrowserCompat.MediaItem> mediaItems = new ArrayList<>(cursor.getCount());
+        while (cursor.moveToNext()) {
+            String customFeedTitle = cursor.getString(3);
+            String feedTitle = TextUtils.isEmpty(customFeedTitle) ? cursor.getString(2) : customFeedTitle;
+            Bundle extras = new Bundle();
+            extras.putLong(MediaMetadataCompat.METADATA_KEY_DURATION, cursor.getLong(5));
+            MediaDescriptionCompat.Builder builder = new MediaDescriptionCompat.Builder()
+                    .setMediaId(String.valueOf(cursor.getLong(0)))
+                    .setTitle(cursor.getString(1))
+                    .setDescription(feedTitle)
+                    .setSubtitle(feedTitle)
+                    .setExtras(extras);
+            String imageUrl = cursor.getString(4);
+            if (imageUrl != null) {
+                builder.setIconUri(Uri.parse(imageUrl));
+            }
+            mediaItems.add(new MediaBrowserCompat.MediaItem(builder.build(),
+                    MediaBrowserCompat.MediaItem.FLAG_PLAYABLE));
+        }
+        return mediaItems;
+    }
+}
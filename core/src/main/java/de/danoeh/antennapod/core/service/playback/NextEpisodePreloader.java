@@ -0,0 +1,124 @@
+package de.danoeh.antennapod.core.service.playback;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.Nullable;
+
+import de.danoeh.antennapod.core.storage.DBReader;
+import de.danoeh.antennapod.core.util.ChapterUtils;
+import de.danoeh.antennapod.core.util.NetworkUtils;
+import de.danoeh.antennapod.model.feed.FeedItem;
+import de.danoeh.antennapod.model.feed.FeedMedia;
+import de.danoeh.antennapod.model.feed.FeedPreferences;
+import de.danoeh.antennapod.model.playback.Playable;
+import de.danoeh.antennapod.storage.preferences.UserPreferences;
+import io.reactivex.Completable;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.schedulers.Schedulers;
+
+/**
+ * Loads the episode that follows the current one in the queue during the last minutes of playback:
+ * the item from the database, its chapters, and the first part of the stream into the {@link StreamingCache}.
+ * When the current episode ends, the service can then start the next one without waiting.
+ */
+class NextEpisodePreloader {
+    private static final String TAG = "NextEpisodePreloader";
+    private static final int PRELOAD_BEFORE_END_MS = 3 * 60 * 1000;
+    private static final long PREBUFFER_BYTES = 1024 * 1024;
+
+    private final Context context;
+    private long currentItemId = -1;
+    private FeedItem nextItem;
+    private Disposable disposable;
+
+    NextEpisodePreloader(Context context) {
+        this.context = context.getApplicationContext();
+    }
+
+    /**
+     * Starts preloading if the current episode is about to end and the next one will be started automatically.
+     */
+    synchronized void onPositionUpdate(@Nullable Playable current, int position, int duration) {
+        if (!(current instanceof FeedMedia) || duration <= 0 || duration - position > PRELOAD_BEFORE_END_MS) {
+            return;
+        }
+        if (!UserPreferences.isFollowQueue()) {
+            return; // Continuous playback is off, the next episode would be loaded for nothing
+        }
+        long itemId = ((FeedMedia) current).getItemId();
+        if (itemId == currentItemId) {
+            return; // Already preloaded or in progress
+        }
+        cancel();
+        currentItemId = itemId;
+        disposable = Completable.fromAction(() -> preload(itemId))
+                .subscribeOn(Schedulers.io())
+                .subscribe(() -> { }, error -> Log.d(TAG, "Preloading failed: " + error.getMessage()));
+    }
+
+    private void preload(long itemId) {
+        FeedItem currentItem = DBReader.getFeedItem(itemId);
+        if (currentItem == null) {
+            return;
+        }
+        FeedItem next = DBReader.getNextInQueue(currentItem);
+        if (next == null || next.getMedia() == null) {
+            return;
+        }
+        FeedMedia media = next.getMedia();
+        ChapterUtils.loadChapters(media, context, false);
+        synchronized (this) {
+            if (currentItemId != itemId) {
+                return; // Cancelled in the meantime
+            }
+            nextItem = next;
+        }
+        Log.d(TAG, "Preloaded " + next.getTitle());
+
+        if (!media.localFileAvailable() && NetworkUtils.isStreamingAllowed()) {
+            FeedPreferences preferences = next.getFeed() != null ? next.getFeed().getPreferences() : null;
+            try {
+                StreamingCache.prebuffer(context, ExoPlayerWrapper.createUpstreamDataSourceFactory(context,
+                                preferences != null ? preferences.getUsername() : null,
+                                preferences != null ? preferences.getPassword() : null),
+                        media.getStreamUrl(), PREBUFFER_BYTES);
+                Log.d(TAG, "Pre-buffered " + next.getTitle());
+            } catch (Exception e) {
+                Log.d(TAG, "Unable to pre-buffer: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * @return The preloaded item that follows the given one, or null if it is not available (yet).
+     */
+    @Nullable
+    synchronized FeedItem getNextItem(FeedItem current) {
+        if (current.getId() != currentItemId) {
+            return null;
+        }
+        return nextItem;
+    }
+
+    /**
+     * Call when an item changed, so that a stale copy of the next item is not used.
+     */
+    synchronized void onItemChanged(long itemId) {
+        if (nextItem != null && nextItem.getId() == itemId) {
+            cancel();
+        }
+    }
+
+    /**
+     * Call when the queue changed.
+     */
+    synchronized void cancel() {
+        if (disposable != null) {
+            disposable.dispose();
+            disposable = null;
+        }
+        currentItemId = -1;
+        nextItem = null;
+    }
+}
@@ -71,8 +71,10 @@ import de.danoeh.antennapod.core.util.gui.NotificationUtils;
 import de.danoeh.antennapod.core.util.playback.PlayableUtils;
 import de.danoeh.antennapod.core.util.playback.PlaybackServiceStarter;
 import de.danoeh.antennapod.core.widget.WidgetUpdater;
+import de.danoeh.antennapod.event.FeedItemEvent;
 import de.danoeh.antennapod.event.MessageEvent;
 import de.danoeh.antennapod.event.PlayerErrorEvent;
+import de.danoeh.antennapod.event.QueueEvent;
 import de.danoeh.antennapod.event.playback.BufferUpdateEvent;
 import de.danoeh.antennapod.event.playback.PlaybackPositionEvent;
 import de.danoeh.antennapod.event.playback.PlaybackServiceEvent;
@@ -80,7 +82,6 @@ import de.danoeh.antennapod.event.playback.SleepTimerUpdatedEvent;
 import de.danoeh.antennapod.event.settings.SkipIntroEndingChangedEvent;
 import de.danoeh.antennapod.event.settings.SpeedPresetChangedEvent;
 import de.danoeh.antennapod.event.settings.VolumeAdaptionChangedEvent;
-import de.danoeh.antennapod.model.feed.Feed;
 import de.danoeh.antennapod.model.feed.FeedItem;
 import de.danoeh.antennapod.model.feed.FeedItemFilter;
 import de.danoeh.antennapod.model.feed.FeedMedia;
@@ -144,6 +145,8 @@ public class PlaybackService extends MediaBrowserServiceCompat {
 
     private PlaybackServiceMediaPlayer mediaPlayer;
     private PlaybackServiceTaskManager taskManager;
+    private final MediaBrowserDataSource mediaBrowserDataSource = new MediaBrowserDataSource();
+    private NextEpisodePreloader nextEpisodePreloader;
     private PlaybackServiceStateManager stateManager;
     private Disposable positionEventTimer;
     private PlaybackServiceNotificationBuilder notificationBuilder;
@@ -221,6 +224,7 @@ public class PlaybackService extends MediaBrowserServiceCompat {
         registerReceiver(audioBecomingNoisy, new IntentFilter(AudioManager.ACTION_AUDIO_BECOMING_NOISY));
         EventBus.getDefault().register(this);
         taskManager = new PlaybackServiceTaskManager(this, taskManagerCallback);
+        nextEpisodePreloader = new NextEpisodePreloader(this);
 
         recreateMediaSessionIfNeeded();
         castStateListener = new CastStateListener(this) {
@@ -300,6 +304,7 @@ public class PlaybackService extends MediaBrowserServiceCompat {
         castStateListener.destroy();
 
         cancelPositionObserver();
+        nextEpisodePreloader.cancel();
         if (mediaSession != null) {
             mediaSession.release();
             mediaSession = null;
@@ -311,6 +316,7 @@ public class PlaybackService extends MediaBrowserServiceCompat {
         unregisterReceiver(audioBecomingNoisy);
         mediaPlayer.shutdown();
         taskManager.shutdown();
+        mediaBrowserDataSource.shutdown();
         EventBus.getDefault().unregister(this);
     }
 
@@ -345,7 +351,7 @@ public class PlaybackService extends MediaBrowserServiceCompat {
     }
 
     private MediaBrowserCompat.MediaItem createBrowsableMediaItem(
-            @StringRes int title, @DrawableRes int icon, int numEpisodes) {
+            @StringRes int title, @DrawableRes int icon, @Nullable Integer numEpisodes) {
         Uri uri = new Uri.Builder()
                 .scheme(ContentResolver.SCHEME_ANDROID_RESOURCE)
                 .authority(getResources().getResourcePackageName(icon))
@@ -353,40 +359,37 @@ public class PlaybackService extends MediaBrowserServiceCompat {
                 .appendPath(getResources().getResourceEntryName(icon))
                 .build();
 
-        MediaDescriptionCompat description = new MediaDescriptionCompat.Builder()
+        MediaDescriptionCompat.Builder builder = new MediaDescriptionCompat.Builder()
                 .setIconUri(uri)
                 .setMediaId(getResources().getString(title))
-                .setTitle(getResources().getString(title))
-                .setSubtitle(getResources().getQuantityString(R.plurals.num_episodes, numEpisodes, numEpisodes))
-                .build();
-        return new MediaBrowserCompat.MediaItem(description, MediaBrowserCompat.MediaItem.FLAG_BROWSABLE);
-    }
-
-    private MediaBrowserCompat.MediaItem createBrowsableMediaItemForFeed(Feed feed) {
-        MediaDescriptionCompat.Builder builder = new MediaDescriptionCompat.Builder()
-                .setMediaId("FeedId:" + feed.getId())
-                .setTitle(feed.getTitle())
-                .setDescription(feed.getDescription())
-                .setSubtitle(feed.getCustomTitle());
-        if (feed.getImageUrl() != null) {
-            builder.setIconUri(Uri.parse(feed.getImageUrl()));
-        }
-        if (feed.getLink() != null) {
-            builder.setMediaUri(Uri.parse(feed.getLink()));
+                .setTitle(getResources().getString(title));
+        if (numEpisodes != null) { // Counts are not shown until they are loaded
+            builder.setSubtitle(getResources().getQuantityString(R.plurals.num_episodes, numEpisodes, numEpisodes));
         }
-        MediaDescriptionCompat description = builder.build();
-        return new MediaBrowserCompat.MediaItem(description,
-                MediaBrowserCompat.MediaItem.FLAG_BROWSABLE);
+        return new MediaBrowserCompat.MediaItem(builder.build(), MediaBrowserCompat.MediaItem.FLAG_BROWSABLE);
     }
 
     @Override
     public void onLoadChildren(@NonNull String parentId,
                                @NonNull Result<List<MediaBrowserCompat.MediaItem>> result) {
-        Log.d(TAG, "OnLoadChildren: parentMediaId=" + parentId);
+        onLoadChildren(parentId, result, Bundle.EMPTY);
+    }
+
+    @Override
+    public void onLoadChildren(@NonNull String parentId,
+                               @NonNull Result<List<MediaBrowserCompat.MediaItem>> result, @NonNull Bundle options) {
+        Log.d(TAG, "OnLoadChildren: parentMediaId=" + parentId + " options=" + options);
+        int page = Math.max(0, options.getInt(MediaBrowserCompat.EXTRA_PAGE, 0));
+        int pageSize = options.getInt(MediaBrowserCompat.EXTRA_PAGE_SIZE, MAX_ANDROID_AUTO_EPISODES_PER_FEED);
+        if (pageSize <= 0) {
+            pageSize = MAX_ANDROID_AUTO_EPISODES_PER_FEED;
+        }
+        int offset = page * pageSize;
+        int limit = pageSize;
         result.detach();
 
         Completable.create(emitter -> {
-            result.sendResult(loadChildrenSynchronous(parentId));
+            result.sendResult(loadChildrenSynchronous(parentId, offset, limit));
             emitter.onComplete();
         })
                 .subscribeOn(Schedulers.io())
@@ -399,55 +402,45 @@ public class PlaybackService extends MediaBrowserServiceCompat {
                     });
     }
 
-    private List<MediaBrowserCompat.MediaItem> loadChildrenSynchronous(@NonNull String parentId) {
-        List<MediaBrowserCompat.MediaItem> mediaItems = new ArrayList<>();
+    private List<MediaBrowserCompat.MediaItem> loadChildrenSynchronous(@NonNull String parentId,
+                                                                       int offset, int limit) {
         if (parentId.equals(getResources().getString(R.string.app_name))) {
+            List<MediaBrowserCompat.MediaItem> mediaItems = new ArrayList<>();
+            MediaBrowserDataSource.EpisodeCounts counts = mediaBrowserDataSource.getCounts();
             mediaItems.add(createBrowsableMediaItem(R.string.queue_label, R.drawable.ic_playlist_play_black,
-                    DBReader.getTotalEpisodeCount(new FeedItemFilter(FeedItemFilter.QUEUED))));
+                    counts == null ? null : counts.queue));
             mediaItems.add(createBrowsableMediaItem(R.string.downloads_label, R.drawable.ic_download_black,
-                    DBReader.getTotalEpisodeCount(new FeedItemFilter(FeedItemFilter.DOWNLOADED))));
+                    counts == null ? null : counts.downloads));
             mediaItems.add(createBrowsableMediaItem(R.string.episodes_label, R.drawable.ic_feed_black,
-                    DBReader.getTotalEpisodeCount(new FeedItemFilter(FeedItemFilter.UNPLAYED))));
-            List<Feed> feeds = DBReader.getFeedList();
-            for (Feed feed : feeds) {
-                mediaItems.add(createBrowsableMediaItemForFeed(feed));
+                    counts == null ? null : counts.unplayed));
+            mediaItems.addAll(mediaBrowserDataSource.getFeeds());
+            if (offset >= mediaItems.size()) {
+                return new ArrayList<>();
             }
-            return mediaItems;
+            return new ArrayList<>(mediaItems.subList(offset, Math.min(mediaItems.size(), offset + limit)));
         }
 
-        List<FeedItem> feedItems;
         if (parentId.equals(getResources().getString(R.string.queue_label))) {
-            feedItems = DBReader.getQueue();
+            return mediaBrowserDataSource.getQueue(offset, limit);
         } else if (parentId.equals(getResources().getString(R.string.downloads_label))) {
-            feedItems = DBReader.getEpisodes(0, MAX_ANDROID_AUTO_EPISODES_PER_FEED,
-                    new FeedItemFilter(FeedItemFilter.DOWNLOADED), UserPreferences.getDownloadsSortedOrder());
+            return mediaBrowserDataSource.getEpisodes(new FeedItemFilter(FeedItemFilter.DOWNLOADED),
+                    UserPreferences.getDownloadsSortedOrder(), offset, limit);
         } else if (parentId.equals(getResources().getString(R.string.episodes_label))) {
-            feedItems = DBReader.getEpisodes(0, MAX_ANDROID_AUTO_EPISODES_PER_FEED,
-                    new FeedItemFilter(FeedItemFilter.UNPLAYED), SortOrder.DATE_NEW_OLD);
+            return mediaBrowserDataSource.getEpisodes(new FeedItemFilter(FeedItemFilter.UNPLAYED),
+                    SortOrder.DATE_NEW_OLD, offset, limit);
         } else if (parentId.startsWith("FeedId:")) {
             long feedId = Long.parseLong(parentId.split(":")[1]);
-            feedItems = DBReader.getFeedItemList(DBReader.getFeed(feedId));
+            return mediaBrowserDataSource.getFeedEpisodes(feedId, offset, limit);
         } else if (parentId.equals(getString(R.string.recently_played_episodes))) {
             Playable playable = PlaybackPreferences.createInstanceFromPreferences(this);
-            if (playable instanceof FeedMedia) {
-                feedItems = Collections.singletonList(((FeedMedia) playable).getItem());
-            } else {
+            if (!(playable instanceof FeedMedia)) {
                 return null;
             }
+            return offset == 0 ? Collections.singletonList(((FeedMedia) playable).getMediaItem()) : new ArrayList<>();
         } else {
             Log.e(TAG, "Parent ID not found: " + parentId);
             return null;
         }
-        int count = 0;
-        for (FeedItem feedItem : feedItems) {
-            if (feedItem.getMedia() != null && feedItem.getMedia().getMediaItem() != null) {
-                mediaItems.add(feedItem.getMedia().getMediaItem());
-                if (++count >= MAX_ANDROID_AUTO_EPISODES_PER_FEED) {
-                    break;
-                }
-            }
-        }
-        return mediaItems;
     }
 
     @Override
@@ -754,6 +747,9 @@ public class PlaybackService extends MediaBrowserServiceCompat {
         @Override
         public void positionSaverTick() {
             saveCurrentPosition(true, null, Playable.INVALID_TIME);
+            if (!isCasting) {
+                nextEpisodePreloader.onPositionUpdate(getPlayable(), getCurrentPosition(), getDuration());
+            }
         }
 
         @Override
@@ -976,8 +972,13 @@ public class PlaybackService extends MediaBrowserServiceCompat {
             PlaybackPreferences.writeNoMediaPlaying();
             return null;
         }
-        FeedItem nextItem;
-        nextItem = DBReader.getNextInQueue(item);
+        FeedItem nextItem = nextEpisodePreloader.getNextItem(item);
+        if (nextItem == null) {
+            nextItem = DBReader.getNextInQueue(item);
+        } else {
+            Log.d(TAG, "getNextInQueue(): using preloaded item");
+        }
+        nextEpisodePreloader.cancel();
 
         if (nextItem == null || nextItem.getMedia() == null) {
             PlaybackPreferences.writeNoMediaPlaying();
@@ -1546,6 +1547,20 @@ public class PlaybackService extends MediaBrowserServiceCompat {
         }
     }
 
+    @Subscribe(threadMode = ThreadMode.MAIN)
+    @SuppressWarnings("unused")
+    public void onQueueChanged(QueueEvent event) {
+        nextEpisodePreloader.cancel();
+    }
+
+    @Subscribe(threadMode = ThreadMode.MAIN)
+    @SuppressWarnings("unused")
+    public void onFeedItemsChanged(FeedItemEvent event) {
+        for (FeedItem item : event.items) {
+            nextEpisodePreloader.onItemChanged(item.getId());
+        }
+    }
+
     @Subscribe(threadMode = ThreadMode.MAIN)
     @SuppressWarnings("unused")
     public void skipIntroEndingPresetChanged(SkipIntroEndingChangedEvent event) {
@@ -9,6 +9,7 @@ import android.util.Log;
 
 import de.danoeh.antennapod.event.playback.SleepTimerUpdatedEvent;
 import de.danoeh.antennapod.core.preferences.SleepTimerPreferences;
+import de.danoeh.antennapod.core.receiver.PlayerWidget;
 import de.danoeh.antennapod.core.util.ChapterUtils;
 import de.danoeh.antennapod.core.widget.WidgetUpdater;
 import io.reactivex.disposables.Disposable;
@@ -126,6 +127,9 @@ public class PlaybackServiceTaskManager {
      * Retrieves information about the widget state in the calling thread and then displays it in a background thread.
      */
     public synchronized void requestWidgetUpdate() {
+        if (!PlayerWidget.isEnabled(context)) {
+            return; // No widget placed
+        }
         WidgetUpdater.WidgetState state = callback.requestWidgetState();
         if (!schedExecutor.isShutdown()) {
             schedExecutor.execute(() -> WidgetUpdater.updateWidget(context, state));
@@ -0,0 +1,149 @@
+package de.danoeh.antennapod.core.service.playback;
+
+import android.content.Context;
+import android.net.Uri;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.WorkerThread;
+import com.google.android.exoplayer2.C;
+import com.google.android.exoplayer2.database.ExoDatabaseProvider;
+import com.google.android.exoplayer2.upstream.DataSource;
+import com.google.android.exoplayer2.upstream.DataSpec;
+import com.google.android.exoplayer2.upstream.cache.Cache;
+import com.google.android.exoplayer2.upstream.cache.CacheDataSource;
+import com.google.android.exoplayer2.upstream.cache.CacheWriter;
+import com.google.android.exoplayer2.upstream.cache.ContentMetadata;
+import com.google.android.exoplayer2.upstream.cache.LeastRecentlyUsedCacheEvictor;
+import com.google.android.exoplayer2.upstream.cache.SimpleCache;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import de.danoeh.antennapod.core.service.download.DownloadRequestCreator;
+import de.danoeh.antennapod.core.service.download.handler.MediaDownloadedHandler;
+import de.danoeh.antennapod.core.storage.DBReader;
+import de.danoeh.antennapod.core.storage.DBWriter;
+import de.danoeh.antennapod.model.download.DownloadError;
+import de.danoeh.antennapod.model.download.DownloadResult;
+import de.danoeh.antennapod.model.feed.FeedMedia;
+import de.danoeh.antennapod.net.download.serviceinterface.DownloadRequest;
+
+/**
+ * Keeps the bytes of streamed episodes on disk, so that seeking back, replaying or resuming
+ * after a restart does not download them again. The cache lives in the app's cache folder,
+ * separate from the episode downloads, and evicts the least recently used content.
+ */
+public class StreamingCache {
+    private static final String TAG = "StreamingCache";
+    private static final String CACHE_FOLDER = "streaming";
+    private static final long MAX_BYTES = 250 * 1024 * 1024;
+    private static final int BUFFER_SIZE = 8 * 1024;
+
+    private static SimpleCache cache;
+
+    private StreamingCache() {
+    }
+
+    private static synchronized Cache getCache(Context context) {
+        if (cache == null) {
+            Context appContext = context.getApplicationContext();
+            cache = new SimpleCache(new File(appContext.getCacheDir(), CACHE_FOLDER),
+                    new LeastRecentlyUsedCacheEvictor(MAX_BYTES), new ExoDatabaseProvider(appContext));
+        }
+        return cache;
+    }
+
+    /**
+     * Reads from the cache where possible and stores everything that is loaded from upstream.
+     */
+    @NonNull
+    static CacheDataSource.Factory createDataSourceFactory(Context context, DataSource.Factory upstreamFactory) {
+        return new CacheDataSource.Factory()
+                .setCache(getCache(context))
+                .setUpstreamDataSourceFactory(upstreamFactory)
+                .setFlags(CacheDataSource.FLAG_IGNORE_CACHE_ON_ERROR);
+    }
+
+    /**
+     * Loads the beginning of a stream into the cache, so that playback can start without waiting for the network.
+     * Blocks until done.
+     */
+    @WorkerThread
+    static void prebuffer(Context context, DataSource.Factory upstreamFactory, String url, long bytes)
+            throws IOException {
+        CacheDataSource dataSource = createDataSourceFactory(context, upstreamFactory).createDataSource();
+        DataSpec dataSpec = new DataSpec.Builder()
+                .setUri(Uri.parse(url))
+                .setLength(bytes)
+                .build();
+        new CacheWriter(dataSource, dataSpec, null, null).cache();
+    }
+
+    /**
+     * If the whole episode has been streamed into the cache, copies it to the download folder
+     * and marks it as downloaded, just like a completed download.
+     */
+    @WorkerThread
+    static void promoteIfComplete(Context context, @NonNull FeedMedia media) {
+        String key = media.getStreamUrl();
+        if (key == null || !key.startsWith("http")) {
+            return;
+        }
+        Cache cache = getCache(context);
+        long length = ContentMetadata.getContentLength(cache.getContentMetadata(key));
+        if (length <= 0 || !cache.isCached(key, 0, length)) {
+            return;
+        }
+        FeedMedia current = DBReader.getFeedMedia(media.getId());
+        if (current == null || current.isDownloaded() || media.getItem() == null) {
+            return;
+        }
+
+        DownloadRequest request = DownloadRequestCreator.create(media).build();
+        File destination = new File(request.getDestination());
+        try {
+            copyFromCache(cache, key, destination);
+        } catch (IOException e) {
+            Log.d(TAG, "Unable to copy cached stream: " + e.getMessage());
+            //noinspection ResultOfMethodCallIgnored
+            destination.delete();
+            return;
+        }
+        if (destination.length() != length) {
+            Log.d(TAG, "Cached stream was incomplete");
+            //noinspection ResultOfMethodCallIgnored
+            destination.delete();
+            return;
+        }
+        Log.d(TAG, "Promoted cached stream to download: " + destination);
+
+        DownloadResult result = new DownloadResult(media, media.getEpisodeTitle(),
+                DownloadError.SUCCESS, true, "");
+        MediaDownloadedHandler handler = new MediaDownloadedHandler(context, result, request);
+        handler.run();
+        DBWriter.addDownloadStatus(handler.getUpdatedStatus());
+        try {
+            cache.removeResource(key);
+        } catch (RuntimeException e) {
+            Log.d(TAG, "Unable to remove cached stream: " + e.getMessage());
+        }
+    }
+
+    private static void copyFromCache(Cache cache, String key, File destination) throws IOException {
+        // Without an upstream data source, this fails instead of downloading missing parts
+        CacheDataSource source = new CacheDataSource(cache, null);
+        try (OutputStream out = new FileOutputStream(destination)) {
+            source.open(new DataSpec(Uri.parse(key)));
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+            while ((read = source.read(buffer, 0, buffer.length)) != C.RESULT_END_OF_INPUT) {
+                out.write(buffer, 0, read);
+            }
+        } finally {
+            source.close();
+        }
+    }
+}
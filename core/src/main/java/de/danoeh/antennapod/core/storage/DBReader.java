@@ -186,6 +186,42 @@ public final class DBReader {
         }
     }
 
+    /**
+     * Loads a page of the items of a feed, sorted in the database, together with their list data.
+     *
+     * @param sortOrder The order, or null to sort by date
+     */
+    @NonNull
+    public static List<FeedItem> getFeedItemList(final Feed feed, final FeedItemFilter filter,
+                                                 @Nullable SortOrder sortOrder, int offset, int limit) {
+        Log.d(TAG, "getFeedItemList() called with: feed = [" + feed + "], offset=" + offset + ", limit=" + limit);
+        PodDBAdapter adapter = PodDBAdapter.getInstance();
+        adapter.open();
+        try (Cursor cursor = adapter.getItemsOfFeedCursor(feed, filter, sortOrder, offset, limit)) {
+            List<FeedItem> items = extractItemlistFromCursor(adapter, cursor);
+            for (FeedItem item : items) {
+                item.setFeed(feed);
+            }
+            loadAdditionalFeedItemListData(items);
+            return items;
+        } finally {
+            adapter.close();
+        }
+    }
+
+    public static int getFeedEpisodeCount(long feedId, FeedItemFilter filter) {
+        PodDBAdapter adapter = PodDBAdapter.getInstance();
+        adapter.open();
+        try (Cursor cursor = adapter.getFeedEpisodeCountCursor(feedId, filter)) {
+            if (cursor.moveToFirst()) {
+                return cursor.getInt(0);
+            }
+            return -1;
+        } finally {
+            adapter.close();
+        }
+    }
+
     public static List<FeedItem> extractItemlistFromCursor(Cursor itemlistCursor) {
         Log.d(TAG, "extractItemlistFromCursor() called with: " + "itemlistCursor = [" + itemlistCursor + "]");
         PodDBAdapter adapter = PodDBAdapter.getInstance();
@@ -447,6 +483,32 @@ public final class DBReader {
         return getFeed(feedId, false);
     }
 
+    /**
+     * Loads a specific Feed from the database, with the first items according to the feed's filter and sort order.
+     * More items can be loaded with {@link #getFeedItemList(Feed, FeedItemFilter, SortOrder, int, int)}.
+     *
+     * @param limit Maximum number of items to load
+     * @return The Feed or null if the Feed could not be found
+     */
+    @Nullable
+    public static Feed getFeed(final long feedId, int limit) {
+        Log.d(TAG, "getFeed() called with: " + "feedId = [" + feedId + "], limit = [" + limit + "]");
+        Feed feed;
+        PodDBAdapter adapter = PodDBAdapter.getInstance();
+        adapter.open();
+        try (Cursor cursor = adapter.getFeedCursor(feedId)) {
+            if (!cursor.moveToNext()) {
+                Log.e(TAG, "getFeed could not find feed with id " + feedId);
+                return null;
+            }
+            feed = extractFeedFromCursorRow(cursor);
+        } finally {
+            adapter.close();
+        }
+        feed.setItems(getFeedItemList(feed, feed.getItemFilter(), feed.getSortOrder(), 0, limit));
+        return feed;
+    }
+
     /**
      * Loads a specific Feed from the database.
      *
@@ -642,12 +704,8 @@ public final class DBReader {
         Log.d(TAG, "loadDescriptionOfFeedItem() called with: " + "item = [" + item + "]");
         PodDBAdapter adapter = PodDBAdapter.getInstance();
         adapter.open();
-        try (Cursor cursor = adapter.getDescriptionOfItem(item)) {
-            if (cursor.moveToFirst()) {
-                int indexDescription = cursor.getColumnIndex(PodDBAdapter.KEY_DESCRIPTION);
-                String description = cursor.getString(indexDescription);
-                item.setDescriptionIfLonger(description);
-            }
+        try {
+            item.setDescriptionIfLonger(adapter.getDescriptionOfItem(item));
         } finally {
             adapter.close();
         }
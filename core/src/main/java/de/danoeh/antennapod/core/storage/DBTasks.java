@@ -27,8 +27,10 @@ import org.greenrobot.eventbus.EventBus;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
@@ -361,6 +363,43 @@ public final class DBTasks {
         return resultFeed;
     }
 
+    /**
+     * Adds many new subscriptions at once, for example from an OPML file. All feeds are inserted
+     * in a single transaction and only one {@link FeedListUpdateEvent} is posted.
+     * Feeds that are already subscribed or that appear twice in the list are skipped.
+     * The feeds are not refreshed, see {@link FeedUpdateManager#runOnce(Context, List)}.
+     * <p/>
+     * This method should NOT be executed on the GUI thread.
+     *
+     * @param context  Used for accessing the DB.
+     * @param newFeeds Feeds without items.
+     * @return The feeds that were added, with their IDs set.
+     */
+    public static synchronized List<Feed> subscribeToFeeds(Context context, List<Feed> newFeeds) {
+        Set<String> identifyingValues = new HashSet<>();
+        for (Feed feed : DBReader.getFeedList()) {
+            identifyingValues.add(feed.getIdentifyingValue());
+            identifyingValues.add(feed.getDownload_url());
+        }
+        List<Feed> addedFeeds = new ArrayList<>();
+        for (Feed feed : newFeeds) {
+            if (identifyingValues.add(feed.getIdentifyingValue())) {
+                addedFeeds.add(feed);
+            }
+        }
+        Log.d(TAG, "Subscribing to " + addedFeeds.size() + " of " + newFeeds.size() + " feeds");
+        if (addedFeeds.isEmpty()) {
+            return addedFeeds;
+        }
+        try {
+            DBWriter.addNewFeed(context, addedFeeds.toArray(new Feed[0])).get();
+        } catch (InterruptedException | ExecutionException e) {
+            e.printStackTrace();
+        }
+        EventBus.getDefault().post(new FeedListUpdateEvent(addedFeeds));
+        return addedFeeds;
+    }
+
     private static String duplicateEpisodeDetails(FeedItem item) {
         return "Title: " + item.getTitle()
                 + "\nID: " + item.getItemIdentifier()
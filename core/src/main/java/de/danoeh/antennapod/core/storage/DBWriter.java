@@ -2,6 +2,7 @@ package de.danoeh.antennapod.core.storage;
 
 import android.app.backup.BackupManager;
 import android.content.Context;
+import android.text.format.DateUtils;
 import android.util.Log;
 
 import androidx.annotation.NonNull;
@@ -20,7 +21,6 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Set;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
@@ -60,16 +60,7 @@ public class DBWriter {
 
     private static final String TAG = "DBWriter";
 
-    private static final ExecutorService dbExec;
-
-    static {
-        dbExec = Executors.newSingleThreadExecutor(r -> {
-            Thread t = new Thread(r);
-            t.setName("DatabaseExecutor");
-            t.setPriority(Thread.MIN_PRIORITY);
-            return t;
-        });
-    }
+    private static final ExecutorService dbExec = new DatabaseExecutor();
 
     private DBWriter() {
     }
@@ -213,7 +204,11 @@ public class DBWriter {
         PodDBAdapter adapter = PodDBAdapter.getInstance();
         adapter.open();
         if (!removedFromQueue.isEmpty()) {
-            adapter.setQueue(queue);
+            LongList removedIds = new LongList(removedFromQueue.size());
+            for (FeedItem item : removedFromQueue) {
+                removedIds.add(item.getId());
+            }
+            adapter.removeQueueItems(removedIds.toArray());
         }
         adapter.removeFeedItems(items);
         adapter.close();
@@ -325,21 +320,17 @@ public class DBWriter {
         return dbExec.submit(() -> {
             final PodDBAdapter adapter = PodDBAdapter.getInstance();
             adapter.open();
-            final List<FeedItem> queue = DBReader.getQueue(adapter);
-            FeedItem item;
-
-            if (queue != null) {
-                if (!itemListContains(queue, itemId)) {
-                    item = DBReader.getFeedItem(itemId);
-                    if (item != null) {
-                        queue.add(index, item);
-                        adapter.setQueue(queue);
-                        item.addTag(FeedItem.TAG_QUEUE);
-                        EventBus.getDefault().post(QueueEvent.added(item, index));
-                        EventBus.getDefault().post(FeedItemEvent.updated(item));
-                        if (item.isNew()) {
-                            DBWriter.markItemPlayed(FeedItem.UNPLAYED, item.getId());
-                        }
+            final QueuePositions queue = QueuePositions.load(adapter);
+
+            if (queue.indexOf(itemId) < 0) {
+                FeedItem item = DBReader.getFeedItem(itemId);
+                if (item != null) {
+                    queue.add(adapter, index, new long[]{item.getId()}, new long[]{item.getFeedId()});
+                    item.addTag(FeedItem.TAG_QUEUE);
+                    EventBus.getDefault().post(QueueEvent.added(item, index));
+                    EventBus.getDefault().post(FeedItemEvent.updated(item));
+                    if (item.isNew()) {
+                        DBWriter.markItemPlayed(FeedItem.UNPLAYED, item.getId());
                     }
                 }
             }
@@ -398,6 +389,7 @@ public class DBWriter {
             final PodDBAdapter adapter = PodDBAdapter.getInstance();
             adapter.open();
             final List<FeedItem> queue = DBReader.getQueue(adapter);
+            final QueuePositions queuePositions = QueuePositions.load(adapter);
 
             boolean queueModified = false;
             LongList markAsUnplayedIds = new LongList();
@@ -406,7 +398,8 @@ public class DBWriter {
             ItemEnqueuePositionCalculator positionCalculator =
                     new ItemEnqueuePositionCalculator(UserPreferences.getEnqueueLocation());
             Playable currentlyPlaying = PlaybackPreferences.createInstanceFromPreferences(context);
-            int insertPosition = positionCalculator.calcPosition(queue, currentlyPlaying);
+            final int firstInsertPosition = positionCalculator.calcPosition(queue, currentlyPlaying);
+            int insertPosition = firstInsertPosition;
             for (long itemId : itemIds) {
                 if (!itemListContains(queue, itemId)) {
                     final FeedItem item = DBReader.getFeedItem(itemId);
@@ -425,8 +418,18 @@ public class DBWriter {
                 }
             }
             if (queueModified) {
-                applySortOrder(queue, events);
-                adapter.setQueue(queue);
+                if (applySortOrder(queue, events)) {
+                    adapter.setQueue(queue);
+                } else {
+                    // The new items are next to each other, so only their rows need to be written
+                    long[] newItemIds = new long[updatedItems.size()];
+                    long[] feedIds = new long[updatedItems.size()];
+                    for (int i = 0; i < updatedItems.size(); i++) {
+                        newItemIds[i] = updatedItems.get(i).getId();
+                        feedIds[i] = updatedItems.get(i).getFeedId();
+                    }
+                    queuePositions.add(adapter, firstInsertPosition, newItemIds, feedIds);
+                }
                 for (QueueEvent event : events) {
                     EventBus.getDefault().post(event);
                 }
@@ -448,18 +451,19 @@ public class DBWriter {
      *
      * @param queue  The queue to be sorted.
      * @param events Replaces the events by a single SORT event if the list has to be sorted automatically.
+     * @return true if the queue was sorted
      */
-    private static void applySortOrder(List<FeedItem> queue, List<QueueEvent> events) {
+    private static boolean applySortOrder(List<FeedItem> queue, List<QueueEvent> events) {
         if (!UserPreferences.isQueueKeepSorted()) {
             // queue is not in keep sorted mode, there's nothing to do
-            return;
+            return false;
         }
 
         // Sort queue by configured sort order
         SortOrder sortOrder = UserPreferences.getQueueKeepSortedOrder();
         if (sortOrder == SortOrder.RANDOM) {
             // do not shuffle the list on every change
-            return;
+            return false;
         }
         Permutor<FeedItem> permutor = FeedItemPermutors.getPermutor(sortOrder);
         permutor.reorder(queue);
@@ -467,6 +471,7 @@ public class DBWriter {
         // Replace ADDED events by a single SORTED event
         events.clear();
         events.add(QueueEvent.sorted(queue));
+        return true;
     }
 
     /**
@@ -508,41 +513,39 @@ public class DBWriter {
         }
         final PodDBAdapter adapter = PodDBAdapter.getInstance();
         adapter.open();
-        final List<FeedItem> queue = DBReader.getQueue(adapter);
-
-        if (queue != null) {
-            boolean queueModified = false;
-            List<QueueEvent> events = new ArrayList<>();
-            List<FeedItem> updatedItems = new ArrayList<>();
-            for (long itemId : itemIds) {
-                int position = indexInItemList(queue, itemId);
-                if (position >= 0) {
-                    final FeedItem item = DBReader.getFeedItem(itemId);
-                    if (item == null) {
-                        Log.e(TAG, "removeQueueItem - item in queue but somehow cannot be loaded." +
-                                " Item ignored. It should never happen. id:" + itemId);
-                        continue;
-                    }
-                    queue.remove(position);
-                    item.removeTag(FeedItem.TAG_QUEUE);
-                    events.add(QueueEvent.removed(item));
-                    updatedItems.add(item);
-                    queueModified = true;
-                } else {
-                    Log.v(TAG, "removeQueueItem - item  not in queue:" + itemId);
+        final QueuePositions queue = QueuePositions.load(adapter);
+
+        boolean queueModified = false;
+        List<QueueEvent> events = new ArrayList<>();
+        List<FeedItem> updatedItems = new ArrayList<>();
+        LongList removedIds = new LongList();
+        for (long itemId : itemIds) {
+            int position = queue.indexOf(itemId);
+            if (position >= 0) {
+                final FeedItem item = DBReader.getFeedItem(itemId);
+                if (item == null) {
+                    Log.e(TAG, "removeQueueItem - item in queue but somehow cannot be loaded." +
+                            " Item ignored. It should never happen. id:" + itemId);
+                    continue;
                 }
-            }
-            if (queueModified) {
-                adapter.setQueue(queue);
-                for (QueueEvent event : events) {
-                    EventBus.getDefault().post(event);
-                }
-                EventBus.getDefault().post(FeedItemEvent.updated(updatedItems));
+                queue.remove(position);
+                removedIds.add(itemId);
+                item.removeTag(FeedItem.TAG_QUEUE);
+                events.add(QueueEvent.removed(item));
+                updatedItems.add(item);
+                queueModified = true;
             } else {
-                Log.w(TAG, "Queue was not modified by call to removeQueueItem");
+                Log.v(TAG, "removeQueueItem - item  not in queue:" + itemId);
             }
+        }
+        if (queueModified) {
+            adapter.removeQueueItems(removedIds.toArray());
+            for (QueueEvent event : events) {
+                EventBus.getDefault().post(event);
+            }
+            EventBus.getDefault().post(FeedItemEvent.updated(updatedItems));
         } else {
-            Log.e(TAG, "removeQueueItem: Could not load queue");
+            Log.w(TAG, "Queue was not modified by call to removeQueueItem");
         }
         adapter.close();
         if (performAutoDownload) {
@@ -647,20 +650,17 @@ public class DBWriter {
                                             final int to, final boolean broadcastUpdate) {
         final PodDBAdapter adapter = PodDBAdapter.getInstance();
         adapter.open();
-        final List<FeedItem> queue = DBReader.getQueue(adapter);
-
-        if (queue != null) {
-            if (from >= 0 && from < queue.size() && to >= 0 && to < queue.size()) {
-                final FeedItem item = queue.remove(from);
-                queue.add(to, item);
+        final QueuePositions queue = QueuePositions.load(adapter);
 
-                adapter.setQueue(queue);
-                if (broadcastUpdate) {
+        if (from >= 0 && from < queue.size() && to >= 0 && to < queue.size()) {
+            final long itemId = queue.getItemId(from);
+            queue.move(adapter, from, to);
+            if (broadcastUpdate) {
+                final FeedItem item = DBReader.getFeedItem(itemId);
+                if (item != null) {
                     EventBus.getDefault().post(QueueEvent.moved(item, to));
                 }
             }
-        } else {
-            Log.e(TAG, "moveQueueItemHelper: Could not load queue");
         }
         adapter.close();
     }
@@ -821,14 +821,25 @@ public class DBWriter {
 
     /**
      * Saves the 'position', 'duration' and 'last played time' attributes of a FeedMedia object
+     * and adds the time played since the last save to the playback statistics.
      *
-     * @param media The FeedMedia object.
+     * @param playedDuration Time played since the last save, in ms
      */
-    public static Future<?> setFeedMediaPlaybackInformation(final FeedMedia media) {
+    public static Future<?> setFeedMediaPlaybackInformation(final FeedMedia media, final long playedDuration) {
+        final long day = media.getLastPlayedTime() / DateUtils.DAY_IN_MILLIS;
         return dbExec.submit(() -> {
             PodDBAdapter adapter = PodDBAdapter.getInstance();
             adapter.open();
             adapter.setFeedMediaPlaybackInformation(media);
+            if (playedDuration > 0) {
+                FeedItem item = media.getItem();
+                if (item == null) {
+                    item = DBReader.getFeedItem(media.getItemId());
+                }
+                if (item != null) {
+                    adapter.addPlayedDuration(item.getFeedId(), day, playedDuration);
+                }
+            }
             adapter.close();
         });
     }
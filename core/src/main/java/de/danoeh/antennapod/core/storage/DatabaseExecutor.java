@@ -0,0 +1,87 @@
+package de.danoeh.antennapod.core.storage;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RunnableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import de.danoeh.antennapod.storage.database.DatabaseTimings;
+
+/**
+ * Runs the database tasks one after another on a background thread.
+ * When {@link DatabaseTimings} is enabled, records how long each task waited in the queue and ran.
+ */
+class DatabaseExecutor extends ThreadPoolExecutor {
+
+    DatabaseExecutor() {
+        super(1, 1, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), r -> {
+            Thread t = new Thread(r);
+            t.setName("DatabaseExecutor");
+            t.setPriority(Thread.MIN_PRIORITY);
+            return t;
+        });
+    }
+
+    @Override
+    protected <T> RunnableFuture<T> newTaskFor(Runnable runnable, T value) {
+        if (!DatabaseTimings.isEnabled()) {
+            return super.newTaskFor(runnable, value);
+        }
+        return new TimedTask<>(Executors.callable(runnable, value), getSubmitter(), getQueue().size());
+    }
+
+    @Override
+    protected <T> RunnableFuture<T> newTaskFor(Callable<T> callable) {
+        if (!DatabaseTimings.isEnabled()) {
+            return super.newTaskFor(callable);
+        }
+        return new TimedTask<>(callable, getSubmitter(), getQueue().size());
+    }
+
+    @Override
+    protected void beforeExecute(Thread t, Runnable r) {
+        super.beforeExecute(t, r);
+        if (r instanceof TimedTask) {
+            ((TimedTask<?>) r).startTime = System.nanoTime();
+        }
+    }
+
+    @Override
+    protected void afterExecute(Runnable r, Throwable t) {
+        super.afterExecute(r, t);
+        if (r instanceof TimedTask) {
+            TimedTask<?> task = (TimedTask<?>) r;
+            DatabaseTimings.recordTask(task.submitter, task.startTime - task.submitTime,
+                    System.nanoTime() - task.startTime, task.queueDepth);
+        }
+    }
+
+    /**
+     * @return Name of the method that submitted the task, for example "DBWriter.addQueueItem"
+     */
+    private static String getSubmitter() {
+        for (StackTraceElement element : new Throwable().getStackTrace()) {
+            String className = element.getClassName();
+            if (!className.equals(DatabaseExecutor.class.getName()) && !className.startsWith("java.")) {
+                return className.substring(className.lastIndexOf('.') + 1) + "." + element.getMethodName();
+            }
+        }
+        return "unknown";
+    }
+
+    private static class TimedTask<T> extends FutureTask<T> {
+        final String submitter;
+        final int queueDepth;
+        final long submitTime = System.nanoTime();
+        long startTime;
+
+        TimedTask(Callable<T> callable, String submitter, int queueDepth) {
+            super(callable);
+            this.submitter = submitter;
+            this.queueDepth = queueDepth;
+        }
+    }
+}
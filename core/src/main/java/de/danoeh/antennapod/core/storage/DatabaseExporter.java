@@ -1,27 +1,38 @@
 package de.danoeh.antennapod.core.storage;
 
 import android.content.Context;
+import android.database.Cursor;
+import android.database.SQLException;
 import android.database.sqlite.SQLiteDatabase;
 import android.database.sqlite.SQLiteException;
 import android.net.Uri;
+import android.os.Build;
 import android.os.ParcelFileDescriptor;
-import android.text.format.Formatter;
 import android.util.Log;
 import de.danoeh.antennapod.core.R;
 import de.danoeh.antennapod.storage.database.PodDBAdapter;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.output.CountingOutputStream;
 
+import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.nio.channels.FileChannel;
+import java.io.OutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
+/**
+ * Backups are gzip-compressed snapshots of the database. Uncompressed backups of older versions can still be imported.
+ */
 public class DatabaseExporter {
     private static final String TAG = "DatabaseExporter";
     private static final String TEMP_DB_NAME = PodDBAdapter.DATABASE_NAME + "_tmp";
+    private static final String SNAPSHOT_NAME = "backup-snapshot.db";
+    private static final int BUFFER_SIZE = 64 * 1024;
 
     public static void exportToDocument(Uri uri, Context context) throws IOException {
         ParcelFileDescriptor pfd = null;
@@ -46,50 +57,63 @@ public class DatabaseExporter {
         }
     }
 
-    public static void exportToStream(FileOutputStream outFileStream, Context context) throws IOException {
-        FileChannel src = null;
-        FileChannel dst = null;
+    /**
+     * Takes a consistent snapshot of the database and writes it compressed to the stream.
+     * The database is only held while the snapshot is created, not while it is compressed.
+     * The stream is not closed.
+     */
+    public static void exportToStream(OutputStream outStream, Context context) throws IOException {
+        File snapshot = new File(context.getCacheDir(), SNAPSHOT_NAME);
+        FileUtils.deleteQuietly(snapshot);
         try {
-            File currentDB = context.getDatabasePath(PodDBAdapter.DATABASE_NAME);
+            long start = System.currentTimeMillis();
+            createSnapshot(snapshot);
+            long snapshotDone = System.currentTimeMillis();
 
-            if (currentDB.exists()) {
-                src = new FileInputStream(currentDB).getChannel();
-                dst = outFileStream.getChannel();
-                long srcSize = src.size();
-                dst.transferFrom(src, 0, srcSize);
+            CountingOutputStream countingStream = new CountingOutputStream(outStream);
+            GZIPOutputStream gzipStream = new GZIPOutputStream(countingStream, BUFFER_SIZE);
+            try (InputStream in = new FileInputStream(snapshot)) {
+                IOUtils.copy(in, gzipStream, BUFFER_SIZE);
+            }
+            gzipStream.finish();
+            gzipStream.flush();
+            long end = System.currentTimeMillis();
+            Log.d(TAG, "Exported " + snapshot.length() / 1024 + " kB database as "
+                    + countingStream.getByteCount() / 1024 + " kB. Snapshot took " + (snapshotDone - start)
+                    + " ms, compressing took " + (end - snapshotDone) + " ms ("
+                    + snapshot.length() / Math.max(1, end - snapshotDone) + " kB/s)");
+        } catch (IOException | SQLException e) {
+            Log.e(TAG, Log.getStackTraceString(e));
+            throw e instanceof IOException ? (IOException) e : new IOException(e);
+        } finally {
+            FileUtils.deleteQuietly(snapshot);
+        }
+    }
 
-                long newDstSize = dst.size();
-                if (newDstSize != srcSize) {
-                    throw new IOException(String.format(
-                            "Unable to write entire database. Expected to write %s, but wrote %s.",
-                            Formatter.formatShortFileSize(context, srcSize),
-                            Formatter.formatShortFileSize(context, newDstSize)));
+    private static void createSnapshot(File snapshot) throws IOException {
+        PodDBAdapter adapter = PodDBAdapter.getInstance();
+        adapter.open();
+        try {
+            if (Build.VERSION.SDK_INT >= 30) {
+                try {
+                    adapter.vacuumInto(snapshot);
+                    return;
+                } catch (SQLException e) {
+                    Log.d(TAG, "VACUUM INTO failed, copying instead: " + e.getMessage());
+                    FileUtils.deleteQuietly(snapshot);
                 }
-            } else {
-                throw new IOException("Can not access current database");
             }
-        } catch (IOException e) {
-            Log.e(TAG, Log.getStackTraceString(e));
-            throw e;
+            adapter.copyDatabaseFile(snapshot);
         } finally {
-            IOUtils.closeQuietly(src);
-            IOUtils.closeQuietly(dst);
+            adapter.close();
         }
     }
 
     public static void importBackup(Uri inputUri, Context context) throws IOException {
-        InputStream inputStream = null;
-        try {
-            File tempDB = context.getDatabasePath(TEMP_DB_NAME);
-            inputStream = context.getContentResolver().openInputStream(inputUri);
+        File tempDB = context.getDatabasePath(TEMP_DB_NAME);
+        try (InputStream inputStream = openBackup(context.getContentResolver().openInputStream(inputUri))) {
             FileUtils.copyInputStreamToFile(inputStream, tempDB);
-
-            SQLiteDatabase db = SQLiteDatabase.openDatabase(tempDB.getAbsolutePath(),
-                    null, SQLiteDatabase.OPEN_READONLY);
-            if (db.getVersion() > PodDBAdapter.VERSION) {
-                throw new IOException(context.getString(R.string.import_no_downgrade));
-            }
-            db.close();
+            validateBackup(tempDB, context);
 
             File currentDB = context.getDatabasePath(PodDBAdapter.DATABASE_NAME);
             boolean success = currentDB.delete();
@@ -99,9 +123,43 @@ public class DatabaseExporter {
             FileUtils.moveFile(tempDB, currentDB);
         } catch (IOException | SQLiteException e) {
             Log.e(TAG, Log.getStackTraceString(e));
+            FileUtils.deleteQuietly(tempDB);
             throw e;
+        }
+    }
+
+    /**
+     * Decompresses the backup while reading it, if needed.
+     */
+    private static InputStream openBackup(InputStream inputStream) throws IOException {
+        if (inputStream == null) {
+            throw new IOException("Unable to open backup");
+        }
+        BufferedInputStream bufferedStream = new BufferedInputStream(inputStream, BUFFER_SIZE);
+        bufferedStream.mark(2);
+        int magic = bufferedStream.read() | (bufferedStream.read() << 8);
+        bufferedStream.reset();
+        if (magic == GZIPInputStream.GZIP_MAGIC) {
+            return new GZIPInputStream(bufferedStream, BUFFER_SIZE);
+        }
+        return bufferedStream;
+    }
+
+    private static void validateBackup(File database, Context context) throws IOException {
+        SQLiteDatabase db = SQLiteDatabase.openDatabase(database.getAbsolutePath(),
+                null, SQLiteDatabase.OPEN_READONLY);
+        try {
+            if (db.getVersion() > PodDBAdapter.VERSION) {
+                throw new IOException(context.getString(R.string.import_no_downgrade));
+            }
+            try (Cursor cursor = db.rawQuery("SELECT name FROM sqlite_master WHERE type = 'table' AND name = ?",
+                    new String[]{PodDBAdapter.TABLE_NAME_FEEDS})) {
+                if (db.getVersion() <= 0 || !cursor.moveToFirst()) {
+                    throw new IOException("File does not contain an AntennaPod database");
+                }
+            }
         } finally {
-            IOUtils.closeQuietly(inputStream);
+            db.close();
         }
     }
 }
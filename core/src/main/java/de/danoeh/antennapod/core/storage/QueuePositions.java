@@ -0,0 +1,127 @@
+package de.danoeh.antennapod.core.storage;
+
+import android.database.Cursor;
+
+import androidx.annotation.NonNull;
+
+import de.danoeh.antennapod.core.util.LongList;
+import de.danoeh.antennapod.storage.database.PodDBAdapter;
+
+/**
+ * Item IDs of the queue together with their sparse position keys.
+ * Inserting or moving an item picks a key between its new neighbours, so only a single row is written.
+ * Only when two neighbours have no free key left, the whole queue is spaced out again.
+ * <p/>
+ * Must only be used on the DBWriter executor, while the adapter is open.
+ * Failed writes throw, so that the task ends together with the positions it loaded.
+ */
+class QueuePositions {
+    private final LongList itemIds;
+    private final LongList positions;
+
+    private QueuePositions(LongList itemIds, LongList positions) {
+        this.itemIds = itemIds;
+        this.positions = positions;
+    }
+
+    @NonNull
+    static QueuePositions load(PodDBAdapter adapter) {
+        try (Cursor cursor = adapter.getQueuePositionsCursor()) {
+            LongList itemIds = new LongList(cursor.getCount());
+            LongList positions = new LongList(cursor.getCount());
+            while (cursor.moveToNext()) {
+                itemIds.add(cursor.getLong(0));
+                positions.add(cursor.getLong(1));
+            }
+            return new QueuePositions(itemIds, positions);
+        }
+    }
+
+    int size() {
+        return itemIds.size();
+    }
+
+    int indexOf(long itemId) {
+        return itemIds.indexOf(itemId);
+    }
+
+    long getItemId(int index) {
+        return itemIds.get(index);
+    }
+
+    /**
+     * Inserts items next to each other, starting at the given index.
+     *
+     * @throws IndexOutOfBoundsException if index < 0 || index > size()
+     */
+    void add(PodDBAdapter adapter, int index, long[] newItemIds, long[] feedIds) {
+        if (index < 0 || index > size()) {
+            throw new IndexOutOfBoundsException("Index " + index + ", size " + size());
+        }
+        long step = findFreeStep(index, newItemIds.length);
+        if (step < 1) {
+            respace(adapter);
+            step = findFreeStep(index, newItemIds.length);
+        }
+        long before = index == 0 ? 0 : positions.get(index - 1);
+        long[] newPositions = new long[newItemIds.length];
+        for (int i = 0; i < newItemIds.length; i++) {
+            newPositions[i] = before + (i + 1) * step;
+        }
+        adapter.addQueueItems(newPositions, newItemIds, feedIds);
+        for (int i = 0; i < newItemIds.length; i++) {
+            itemIds.insert(index + i, newItemIds[i]);
+            positions.insert(index + i, newPositions[i]);
+        }
+    }
+
+    /**
+     * @throws IndexOutOfBoundsException if from or to are not in range 0..size()-1
+     */
+    void move(PodDBAdapter adapter, int from, int to) {
+        if (from < 0 || from >= size() || to < 0 || to >= size()) {
+            throw new IndexOutOfBoundsException("From " + from + ", to " + to + ", size " + size());
+        }
+        long itemId = itemIds.get(from);
+        long oldPosition = positions.get(from);
+        itemIds.removeIndex(from);
+        positions.removeIndex(from);
+        long step = findFreeStep(to, 1);
+        if (step < 1) {
+            itemIds.insert(from, itemId);
+            positions.insert(from, oldPosition);
+            respace(adapter);
+            itemIds.removeIndex(from);
+            positions.removeIndex(from);
+            step = findFreeStep(to, 1);
+        }
+        long position = (to == 0 ? 0 : positions.get(to - 1)) + step;
+        adapter.setQueueItemPosition(itemId, position);
+        itemIds.insert(to, itemId);
+        positions.insert(to, position);
+    }
+
+    void remove(int index) {
+        itemIds.removeIndex(index);
+        positions.removeIndex(index);
+    }
+
+    /**
+     * @return Distance between keys so that the given number of items fit between the items at index - 1 and index,
+     *         or 0 if there is not enough room.
+     */
+    private long findFreeStep(int index, int count) {
+        if (index == size()) {
+            return PodDBAdapter.QUEUE_POSITION_GAP;
+        }
+        long before = index == 0 ? 0 : positions.get(index - 1);
+        return (positions.get(index) - before) / (count + 1);
+    }
+
+    private void respace(PodDBAdapter adapter) {
+        adapter.respaceQueue();
+        for (int i = 0; i < positions.size(); i++) {
+            positions.set(i, (i + 1) * PodDBAdapter.QUEUE_POSITION_GAP);
+        }
+    }
+}
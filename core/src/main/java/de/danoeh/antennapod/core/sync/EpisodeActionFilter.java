@@ -2,9 +2,12 @@ package de.danoeh.antennapod.core.sync;
 
 import android.util.Log;
 
-import androidx.collection.ArrayMap;
+import androidx.annotation.NonNull;
 import androidx.core.util.Pair;
 
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
@@ -14,20 +17,25 @@ public class EpisodeActionFilter {
 
     public static final String TAG = "EpisodeActionFilter";
 
+    /**
+     * Returns the latest remote play action of each episode, unless a more recent local action exists.
+     * Runs in linear time, a first sync can have tens of thousands of remote actions.
+     */
     public static Map<Pair<String, String>, EpisodeAction> getRemoteActionsOverridingLocalActions(
             List<EpisodeAction> remoteActions,
             List<EpisodeAction> queuedEpisodeActions) {
         // make sure more recent local actions are not overwritten by older remote actions
-        Map<Pair<String, String>, EpisodeAction> remoteActionsThatOverrideLocalActions = new ArrayMap<>();
-        Map<Pair<String, String>, EpisodeAction> localMostRecentPlayActions =
+        Map<EpisodeKey, EpisodeAction> remoteActionsThatOverrideLocalActions =
+                new HashMap<>(capacityFor(remoteActions.size()));
+        Map<EpisodeKey, EpisodeAction> localMostRecentPlayActions =
                 createUniqueLocalMostRecentPlayActions(queuedEpisodeActions);
         for (EpisodeAction remoteAction : remoteActions) {
-            Pair<String, String> key = new Pair<>(remoteAction.getPodcast(), remoteAction.getEpisode());
             switch (remoteAction.getAction()) {
                 case NEW:
                 case DOWNLOAD:
                     break;
                 case PLAY:
+                    EpisodeKey key = new EpisodeKey(remoteAction);
                     EpisodeAction localMostRecent = localMostRecentPlayActions.get(key);
                     if (secondActionOverridesFirstAction(remoteAction, localMostRecent)) {
                         break;
@@ -47,19 +55,52 @@ public class EpisodeActionFilter {
             }
         }
 
-        return remoteActionsThatOverrideLocalActions;
+        Map<Pair<String, String>, EpisodeAction> result =
+                new HashMap<>(capacityFor(remoteActionsThatOverrideLocalActions.size()));
+        for (Map.Entry<EpisodeKey, EpisodeAction> entry : remoteActionsThatOverrideLocalActions.entrySet()) {
+            result.put(new Pair<>(entry.getKey().podcast, entry.getKey().episode), entry.getValue());
+        }
+        return result;
+    }
+
+    /**
+     * Same as {@link #getRemoteActionsOverridingLocalActions(List, List)} for one batch of a response
+     * that is read in several batches. Leaves out actions that are not more recent than the action
+     * a previous batch applied to the same episode.
+     *
+     * @param appliedTimestamps Timestamps of the actions returned for previous batches of the same response.
+     *                          Updated with the returned actions.
+     */
+    public static Map<Pair<String, String>, EpisodeAction> getRemoteActionsOverridingLocalActions(
+            List<EpisodeAction> remoteActions,
+            List<EpisodeAction> queuedEpisodeActions,
+            Map<Pair<String, String>, Date> appliedTimestamps) {
+        Map<Pair<String, String>, EpisodeAction> actions =
+                getRemoteActionsOverridingLocalActions(remoteActions, queuedEpisodeActions);
+        Iterator<Map.Entry<Pair<String, String>, EpisodeAction>> iterator = actions.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Pair<String, String>, EpisodeAction> entry = iterator.next();
+            Date timestamp = entry.getValue().getTimestamp();
+            Date applied = appliedTimestamps.get(entry.getKey());
+            if (applied != null && (timestamp == null || !timestamp.after(applied))) {
+                iterator.remove();
+            } else if (timestamp != null) {
+                appliedTimestamps.put(entry.getKey(), timestamp);
+            }
+        }
+        return actions;
     }
 
-    private static Map<Pair<String, String>, EpisodeAction> createUniqueLocalMostRecentPlayActions(
+    private static Map<EpisodeKey, EpisodeAction> createUniqueLocalMostRecentPlayActions(
             List<EpisodeAction> queuedEpisodeActions) {
-        Map<Pair<String, String>, EpisodeAction> localMostRecentPlayAction;
-        localMostRecentPlayAction = new ArrayMap<>();
+        Map<EpisodeKey, EpisodeAction> localMostRecentPlayAction =
+                new HashMap<>(capacityFor(queuedEpisodeActions.size()));
         for (EpisodeAction action : queuedEpisodeActions) {
-            Pair<String, String> key = new Pair<>(action.getPodcast(), action.getEpisode());
+            EpisodeKey key = new EpisodeKey(action);
             EpisodeAction mostRecent = localMostRecentPlayAction.get(key);
             if (mostRecent == null || mostRecent.getTimestamp() == null) {
                 localMostRecentPlayAction.put(key, action);
-            } else if (mostRecent.getTimestamp().before(action.getTimestamp())) {
+            } else if (action.getTimestamp() != null && mostRecent.getTimestamp().before(action.getTimestamp())) {
                 localMostRecentPlayAction.put(key, action);
             }
         }
@@ -74,4 +115,48 @@ public class EpisodeActionFilter {
                         || secondAction.getTimestamp().after(firstAction.getTimestamp()));
     }
 
+    /**
+     * Initial capacity of a hash map that holds the given number of entries without resizing.
+     */
+    private static int capacityFor(int size) {
+        return (int) (size / 0.75f) + 1;
+    }
+
+    /**
+     * Identifies an episode by podcast and episode URL. The hash is computed once,
+     * because each key is looked up in two maps.
+     */
+    private static final class EpisodeKey {
+        final String podcast;
+        final String episode;
+        private final int hash;
+
+        EpisodeKey(@NonNull EpisodeAction action) {
+            this.podcast = action.getPodcast();
+            this.episode = action.getEpisode();
+            int h = podcast != null ? podcast.hashCode() : 0;
+            this.hash = 31 * h + (episode != null ? episode.hashCode() : 0);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof EpisodeKey)) {
+                return false;
+            }
+            EpisodeKey other = (EpisodeKey) o;
+            return hash == other.hash && equalStrings(episode, other.episode) && equalStrings(podcast, other.podcast);
+        }
+
+        private static boolean equalStrings(String a, String b) {
+            return a == null ? b == null : a.equals(b);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
 }
@@ -29,6 +29,8 @@ import org.greenrobot.eventbus.EventBus;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
@@ -50,7 +52,6 @@ import de.danoeh.antennapod.model.feed.FeedItem;
 import de.danoeh.antennapod.model.feed.FeedMedia;
 import de.danoeh.antennapod.net.sync.gpoddernet.GpodnetService;
 import de.danoeh.antennapod.net.sync.model.EpisodeAction;
-import de.danoeh.antennapod.net.sync.model.EpisodeActionChanges;
 import de.danoeh.antennapod.net.sync.model.ISyncService;
 import de.danoeh.antennapod.net.sync.model.SubscriptionChanges;
 import de.danoeh.antennapod.net.sync.model.SyncServiceException;
@@ -209,10 +210,10 @@ public class SyncService extends Worker {
     private void syncEpisodeActions(ISyncService syncServiceImpl) throws SyncServiceException {
         final long lastSync = SynchronizationSettings.getLastEpisodeActionSynchronizationTimestamp();
         EventBus.getDefault().postSticky(new SyncServiceEvent(R.string.sync_status_episodes_download));
-        EpisodeActionChanges getResponse = syncServiceImpl.getEpisodeActionChanges(lastSync);
-        long newTimeStamp = getResponse.getTimestamp();
-        List<EpisodeAction> remoteActions = getResponse.getEpisodeActions();
-        processEpisodeActions(remoteActions);
+        List<EpisodeAction> localActions = synchronizationQueueStorage.getQueuedEpisodeActions();
+        Map<Pair<String, String>, Date> appliedTimestamps = new HashMap<>();
+        long newTimeStamp = syncServiceImpl.getEpisodeActionChanges(lastSync,
+                remoteActions -> processEpisodeActions(remoteActions, localActions, appliedTimestamps));
 
         // upload local actions
         EventBus.getDefault().postSticky(new SyncServiceEvent(R.string.sync_status_episodes_upload));
@@ -252,15 +253,22 @@ public class SyncService extends Worker {
         SynchronizationSettings.setLastEpisodeActionSynchronizationAttemptTimestamp(newTimeStamp);
     }
 
-    private synchronized void processEpisodeActions(List<EpisodeAction> remoteActions) {
+    /**
+     * Applies one batch of remote actions.
+     *
+     * @param appliedTimestamps Timestamps of the actions applied by previous batches of the same response,
+     *                          so that an older action in a later batch does not override them.
+     */
+    private synchronized void processEpisodeActions(List<EpisodeAction> remoteActions,
+                                                    List<EpisodeAction> localActions,
+                                                    Map<Pair<String, String>, Date> appliedTimestamps) {
         Log.d(TAG, "Processing " + remoteActions.size() + " actions");
         if (remoteActions.size() == 0) {
             return;
         }
 
         Map<Pair<String, String>, EpisodeAction> playActionsToUpdate = EpisodeActionFilter
-                .getRemoteActionsOverridingLocalActions(remoteActions,
-                        synchronizationQueueStorage.getQueuedEpisodeActions());
+                .getRemoteActionsOverridingLocalActions(remoteActions, localActions, appliedTimestamps);
         LongList queueToBeRemoved = new LongList();
         List<FeedItem> updatedItems = new ArrayList<>();
         for (EpisodeAction action : playActionsToUpdate.values()) {
@@ -10,6 +10,7 @@ import java.util.ArrayList;
 
 import de.danoeh.antennapod.core.sync.SynchronizationSettings;
 import de.danoeh.antennapod.net.sync.model.EpisodeAction;
+import de.danoeh.antennapod.net.sync.model.UtcTimestampParser;
 
 public class SynchronizationQueueStorage {
 
@@ -29,8 +30,9 @@ public class SynchronizationQueueStorage {
             String json = getSharedPreferences()
                     .getString(QUEUED_EPISODE_ACTIONS, "[]");
             JSONArray queue = new JSONArray(json);
+            UtcTimestampParser timestampParser = new UtcTimestampParser();
             for (int i = 0; i < queue.length(); i++) {
-                actions.add(EpisodeAction.readFromJsonObject(queue.getJSONObject(i)));
+                actions.add(EpisodeAction.readFromJsonObject(queue.getJSONObject(i), timestampParser));
             }
         } catch (JSONException e) {
             e.printStackTrace();
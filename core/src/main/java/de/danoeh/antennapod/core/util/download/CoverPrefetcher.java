@@ -0,0 +1,130 @@
+package de.danoeh.antennapod.core.util.download;
+
+import android.content.Context;
+import android.text.TextUtils;
+import android.util.Log;
+
+import androidx.annotation.Nullable;
+import com.bumptech.glide.Glide;
+import com.bumptech.glide.Priority;
+import com.bumptech.glide.request.RequestOptions;
+
+import java.io.File;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import de.danoeh.antennapod.core.util.NetworkUtils;
+import de.danoeh.antennapod.model.feed.Feed;
+import de.danoeh.antennapod.model.feed.FeedItem;
+
+/**
+ * Downloads cover images of new subscriptions and episodes into Glide's disk cache after a refresh,
+ * so that the lists do not need to fetch them from the network while scrolling.
+ * Only runs on unmetered networks and stays within a count and size budget.
+ */
+public class CoverPrefetcher {
+    private static final String TAG = "CoverPrefetcher";
+    private static final int MAX_IMAGES = 100;
+    private static final long MAX_BYTES = 20 * 1024 * 1024;
+    private static final int TIMEOUT_SECONDS = 30;
+
+    private final Context context;
+    private final Set<String> urls = new LinkedHashSet<>();
+
+    public interface StopCondition {
+        boolean isStopped();
+    }
+
+    public CoverPrefetcher(Context context) {
+        this.context = context.getApplicationContext();
+    }
+
+    /**
+     * Adds the cover of the feed and the images of its new episodes.
+     */
+    public synchronized void addFeed(@Nullable Feed feed) {
+        if (feed == null) {
+            return;
+        }
+        addUrl(feed.getImageUrl());
+        if (feed.getItems() == null) {
+            return;
+        }
+        for (FeedItem item : feed.getItems()) {
+            if (item.isNew()) {
+                addUrl(item.getImageUrl());
+            }
+        }
+    }
+
+    public synchronized void addUrl(@Nullable String url) {
+        if (!TextUtils.isEmpty(url) && url.startsWith("http")) {
+            urls.add(url);
+        }
+    }
+
+    /**
+     * Blocks until the images are downloaded. Must not be called on the main thread.
+     *
+     * @param stopCondition Checked before each image, so that a cancelled worker does not wait for the rest
+     */
+    public synchronized void run(StopCondition stopCondition) {
+        if (urls.isEmpty()) {
+            return;
+        } else if (!NetworkUtils.networkAvailable() || NetworkUtils.isNetworkRestricted()) {
+            Log.d(TAG, "Not prefetching " + urls.size() + " covers on a metered network");
+            return;
+        }
+        int downloaded = 0;
+        long bytes = 0;
+        for (String url : urls) {
+            if (stopCondition.isStopped()) {
+                Log.d(TAG, "Prefetch stopped");
+                break;
+            } else if (downloaded >= MAX_IMAGES || bytes >= MAX_BYTES) {
+                Log.d(TAG, "Prefetch budget exhausted");
+                break;
+            } else if (isCached(url)) {
+                continue;
+            }
+            try {
+                File file = Glide.with(context)
+                        .downloadOnly()
+                        .load(url)
+                        .priority(Priority.LOW)
+                        .submit()
+                        .get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+                bytes += file.length();
+                downloaded++;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                Log.d(TAG, "Unable to prefetch " + url + ": " + e.getMessage());
+            }
+        }
+        Log.d(TAG, "Prefetched " + downloaded + " covers, " + bytes / 1024 + " kB");
+        urls.clear();
+    }
+
+    private boolean isCached(String url) {
+        try {
+            Glide.with(context)
+                    .downloadOnly()
+                    .load(url)
+                    .apply(new RequestOptions().onlyRetrieveFromCache(true).priority(Priority.LOW))
+                    .submit()
+                    .get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            return true;
+        } catch (ExecutionException e) {
+            return false; // Not in cache
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return true;
+        } catch (Exception e) {
+            return true; // Do not try to download either
+        }
+    }
+}
@@ -19,14 +19,18 @@ import de.danoeh.antennapod.core.util.NetworkUtils;
 import de.danoeh.antennapod.model.feed.Feed;
 import de.danoeh.antennapod.storage.preferences.UserPreferences;
 
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 public class FeedUpdateManager {
     public static final String WORK_TAG_FEED_UPDATE = "feedUpdate";
     private static final String WORK_ID_FEED_UPDATE = "de.danoeh.antennapod.core.service.FeedUpdateWorker";
     private static final String WORK_ID_FEED_UPDATE_MANUAL = "feedUpdateManual";
+    private static final String WORK_ID_FEED_UPDATE_NEW_SUBSCRIPTIONS = "feedUpdateNewSubscriptions";
     public static final String EXTRA_FEED_ID = "feed_id";
     public static final String EXTRA_NEXT_PAGE = "next_page";
+    public static final String EXTRA_FEED_IDS = "feed_ids";
+    private static final int MAX_FEED_IDS = 1000; // Work input data is limited to 10 kB
     private static final String TAG = "AutoUpdateManager";
 
     private FeedUpdateManager() {
@@ -73,6 +77,31 @@ public class FeedUpdateManager {
                 ExistingWorkPolicy.REPLACE, workRequest.build());
     }
 
+    /**
+     * Fetches the given feeds, several at the same time. Intended for the first refresh of new subscriptions,
+     * so that they show their episodes soon, without waiting for all other subscriptions.
+     */
+    public static void runOnce(Context context, List<Feed> feeds) {
+        if (feeds.isEmpty()) {
+            return;
+        } else if (feeds.size() > MAX_FEED_IDS) {
+            runOnce(context);
+            return;
+        }
+        long[] feedIds = new long[feeds.size()];
+        for (int i = 0; i < feeds.size(); i++) {
+            feedIds[i] = feeds.get(i).getId();
+        }
+        OneTimeWorkRequest workRequest = new OneTimeWorkRequest.Builder(FeedUpdateWorker.class)
+                .setInitialDelay(0L, TimeUnit.MILLISECONDS)
+                .setExpedited(OutOfQuotaPolicy.RUN_AS_NON_EXPEDITED_WORK_REQUEST)
+                .addTag(WORK_TAG_FEED_UPDATE)
+                .setInputData(new Data.Builder().putLongArray(EXTRA_FEED_IDS, feedIds).build())
+                .build();
+        WorkManager.getInstance(context).enqueueUniqueWork(WORK_ID_FEED_UPDATE_NEW_SUBSCRIPTIONS,
+                ExistingWorkPolicy.APPEND_OR_REPLACE, workRequest);
+    }
+
     public static void runOnceOrAsk(@NonNull Context context) {
         Log.d(TAG, "Run auto update immediately in background.");
         if (!NetworkUtils.networkAvailable()) {
@@ -0,0 +1,77 @@
+package de.danoeh.antennapod.core.util.gui;
+
+import android.content.Context;
+import android.util.Log;
+import android.util.LruCache;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.WorkerThread;
+
+import java.util.List;
+
+import de.danoeh.antennapod.core.storage.DBReader;
+import de.danoeh.antennapod.model.feed.FeedItem;
+
+/**
+ * Keeps the output of {@link ShownotesCleaner} in memory, so that opening an episode again
+ * or swiping back in the pager does not parse and process the whole description another time.
+ * Bounded by the total length of the cached HTML.
+ */
+public class ShownotesCache {
+    private static final String TAG = "ShownotesCache";
+    private static final int MAX_CHARS = 2 * 1024 * 1024;
+    private static final int MAX_PRECOMPUTE_ITEMS = 10;
+
+    private static final LruCache<String, String> cache = new LruCache<String, String>(MAX_CHARS) {
+        @Override
+        protected int sizeOf(String key, String value) {
+            return value.length();
+        }
+    };
+
+    private ShownotesCache() {
+    }
+
+    /**
+     * Returns the processed shownotes of the item, processing them only if they are not cached yet.
+     *
+     * @param context A themed context, the colors of the style depend on it.
+     */
+    @NonNull
+    @WorkerThread
+    public static String getProcessedShownotes(Context context, long itemId,
+                                               @Nullable String rawShownotes, int playableDuration) {
+        ShownotesCleaner cleaner = new ShownotesCleaner(context, rawShownotes, playableDuration);
+        String key = cleaner.getCacheKey(itemId);
+        String processed = cache.get(key);
+        if (processed == null) {
+            processed = cleaner.processShownotes();
+            cache.put(key, processed);
+        }
+        return processed;
+    }
+
+    /**
+     * Processes the shownotes of the first items in the list, so that they open without delay.
+     *
+     * @param context A themed context, the colors of the style depend on it.
+     */
+    @WorkerThread
+    public static void precompute(Context context, List<FeedItem> items) {
+        int count = Math.min(items.size(), MAX_PRECOMPUTE_ITEMS);
+        for (int i = 0; i < count; i++) {
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+            FeedItem item = DBReader.getFeedItem(items.get(i).getId());
+            if (item == null) {
+                continue;
+            }
+            DBReader.loadDescriptionOfFeedItem(item);
+            int duration = item.getMedia() != null ? item.getMedia().getDuration() : Integer.MAX_VALUE;
+            getProcessedShownotes(context, item.getId(), item.getDescription(), duration);
+        }
+        Log.d(TAG, "Precomputed shownotes of " + count + " items");
+    }
+}
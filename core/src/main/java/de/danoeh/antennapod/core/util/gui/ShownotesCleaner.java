@@ -40,6 +40,8 @@ public class ShownotesCleaner {
     private static final String CSS_COLOR = "(?<=(\\s|;|^))color\\s*:([^;])*;";
     private static final String CSS_COMMENT = "/\\*.*?\\*/";
 
+    private static String styleTemplate;
+
     private final String rawShownotes;
     private final String noShownotesLabel;
     private final int playableDuration;
@@ -54,17 +56,32 @@ public class ShownotesCleaner {
         final String colorAccent = colorToHtml(context, R.attr.colorAccent);
         final int margin = (int) TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP, 8,
                 context.getResources().getDisplayMetrics());
-        String styleString = "";
-        try {
-            InputStream templateStream = context.getAssets().open("shownotes-style.css");
-            styleString = IOUtils.toString(templateStream, "UTF-8");
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
-        webviewStyle = String.format(Locale.US, styleString, colorPrimary, colorAccent,
+        webviewStyle = String.format(Locale.US, getStyleTemplate(context), colorPrimary, colorAccent,
                 margin, margin, margin, margin);
     }
 
+    private static synchronized String getStyleTemplate(Context context) {
+        if (styleTemplate == null) {
+            try (InputStream templateStream = context.getAssets().open("shownotes-style.css")) {
+                styleTemplate = IOUtils.toString(templateStream, "UTF-8");
+            } catch (IOException e) {
+                e.printStackTrace();
+                return "";
+            }
+        }
+        return styleTemplate;
+    }
+
+    /**
+     * Identifies the output of {@link #processShownotes()}: the same key means the same processed HTML.
+     * The style covers the theme, so switching between light and dark does not return stale colors.
+     */
+    String getCacheKey(long itemId) {
+        return itemId + ":" + (rawShownotes == null ? 0 : rawShownotes.length()) + ":"
+                + (rawShownotes == null ? 0 : rawShownotes.hashCode()) + ":" + playableDuration + ":"
+                + webviewStyle.hashCode() + ":" + noShownotesLabel.hashCode();
+    }
+
     private String colorToHtml(Context context, int colorAttr) {
         TypedArray res = context.getTheme().obtainStyledAttributes(new int[]{colorAttr});
         @ColorInt int col = res.getColor(0, 0);
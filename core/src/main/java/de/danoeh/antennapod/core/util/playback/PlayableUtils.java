@@ -25,11 +25,12 @@ public abstract class PlayableUtils {
             if (item != null && item.isNew()) {
                 DBWriter.markItemPlayed(FeedItem.UNPLAYED, item.getId());
             }
+            int playedDurationBefore = media.getPlayedDuration();
             if (media.getStartPosition() >= 0 && playable.getPosition() > media.getStartPosition()) {
                 media.setPlayedDuration(media.getPlayedDurationWhenStarted()
                         + playable.getPosition() - media.getStartPosition());
             }
-            DBWriter.setFeedMediaPlaybackInformation(media);
+            DBWriter.setFeedMediaPlaybackInformation(media, media.getPlayedDuration() - playedDurationBefore);
         }
     }
 }
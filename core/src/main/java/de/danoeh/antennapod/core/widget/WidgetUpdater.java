@@ -7,6 +7,8 @@ import android.content.Context;
 import android.content.SharedPreferences;
 import android.graphics.Bitmap;
 import android.os.Bundle;
+import android.os.SystemClock;
+import android.text.TextUtils;
 import android.util.Log;
 import android.view.KeyEvent;
 import android.view.View;
@@ -59,14 +61,63 @@ public abstract class WidgetUpdater {
         }
     }
 
+    /**
+     * The widget host does not keep partial updates when it restarts,
+     * so the full view is sent again from time to time.
+     */
+    private static final long FULL_UPDATE_INTERVAL_MS = 60 * 1000;
+
+    private static String coverKey;
+    private static Bitmap cover;
+
+    private static int[] lastWidgetIds;
+    private static String lastMediaId;
+    private static boolean lastPlaying;
+    private static String lastProgress;
+    private static long lastFullUpdate;
+
     /**
      * Update the widgets with the given parameters. Must be called in a background thread.
+     * Only the progress is sent if nothing else changed since the last update.
      */
     public static void updateWidget(Context context, WidgetState widgetState) {
+        updateWidget(context, widgetState, false);
+    }
+
+    /**
+     * Update the widgets with the given parameters. Must be called in a background thread.
+     *
+     * @param forceFullUpdate Send the full view, for example because the widgets or their settings changed
+     */
+    public static synchronized void updateWidget(Context context, WidgetState widgetState, boolean forceFullUpdate) {
         if (!PlayerWidget.isEnabled(context) || widgetState == null) {
             return;
         }
 
+        String mediaId = widgetState.media != null ? String.valueOf(widgetState.media.getIdentifier()) : null;
+        boolean playing = widgetState.status == PlayerStatus.PLAYING;
+        String progressString = widgetState.media != null ? getProgressString(widgetState.position,
+                widgetState.duration, widgetState.playbackSpeed) : null;
+        long now = SystemClock.elapsedRealtime();
+        boolean onlyProgressChanged = !forceFullUpdate
+                && lastWidgetIds != null
+                && TextUtils.equals(mediaId, lastMediaId)
+                && playing == lastPlaying
+                && now - lastFullUpdate < FULL_UPDATE_INTERVAL_MS;
+        if (onlyProgressChanged && TextUtils.equals(progressString, lastProgress)) {
+            return;
+        } else if (onlyProgressChanged && progressString != null) {
+            RemoteViews views = new RemoteViews(context.getPackageName(), R.layout.player_widget);
+            views.setViewVisibility(R.id.txtvProgress, View.VISIBLE);
+            views.setTextViewText(R.id.txtvProgress, progressString);
+            AppWidgetManager manager = AppWidgetManager.getInstance(context);
+            for (int id : lastWidgetIds) {
+                manager.partiallyUpdateAppWidget(id, views);
+            }
+            lastProgress = progressString;
+            return;
+        }
+
         PendingIntent startMediaPlayer;
         if (widgetState.media != null && widgetState.media.getMediaType() == MediaType.VIDEO) {
             startMediaPlayer = new VideoPlayerActivityStarter(context).getPendingIntent();
@@ -80,46 +131,21 @@ public abstract class WidgetUpdater {
         views = new RemoteViews(context.getPackageName(), R.layout.player_widget);
 
         if (widgetState.media != null) {
-            Bitmap icon;
-            int iconSize = context.getResources().getDimensionPixelSize(android.R.dimen.app_icon_size);
             views.setOnClickPendingIntent(R.id.layout_left, startMediaPlayer);
             views.setOnClickPendingIntent(R.id.imgvCover, startMediaPlayer);
             views.setOnClickPendingIntent(R.id.butPlaybackSpeed, startPlaybackSpeedDialog);
 
-            int radius = context.getResources().getDimensionPixelSize(R.dimen.widget_inner_radius);
-            RequestOptions options = new RequestOptions()
-                    .dontAnimate()
-                    .transform(new FitCenter(), new RoundedCorners(radius));
-
-            try {
-                icon = Glide.with(context)
-                        .asBitmap()
-                        .load(widgetState.media.getImageLocation())
-                        .apply(options)
-                        .submit(iconSize, iconSize)
-                        .get(500, TimeUnit.MILLISECONDS);
+            Bitmap icon = getCover(context, widgetState.media);
+            if (icon != null) {
                 views.setImageViewBitmap(R.id.imgvCover, icon);
-            } catch (Throwable tr1) {
-                try {
-                    icon = Glide.with(context)
-                            .asBitmap()
-                            .load(ImageResourceUtils.getFallbackImageLocation(widgetState.media))
-                            .apply(options)
-                            .submit(iconSize, iconSize)
-                            .get(500, TimeUnit.MILLISECONDS);
-                    views.setImageViewBitmap(R.id.imgvCover, icon);
-                } catch (Throwable tr2) {
-                    Log.e(TAG, "Error loading the media icon for the widget", tr2);
-                    views.setImageViewResource(R.id.imgvCover, R.mipmap.ic_launcher);
-                }
+            } else {
+                views.setImageViewResource(R.id.imgvCover, R.mipmap.ic_launcher);
             }
 
             views.setTextViewText(R.id.txtvTitle, widgetState.media.getEpisodeTitle());
             views.setViewVisibility(R.id.txtvTitle, View.VISIBLE);
             views.setViewVisibility(R.id.txtNoPlaying, View.GONE);
 
-            String progressString = getProgressString(widgetState.position,
-                    widgetState.duration, widgetState.playbackSpeed);
             if (progressString != null) {
                 views.setViewVisibility(R.id.txtvProgress, View.VISIBLE);
                 views.setTextViewText(R.id.txtvProgress, progressString);
@@ -196,6 +222,55 @@ public abstract class WidgetUpdater {
 
             manager.updateAppWidget(id, views);
         }
+
+        lastWidgetIds = widgetIds;
+        lastMediaId = mediaId;
+        lastPlaying = playing;
+        lastProgress = progressString;
+        lastFullUpdate = now;
+    }
+
+    /**
+     * Loads the cover with Glide, unless it is the same as in the previous update.
+     *
+     * @return The cover, or null if neither the cover nor the fallback image could be loaded
+     */
+    private static Bitmap getCover(Context context, Playable media) {
+        String key = media.getIdentifier() + "|" + media.getImageLocation();
+        if (key.equals(coverKey)) {
+            return cover;
+        }
+
+        int iconSize = context.getResources().getDimensionPixelSize(android.R.dimen.app_icon_size);
+        int radius = context.getResources().getDimensionPixelSize(R.dimen.widget_inner_radius);
+        RequestOptions options = new RequestOptions()
+                .dontAnimate()
+                .transform(new FitCenter(), new RoundedCorners(radius));
+
+        try {
+            Bitmap icon = Glide.with(context)
+                    .asBitmap()
+                    .load(media.getImageLocation())
+                    .apply(options)
+                    .submit(iconSize, iconSize)
+                    .get(500, TimeUnit.MILLISECONDS);
+            coverKey = key;
+            cover = icon;
+            return icon;
+        } catch (Throwable tr1) {
+            // Not cached, so that the next update tries the real cover again
+            try {
+                return Glide.with(context)
+                        .asBitmap()
+                        .load(ImageResourceUtils.getFallbackImageLocation(media))
+                        .apply(options)
+                        .submit(iconSize, iconSize)
+                        .get(500, TimeUnit.MILLISECONDS);
+            } catch (Throwable tr2) {
+                Log.e(TAG, "Error loading the media icon for the widget", tr2);
+                return null;
+            }
+        }
     }
 
     /**
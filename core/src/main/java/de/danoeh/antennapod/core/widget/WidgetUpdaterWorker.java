@@ -48,10 +48,10 @@ public class WidgetUpdaterWorker extends Worker {
             WidgetUpdater.updateWidget(getApplicationContext(),
                     new WidgetUpdater.WidgetState(media, PlayerStatus.STOPPED,
                             media.getPosition(), media.getDuration(),
-                            PlaybackSpeedUtils.getCurrentPlaybackSpeed(media)));
+                            PlaybackSpeedUtils.getCurrentPlaybackSpeed(media)), true);
         } else {
             WidgetUpdater.updateWidget(getApplicationContext(),
-                    new WidgetUpdater.WidgetState(PlayerStatus.STOPPED));
+                    new WidgetUpdater.WidgetState(PlayerStatus.STOPPED), true);
         }
     }
 }
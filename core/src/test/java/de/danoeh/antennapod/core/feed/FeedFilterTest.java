@@ -7,6 +7,11 @@ import de.danoeh.antennapod.model.feed.FeedMedia;
 
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
@@ -156,4 +161,61 @@ public class FeedFilterTest {
         assertTrue(filter.shouldAutoDownload(download2));
     }
 
+    @Test
+    public void testManyItemsAndTerms() {
+        Random random = new Random(42);
+        String[] words = {"news", "weekly", "interview", "bonus", "live", "q&a", "trailer", "rerun", "special",
+            "recap", "part", "episode", "highlights", "extra", "behind", "scenes", "review", "preview"};
+        List<String> includeTerms = new ArrayList<>();
+        List<String> excludeTerms = new ArrayList<>();
+        StringBuilder includeFilter = new StringBuilder();
+        StringBuilder excludeFilter = new StringBuilder();
+        for (int i = 0; i < 30; i++) {
+            String term = words[random.nextInt(words.length)] + (i % 3 == 0 ? " " + i : "");
+            includeTerms.add(term);
+            includeFilter.append('"').append(term.toUpperCase(Locale.US)).append("\" ");
+            String excluded = words[random.nextInt(words.length)] + i;
+            excludeTerms.add(excluded);
+            excludeFilter.append(excluded).append(' ');
+        }
+        FeedFilter filter = new FeedFilter(includeFilter.toString(), excludeFilter.toString());
+
+        List<FeedItem> items = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            StringBuilder title = new StringBuilder();
+            for (int j = 0; j < 8; j++) {
+                title.append(words[random.nextInt(words.length)]).append(random.nextInt(40)).append(' ');
+            }
+            FeedItem item = new FeedItem();
+            item.setTitle(title.toString());
+            items.add(item);
+        }
+
+        int downloads = 0;
+        for (FeedItem item : items) {
+            boolean expected = shouldAutoDownloadReference(item.getTitle(), includeTerms, excludeTerms);
+            assertEquals(item.getTitle(), expected, filter.shouldAutoDownload(item));
+            if (expected) {
+                downloads++;
+            }
+        }
+        // Both outcomes are covered
+        assertTrue(downloads > 0);
+        assertTrue(downloads < items.size());
+    }
+
+    private static boolean shouldAutoDownloadReference(String title, List<String> include, List<String> exclude) {
+        String lowerCaseTitle = title.toLowerCase(Locale.getDefault());
+        for (String term : exclude) {
+            if (lowerCaseTitle.contains(term.toLowerCase(Locale.getDefault()))) {
+                return false;
+            }
+        }
+        for (String term : include) {
+            if (lowerCaseTitle.contains(term.toLowerCase(Locale.getDefault()))) {
+                return true;
+            }
+        }
+        return false;
+    }
 }
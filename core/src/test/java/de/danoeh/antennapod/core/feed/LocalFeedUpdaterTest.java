@@ -179,6 +179,26 @@ public class LocalFeedUpdaterTest {
         assertEquals("track1.mp3", feedItems.get(0).getTitle());
     }
 
+    /**
+     * Test that rescanning a folder keeps the items of unchanged files.
+     */
+    @Test
+    public void testUpdateFeed_RescanUnchangedFiles() {
+        callUpdateFeed(LOCAL_FEED_DIR1);
+        Feed feed = verifySingleFeedInDatabase();
+        FeedItem itemBefore = DBReader.getFeedItemList(feed).get(0);
+        assertEquals(new File(LOCAL_FEED_DIR1, "track1.mp3").lastModified(),
+                itemBefore.getMedia().getLastModified());
+
+        callUpdateFeed(LOCAL_FEED_DIR1);
+
+        verifySingleFeedInDatabaseAndItemCount(1);
+        FeedItem itemAfter = DBReader.getFeedItemList(feed).get(0);
+        assertEquals(itemBefore.getId(), itemAfter.getId());
+        assertEquals(itemBefore.getTitle(), itemAfter.getTitle());
+        assertEquals(itemBefore.getMedia().getLastModified(), itemAfter.getMedia().getLastModified());
+    }
+
     @Test
     public void testGetImageUrl_EmptyFolder() {
         String imageUrl = LocalFeedUpdater.getImageUrl(Collections.emptyList(), Uri.EMPTY);
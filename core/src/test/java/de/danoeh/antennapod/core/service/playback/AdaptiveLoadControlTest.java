@@ -0,0 +1,54 @@
+package de.danoeh.antennapod.core.service.playback;
+
+import org.junit.Test;
+
+import static de.danoeh.antennapod.core.service.playback.AdaptiveLoadControl.choose;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class AdaptiveLoadControlTest {
+    private static final int BITRATE = 128000;
+    private static final long FAST = 10 * BITRATE;
+    private static final long SLOW = BITRATE + BITRATE / 2;
+
+    @Test
+    public void testLocalFileUsesSmallBuffer() {
+        AdaptiveLoadControl.Buffers buffers = choose(false, true, SLOW, BITRATE, 3);
+        assertEquals(AdaptiveLoadControl.LOCAL_MIN_BUFFER_MS, buffers.minBufferMs);
+        assertEquals(AdaptiveLoadControl.LOCAL_MAX_BUFFER_MS, buffers.maxBufferMs);
+    }
+
+    @Test
+    public void testRestrictedNetworkLoadsLessAhead() {
+        AdaptiveLoadControl.Buffers unrestricted = choose(true, false, FAST, BITRATE, 0);
+        AdaptiveLoadControl.Buffers restricted = choose(true, true, FAST, BITRATE, 0);
+        assertEquals(AdaptiveLoadControl.UNRESTRICTED_MIN_BUFFER_MS, unrestricted.minBufferMs);
+        assertEquals(AdaptiveLoadControl.UNRESTRICTED_MAX_BUFFER_MS, unrestricted.maxBufferMs);
+        assertTrue(restricted.maxBufferMs < unrestricted.maxBufferMs);
+    }
+
+    @Test
+    public void testSlowConnectionKeepsLoading() {
+        AdaptiveLoadControl.Buffers buffers = choose(true, true, SLOW, BITRATE, 0);
+        assertEquals(AdaptiveLoadControl.SLOW_BUFFER_MS, buffers.minBufferMs);
+        assertEquals(buffers.minBufferMs, buffers.maxBufferMs);
+    }
+
+    @Test
+    public void testUnknownThroughputIsNotSlow() {
+        AdaptiveLoadControl.Buffers buffers = choose(true, false, 0, BITRATE, 0);
+        assertEquals(AdaptiveLoadControl.UNRESTRICTED_MIN_BUFFER_MS, buffers.minBufferMs);
+    }
+
+    @Test
+    public void testRebuffersGrowBufferUpToLimit() {
+        AdaptiveLoadControl.Buffers buffers = choose(true, false, FAST, BITRATE, 2);
+        assertEquals(AdaptiveLoadControl.UNRESTRICTED_MIN_BUFFER_MS
+                + 2 * AdaptiveLoadControl.REBUFFER_STEP_MS, buffers.minBufferMs);
+        assertTrue(buffers.maxBufferMs >= buffers.minBufferMs);
+
+        buffers = choose(true, false, SLOW, BITRATE, 100);
+        assertEquals(AdaptiveLoadControl.MAX_BUFFER_MS, buffers.minBufferMs);
+        assertEquals(AdaptiveLoadControl.MAX_BUFFER_MS, buffers.maxBufferMs);
+    }
+}
@@ -0,0 +1,141 @@
+package de.danoeh.antennapod.core.storage;
+
+import android.content.Context;
+import android.database.Cursor;
+
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+import de.danoeh.antennapod.model.feed.Feed;
+import de.danoeh.antennapod.model.feed.FeedItem;
+import de.danoeh.antennapod.model.feed.FeedItemFilter;
+import de.danoeh.antennapod.model.feed.SortOrder;
+import de.danoeh.antennapod.storage.database.PodDBAdapter;
+import de.danoeh.antennapod.storage.preferences.UserPreferences;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import static de.danoeh.antennapod.core.storage.DbTestUtils.saveFeedlist;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
+
+/**
+ * Runs EXPLAIN QUERY PLAN over the queries that look up single items or pages of items
+ * and fails if one of them reads a whole large table. Queries that summarize the whole
+ * library (statistics, counters of all feeds, search) are expected to scan and not checked here.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class DbQueryPlanTest {
+    private static final Pattern FULL_SCAN = Pattern.compile(
+            "^SCAN (TABLE )?(" + PodDBAdapter.TABLE_NAME_FEED_ITEMS + "|" + PodDBAdapter.TABLE_NAME_FEED_MEDIA
+                    + "|" + PodDBAdapter.TABLE_NAME_SIMPLECHAPTERS + "|" + PodDBAdapter.TABLE_NAME_DESCRIPTIONS
+                    + ")\\b(?!.*\\bUSING\\b).*");
+
+    private Feed feed;
+    private FeedItem item;
+
+    @Before
+    public void setUp() {
+        Context context = InstrumentationRegistry.getInstrumentation().getContext();
+        UserPreferences.init(context);
+
+        PodDBAdapter.init(context);
+        PodDBAdapter.deleteDatabase();
+
+        feed = saveFeedlist(2, 10, true).get(0);
+        item = feed.getItems().get(0);
+        PodDBAdapter adapter = PodDBAdapter.getInstance();
+        adapter.open();
+        adapter.setQueue(Collections.singletonList(item));
+        adapter.close();
+    }
+
+    @After
+    public void tearDown() {
+        PodDBAdapter.setQueryObserver(null);
+        PodDBAdapter.tearDownTests();
+        DBWriter.tearDownTests();
+    }
+
+    @Test
+    public void testItemLookupsUseIndexes() {
+        assertNoFullScans(() -> DBReader.getFeedItem(item.getId()));
+        assertNoFullScans(() -> DBReader.getFeedItemByGuidOrEpisodeUrl(item.getItemIdentifier(), "url0"));
+        assertNoFullScans(() -> DBReader.getFeedItemByGuidOrEpisodeUrl(null, "url0"));
+        assertNoFullScans(() -> DBReader.getFeedItemsWithUrl(Collections.singletonList("url0")));
+        assertNoFullScans(() -> DBReader.getFeedMedia(item.getMedia().getId()));
+        assertNoFullScans(() -> DBReader.loadDescriptionOfFeedItem(item));
+        assertNoFullScans(() -> DBReader.loadChaptersOfFeedItem(item));
+        assertNoFullScans(() -> DBReader.getImageAuthentication("http://example.com/image.png"));
+    }
+
+    @Test
+    public void testListsUseIndexes() {
+        assertNoFullScans(() -> DBReader.getQueue());
+        assertNoFullScans(() -> DBReader.getNextInQueue(item));
+        assertNoFullScans(() -> DBReader.getPausedQueue(10));
+        assertNoFullScans(() -> DBReader.getPlaybackHistory(0, 10));
+        assertNoFullScans(() -> DBReader.getFeedItemList(feed, FeedItemFilter.unfiltered()));
+        assertNoFullScans(() -> DBReader.getFeedItemList(feed, new FeedItemFilter(FeedItemFilter.UNPLAYED),
+                SortOrder.DATE_NEW_OLD, 0, 50));
+        assertNoFullScans(() -> DBReader.getFeedEpisodeCount(feed.getId(), FeedItemFilter.unfiltered()));
+        assertNoFullScans(() -> DBReader.getEpisodes(0, 50, FeedItemFilter.unfiltered(), SortOrder.DATE_NEW_OLD));
+        assertNoFullScans(() -> DBReader.getEpisodes(0, 50, new FeedItemFilter(FeedItemFilter.DOWNLOADED),
+                SortOrder.DATE_NEW_OLD));
+        assertNoFullScans(() -> DBReader.getTotalEpisodeCount(new FeedItemFilter(FeedItemFilter.DOWNLOADED)));
+        assertNoFullScans(() -> DBReader.getTotalEpisodeCount(new FeedItemFilter(FeedItemFilter.QUEUED)));
+    }
+
+    @Test
+    public void testMediaBrowserPagesUseIndexes() {
+        assertNoFullScans(() -> runQuery(adapter -> adapter.getMediaBrowserQueueCursor(0, 50)));
+        assertNoFullScans(() -> runQuery(adapter -> adapter.getMediaBrowserItemsCursor(feed.getId(),
+                FeedItemFilter.unfiltered(), null, 0, 50)));
+        assertNoFullScans(() -> runQuery(adapter -> adapter.getMediaBrowserItemsCursor(0,
+                new FeedItemFilter(FeedItemFilter.DOWNLOADED), SortOrder.DATE_NEW_OLD, 50, 50)));
+    }
+
+    private void runQuery(Function<PodDBAdapter, Cursor> query) {
+        PodDBAdapter adapter = PodDBAdapter.getInstance();
+        adapter.open();
+        try (Cursor cursor = query.apply(adapter)) {
+            cursor.getCount();
+        } finally {
+            adapter.close();
+        }
+    }
+
+    private void assertNoFullScans(Runnable call) {
+        List<String> queries = new ArrayList<>();
+        PodDBAdapter.setQueryObserver(queries::add);
+        try {
+            call.run();
+        } finally {
+            PodDBAdapter.setQueryObserver(null);
+        }
+        assertFalse("No query was run", queries.isEmpty());
+
+        PodDBAdapter adapter = PodDBAdapter.getInstance();
+        adapter.open();
+        try {
+            for (String query : queries) {
+                List<String> plan = adapter.explainQueryPlan(query);
+                for (String step : plan) {
+                    if (FULL_SCAN.matcher(step).matches()) {
+                        fail("Full table scan: " + step + "\nQuery: " + query + "\nPlan: " + plan);
+                    }
+                }
+            }
+        } finally {
+            adapter.close();
+        }
+    }
+}
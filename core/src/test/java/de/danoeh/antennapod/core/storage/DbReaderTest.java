@@ -1,6 +1,7 @@
 package de.danoeh.antennapod.core.storage;
 
 import android.content.Context;
+import android.database.Cursor;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -18,6 +19,7 @@ import de.danoeh.antennapod.model.feed.FeedMedia;
 import de.danoeh.antennapod.model.feed.SortOrder;
 import de.danoeh.antennapod.storage.preferences.UserPreferences;
 import de.danoeh.antennapod.core.util.LongList;
+import de.danoeh.antennapod.storage.database.DatabaseTimings;
 import de.danoeh.antennapod.storage.database.PodDBAdapter;
 import org.junit.After;
 import org.junit.Before;
@@ -155,6 +157,26 @@ public class DbReaderTest {
             }
         }
 
+        @Test
+        public void testGetFeedItemListPaged() {
+            final int numItems = 10;
+            final int pageSize = 4;
+            Feed feed = saveFeedlist(1, numItems, true).get(0);
+            List<FeedItem> loaded = new ArrayList<>();
+            List<FeedItem> page;
+            do {
+                page = DBReader.getFeedItemList(feed, FeedItemFilter.unfiltered(),
+                        SortOrder.EPISODE_TITLE_Z_A, loaded.size(), pageSize);
+                loaded.addAll(page);
+            } while (page.size() == pageSize);
+            assertEquals(numItems, loaded.size());
+            for (int i = 0; i < numItems; i++) {
+                assertEquals("item " + (numItems - 1 - i), loaded.get(i).getTitle());
+                assertNotNull(loaded.get(i).getMedia());
+            }
+            assertEquals(numItems, DBReader.getFeedEpisodeCount(feed.getId(), FeedItemFilter.unfiltered()));
+        }
+
         @SuppressWarnings("SameParameterValue")
         private List<FeedItem> saveQueue(int numItems) {
             if (numItems <= 0) {
@@ -426,6 +448,33 @@ public class DbReaderTest {
             assertEquals(item1.getChapters(), item2.getChapters());
         }
 
+        @Test
+        public void testLoadDescriptionOfFeedItem() {
+            List<Feed> feeds = saveFeedlist(1, 2, false);
+            FeedItem item1 = feeds.get(0).getItems().get(0);
+            String description = "<p>Show notes with a keyword</p>";
+            item1.setDescriptionIfLonger(description);
+            PodDBAdapter adapter = PodDBAdapter.getInstance();
+            adapter.open();
+            adapter.setSingleFeedItem(item1);
+            adapter.setSingleFeedItem(item1); // Unchanged, not written again
+            adapter.close();
+
+            FeedItem item2 = DBReader.getFeedItem(item1.getId());
+            assertNull(item2.getDescription());
+            DBReader.loadDescriptionOfFeedItem(item2);
+            assertEquals(description, item2.getDescription());
+
+            adapter.open();
+            try (Cursor cursor = adapter.searchItems(0, "KEYWORD show")) {
+                assertEquals(1, cursor.getCount());
+            }
+            try (Cursor cursor = adapter.searchItems(0, "<p>")) {
+                assertEquals(0, cursor.getCount()); // Markup is not searched
+            }
+            adapter.close();
+        }
+
         @Test
         public void testGetItemByEpisodeUrl() {
             List<Feed> feeds = saveFeedlist(1, 1, true);
@@ -445,6 +494,22 @@ public class DbReaderTest {
             assertEquals(item1.getItemIdentifier(), feedItemByGuid.getItemIdentifier());
         }
 
+        @Test
+        public void testDatabaseTimings() throws Exception {
+            saveFeedlist(1, 5, true);
+            DatabaseTimings.reset();
+            DatabaseTimings.setEnabled(true);
+            try {
+                DBReader.getQueue();
+                DBWriter.markItemPlayed(FeedItem.PLAYED, false).get();
+            } finally {
+                DatabaseTimings.setEnabled(false);
+            }
+            String report = DatabaseTimings.getReport();
+            assertTrue(report, report.contains("getQueueCursor: 1 times"));
+            assertTrue(report, report.contains("DBWriter.markItemPlayed"));
+        }
+
     }
 
     @RunWith(ParameterizedRobolectricTestRunner.class)
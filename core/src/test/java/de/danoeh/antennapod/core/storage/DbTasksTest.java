@@ -102,6 +102,33 @@ public class DbTasksTest {
         assertTrue(savedFeed1.getId() != savedFeed2.getId());
     }
 
+    @Test
+    public void testSubscribeToFeeds() {
+        Feed existing = new Feed("url0", null, "existing");
+        existing.setItems(new ArrayList<>());
+        DBTasks.updateFeed(context, existing, false);
+
+        List<Feed> feeds = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Feed feed = new Feed("url" + i, null, "title " + i);
+            feed.setItems(Collections.emptyList());
+            feeds.add(feed);
+        }
+        Feed duplicate = new Feed("url1", null, "duplicate");
+        duplicate.setItems(Collections.emptyList());
+        feeds.add(duplicate);
+
+        List<Feed> added = DBTasks.subscribeToFeeds(context, feeds);
+
+        assertEquals(2, added.size());
+        assertSame(feeds.get(1), added.get(0));
+        assertSame(feeds.get(2), added.get(1));
+        for (Feed feed : added) {
+            assertTrue(feed.getId() != 0);
+        }
+        assertEquals(3, DBReader.getFeedList().size());
+    }
+
     @Test
     public void testUpdateFeedUpdatedFeed() {
         final int numItemsOld = 10;
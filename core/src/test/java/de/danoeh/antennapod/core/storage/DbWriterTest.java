@@ -116,7 +116,7 @@ public class DbWriterTest {
         media.setLastPlayedTime(lastPlayedTime);
         media.setPlayedDuration(playedDuration);
 
-        DBWriter.setFeedMediaPlaybackInformation(item.getMedia()).get(TIMEOUT, TimeUnit.SECONDS);
+        DBWriter.setFeedMediaPlaybackInformation(item.getMedia(), 0).get(TIMEOUT, TimeUnit.SECONDS);
 
         FeedItem itemFromDb = DBReader.getFeedItem(item.getId());
         FeedMedia mediaFromDb = itemFromDb.getMedia();
@@ -127,6 +127,39 @@ public class DbWriterTest {
         assertEquals(duration, mediaFromDb.getDuration());
     }
 
+    @Test
+    public void testSetFeedMediaPlaybackInformationAddsStatistics() throws Exception {
+        Feed feed = new Feed("url", null, "title");
+        List<FeedItem> items = new ArrayList<>();
+        feed.setItems(items);
+        FeedItem item = new FeedItem(0, "Item", "Item", "url", new Date(), FeedItem.PLAYED, feed);
+        items.add(item);
+        FeedMedia media = new FeedMedia(0, item, 100000, 1, 1, "mime_type",
+                "dummy path", "download_url", true, null, 0, 0);
+        item.setMedia(media);
+        PodDBAdapter adapter = PodDBAdapter.getInstance();
+        adapter.open();
+        adapter.setCompleteFeed(feed);
+        adapter.close();
+
+        final long day = 24 * 3600 * 1000L;
+        media.setLastPlayedTime(10 * day);
+        DBWriter.setFeedMediaPlaybackInformation(media, 1000).get(TIMEOUT, TimeUnit.SECONDS);
+        DBWriter.setFeedMediaPlaybackInformation(media, 2000).get(TIMEOUT, TimeUnit.SECONDS);
+        media.setLastPlayedTime(40 * day);
+        DBWriter.setFeedMediaPlaybackInformation(media, 4000).get(TIMEOUT, TimeUnit.SECONDS);
+        DBWriter.setFeedMediaPlaybackInformation(media, -500).get(TIMEOUT, TimeUnit.SECONDS);
+
+        List<DBReader.MonthlyStatisticsItem> months = DBReader.getMonthlyTimeStatistics();
+        assertEquals(2, months.size());
+        assertEquals(3000, months.get(0).timePlayed);
+        assertEquals(4000, months.get(1).timePlayed);
+
+        assertEquals(7, DBReader.getStatistics(false, 0, Long.MAX_VALUE).feedTime.get(0).timePlayed);
+        assertEquals(4, DBReader.getStatistics(false, 20 * day, Long.MAX_VALUE).feedTime.get(0).timePlayed);
+        assertEquals(3, DBReader.getStatistics(false, 0, 20 * day).feedTime.get(0).timePlayed);
+    }
+
     @Test
     public void testDeleteFeedMediaOfItemFileExists() throws Exception {
         File dest = new File(context.getExternalFilesDir(TEST_FOLDER), "testFile");
@@ -754,6 +787,86 @@ public class DbWriterTest {
         }
     }
 
+    @Test
+    public void testMoveQueueItemRespacesPositions() throws Exception {
+        // Moving between the same neighbours halves the free room every time, until the queue needs to be respaced
+        List<FeedItem> queue = createQueue(3);
+        List<Long> expected = new ArrayList<>();
+        for (FeedItem item : queue) {
+            expected.add(item.getId());
+        }
+        for (int i = 0; i < 40; i++) {
+            DBWriter.moveQueueItem(2, 1, false).get(TIMEOUT, TimeUnit.SECONDS);
+            expected.add(1, expected.remove(2));
+            assertQueueOrder(expected);
+        }
+        for (int i = 0; i < 40; i++) {
+            DBWriter.moveQueueItem(2, 0, false).get(TIMEOUT, TimeUnit.SECONDS);
+            expected.add(0, expected.remove(2));
+            assertQueueOrder(expected);
+        }
+    }
+
+    @Test
+    public void testMoveQueueItemLargeQueue() throws Exception {
+        final int numItems = 500;
+        final int numMoves = 200;
+        List<FeedItem> queue = createQueue(numItems);
+        List<Long> expected = new ArrayList<>();
+        for (FeedItem item : queue) {
+            expected.add(item.getId());
+        }
+
+        for (int i = 0; i < numMoves; i++) {
+            int from = (i * 37) % numItems;
+            int to = (i * 101) % numItems;
+            DBWriter.moveQueueItem(from, to, false).get(TIMEOUT, TimeUnit.SECONDS);
+            expected.add(to, expected.remove(from));
+        }
+        assertQueueOrder(expected);
+
+        // Every item keeps a unique position, in queue order
+        List<Long> idsByPosition = new ArrayList<>();
+        long lastPosition = 0;
+        PodDBAdapter adapter = PodDBAdapter.getInstance();
+        adapter.open();
+        try (Cursor cursor = adapter.getQueuePositionsCursor()) {
+            while (cursor.moveToNext()) {
+                idsByPosition.add(cursor.getLong(0));
+                long position = cursor.getLong(1);
+                assertTrue(position > lastPosition);
+                lastPosition = position;
+            }
+        } finally {
+            adapter.close();
+        }
+        assertEquals(expected, idsByPosition);
+    }
+
+    private List<FeedItem> createQueue(int numItems) {
+        Feed feed = new Feed("url", null, "title");
+        feed.setItems(new ArrayList<>());
+        for (int i = 0; i < numItems; i++) {
+            FeedItem item = new FeedItem(0, "title " + i, "id " + i, "link " + i,
+                    new Date(), FeedItem.PLAYED, feed);
+            feed.getItems().add(item);
+        }
+        PodDBAdapter adapter = PodDBAdapter.getInstance();
+        adapter.open();
+        adapter.setCompleteFeed(feed);
+        adapter.setQueue(feed.getItems());
+        adapter.close();
+        return feed.getItems();
+    }
+
+    private void assertQueueOrder(List<Long> expected) {
+        List<Long> actual = new ArrayList<>();
+        for (long id : DBReader.getQueueIDList().toArray()) {
+            actual.add(id);
+        }
+        assertEquals(expected, actual);
+    }
+
     @Test
     public void testRemoveAllNewFlags() throws Exception {
         final int numItems = 10;
@@ -9,6 +9,7 @@ import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -209,4 +210,122 @@ public class EpisodeActionFilterTest extends TestCase {
                 .getRemoteActionsOverridingLocalActions(remoteActions, episodeActions);
         assertSame(1, uniqueList.size());
     }
+
+    public void testRemoteActionsInSeveralBatches() throws ParseException {
+        SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+        Date morning = format.parse("2021-01-01 08:00:00");
+        Date halfPastEight = format.parse("2021-01-01 08:30:00");
+        Date lateMorning = format.parse("2021-01-01 09:00:00");
+        List<EpisodeAction> localActions = new ArrayList<>();
+        Map<Pair<String, String>, Date> appliedTimestamps = new HashMap<>();
+
+        List<EpisodeAction> firstBatch = new ArrayList<>();
+        firstBatch.add(new EpisodeAction
+                .Builder("podcast.a", "episode.1", EpisodeAction.Action.PLAY)
+                .timestamp(lateMorning)
+                .position(20)
+                .build()
+        );
+        firstBatch.add(new EpisodeAction
+                .Builder("podcast.a", "episode.2", EpisodeAction.Action.PLAY)
+                .timestamp(morning)
+                .position(5)
+                .build()
+        );
+        firstBatch.add(new EpisodeAction
+                .Builder("podcast.a", "episode.3", EpisodeAction.Action.PLAY)
+                // no timestamp
+                .position(7)
+                .build()
+        );
+        Map<Pair<String, String>, EpisodeAction> uniqueList = EpisodeActionFilter
+                .getRemoteActionsOverridingLocalActions(firstBatch, localActions, appliedTimestamps);
+        assertEquals(3, uniqueList.size());
+        assertEquals(2, appliedTimestamps.size());
+
+        // Older actions in a later batch do not override newer ones of a previous batch
+        List<EpisodeAction> secondBatch = new ArrayList<>();
+        secondBatch.add(new EpisodeAction
+                .Builder("podcast.a", "episode.1", EpisodeAction.Action.PLAY)
+                .timestamp(halfPastEight)
+                .position(10)
+                .build()
+        );
+        secondBatch.add(new EpisodeAction
+                .Builder("podcast.a", "episode.2", EpisodeAction.Action.PLAY)
+                .timestamp(morning)
+                .position(6)
+                .build()
+        );
+        secondBatch.add(new EpisodeAction
+                .Builder("podcast.a", "episode.3", EpisodeAction.Action.PLAY)
+                .timestamp(morning)
+                .position(8)
+                .build()
+        );
+        uniqueList = EpisodeActionFilter
+                .getRemoteActionsOverridingLocalActions(secondBatch, localActions, appliedTimestamps);
+        assertEquals(1, uniqueList.size());
+        assertEquals(8, uniqueList.get(new Pair<>("podcast.a", "episode.3")).getPosition());
+
+        List<EpisodeAction> thirdBatch = new ArrayList<>();
+        thirdBatch.add(new EpisodeAction
+                .Builder("podcast.a", "episode.1", EpisodeAction.Action.PLAY)
+                // no timestamp
+                .position(30)
+                .build()
+        );
+        thirdBatch.add(new EpisodeAction
+                .Builder("podcast.a", "episode.2", EpisodeAction.Action.PLAY)
+                .timestamp(halfPastEight)
+                .position(15)
+                .build()
+        );
+        uniqueList = EpisodeActionFilter
+                .getRemoteActionsOverridingLocalActions(thirdBatch, localActions, appliedTimestamps);
+        assertEquals(1, uniqueList.size());
+        assertEquals(15, uniqueList.get(new Pair<>("podcast.a", "episode.2")).getPosition());
+        assertEquals(lateMorning, appliedTimestamps.get(new Pair<>("podcast.a", "episode.1")));
+        assertEquals(halfPastEight, appliedTimestamps.get(new Pair<>("podcast.a", "episode.2")));
+        assertEquals(morning, appliedTimestamps.get(new Pair<>("podcast.a", "episode.3")));
+    }
+
+    public void testLargeActionSets() {
+        final int numEpisodes = 10000;
+        final int remotePerEpisode = 5;
+        final int numLocal = 5000;
+        final long baseTime = 1609488000000L;
+
+        List<EpisodeAction> remoteActions = new ArrayList<>();
+        for (int round = 0; round < remotePerEpisode; round++) {
+            for (int i = 0; i < numEpisodes; i++) {
+                // Mix up the order, so the latest action is not always the last one
+                int minute = (round + i) % remotePerEpisode;
+                remoteActions.add(new EpisodeAction
+                        .Builder("podcast." + (i % 500), "episode." + i, EpisodeAction.Action.PLAY)
+                        .timestamp(new Date(baseTime + minute * 60000L))
+                        .position(minute + 1)
+                        .build());
+            }
+        }
+        List<EpisodeAction> localActions = new ArrayList<>();
+        for (int i = 0; i < numLocal; i++) {
+            // Even episodes were played locally after all remote actions, odd ones before
+            long offset = i % 2 == 0 ? remotePerEpisode * 60000L : -60000L;
+            localActions.add(new EpisodeAction
+                    .Builder("podcast." + (i % 500), "episode." + i, EpisodeAction.Action.PLAY)
+                    .timestamp(new Date(baseTime + offset))
+                    .position(100)
+                    .build());
+        }
+
+        Map<Pair<String, String>, EpisodeAction> uniqueList = EpisodeActionFilter
+                .getRemoteActionsOverridingLocalActions(remoteActions, localActions);
+
+        assertEquals(numEpisodes - numLocal / 2, uniqueList.size());
+        assertNull(uniqueList.get(new Pair<>("podcast.0", "episode.0")));
+        EpisodeAction latest = uniqueList.get(new Pair<>("podcast.1", "episode.1"));
+        assertNotNull(latest);
+        assertEquals(remotePerEpisode, latest.getPosition());
+    }
 }
@@ -15,6 +15,7 @@ import org.robolectric.RobolectricTestRunner;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
@@ -31,6 +32,17 @@ public class ShownotesCleanerTest {
         context = InstrumentationRegistry.getInstrumentation().getTargetContext();
     }
 
+    @Test
+    public void testCacheKeyChangesWithInput() {
+        String shownotes = "<p>Some test text</p>";
+        String key = new ShownotesCleaner(context, shownotes, 1000).getCacheKey(1);
+        assertEquals(key, new ShownotesCleaner(context, shownotes, 1000).getCacheKey(1));
+        assertNotEquals(key, new ShownotesCleaner(context, shownotes, 1000).getCacheKey(2));
+        assertNotEquals(key, new ShownotesCleaner(context, shownotes + "<p>More</p>", 1000).getCacheKey(1));
+        assertNotEquals(key, new ShownotesCleaner(context, shownotes, 2000).getCacheKey(1));
+        assertNotEquals(key, new ShownotesCleaner(context, null, 1000).getCacheKey(1));
+    }
+
     @Test
     public void testProcessShownotesAddTimecodeHhmmssNoChapters() {
         final String timeStr = "10:11:12";
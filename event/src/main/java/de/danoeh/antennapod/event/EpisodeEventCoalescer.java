@@ -0,0 +1,136 @@
+package de.danoeh.antennapod.event;
+
+import android.view.Choreographer;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import de.danoeh.antennapod.model.feed.FeedItem;
+
+/**
+ * Collects episode related events that arrive during one frame and hands them to the listener as a single delta.
+ * Item updates are de-duplicated by item id (the latest version wins) and any number of reload triggers
+ * ({@link PlayerStatusEvent}, {@link UnreadItemsUpdateEvent}, ...) collapse into one reload.
+ * Must only be used from the main thread.
+ */
+public class EpisodeEventCoalescer {
+    /**
+     * When more structural queue changes arrive within one frame, replaying them is more expensive than reloading.
+     */
+    private static final int MAX_QUEUE_EVENTS_PER_FRAME = 20;
+
+    public interface Listener {
+        void onEpisodeEventsCoalesced(@NonNull Delta delta);
+    }
+
+    /**
+     * Changes that happened during one frame. If {@link #reload} is set, the other fields are empty
+     * because the reload already includes them.
+     */
+    public static class Delta {
+        public final boolean reload;
+        /**
+         * Structural queue changes, in the order they happened.
+         */
+        @NonNull public final List<QueueEvent> queueEvents;
+        /**
+         * Latest version of every item that changed, applied after {@link #queueEvents}.
+         */
+        @NonNull public final Collection<FeedItem> updatedItems;
+
+        Delta(boolean reload, @NonNull List<QueueEvent> queueEvents, @NonNull Collection<FeedItem> updatedItems) {
+            this.reload = reload;
+            this.queueEvents = queueEvents;
+            this.updatedItems = updatedItems;
+        }
+    }
+
+    private final Listener listener;
+    private final Map<Long, FeedItem> updatedItems = new LinkedHashMap<>();
+    private final List<QueueEvent> queueEvents = new ArrayList<>();
+    private final Choreographer.FrameCallback frameCallback = frameTimeNanos -> dispatch();
+    private boolean reloadRequested = false;
+    private boolean frameScheduled = false;
+
+    public EpisodeEventCoalescer(@NonNull Listener listener) {
+        this.listener = listener;
+    }
+
+    public void add(@NonNull FeedItemEvent event) {
+        if (!reloadRequested) {
+            for (FeedItem item : event.items) {
+                updatedItems.put(item.getId(), item);
+            }
+        }
+        scheduleFrame();
+    }
+
+    public void add(@NonNull QueueEvent event) {
+        if (!reloadRequested) {
+            switch (event.action) {
+                case SET_QUEUE:
+                case SORTED:
+                case CLEARED:
+                    // Replaces the whole queue, so earlier structural changes of this frame do not matter
+                    queueEvents.clear();
+                    queueEvents.add(event);
+                    break;
+                default:
+                    queueEvents.add(event);
+                    break;
+            }
+            if (queueEvents.size() > MAX_QUEUE_EVENTS_PER_FRAME) {
+                requestReload();
+                return;
+            }
+        }
+        scheduleFrame();
+    }
+
+    /**
+     * Requests a full reload at the end of the frame. Calling this multiple times only reloads once.
+     */
+    public void requestReload() {
+        reloadRequested = true;
+        updatedItems.clear();
+        queueEvents.clear();
+        scheduleFrame();
+    }
+
+    /**
+     * Drops all pending changes, for example when the subscriber stops listening.
+     */
+    public void cancel() {
+        if (frameScheduled) {
+            Choreographer.getInstance().removeFrameCallback(frameCallback);
+            frameScheduled = false;
+        }
+        reloadRequested = false;
+        updatedItems.clear();
+        queueEvents.clear();
+    }
+
+    private void scheduleFrame() {
+        if (!frameScheduled) {
+            frameScheduled = true;
+            Choreographer.getInstance().postFrameCallback(frameCallback);
+        }
+    }
+
+    private void dispatch() {
+        frameScheduled = false;
+        Delta delta = new Delta(reloadRequested,
+                queueEvents.isEmpty() ? Collections.emptyList() : new ArrayList<>(queueEvents),
+                updatedItems.isEmpty() ? Collections.emptyList() : new ArrayList<>(updatedItems.values()));
+        reloadRequested = false;
+        queueEvents.clear();
+        updatedItems.clear();
+        listener.onEpisodeEventsCoalesced(delta);
+    }
+}
@@ -0,0 +1,52 @@
+package de.danoeh.antennapod.event;
+
+import androidx.annotation.NonNull;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import de.danoeh.antennapod.model.feed.FeedItem;
+
+/**
+ * Maps item ids to their position in a displayed list, so that a {@link EpisodeEventCoalescer.Delta}
+ * can be applied without scanning the list once per item. The index is rebuilt lazily after
+ * {@link #invalidate()}, so a batch of structural changes only costs one rebuild.
+ */
+public class FeedItemPositionIndex {
+    private final Map<Long, Integer> positions = new HashMap<>();
+    @NonNull private List<FeedItem> items = Collections.emptyList();
+    private boolean valid = true;
+
+    /**
+     * Sets the list that is indexed. Structural changes to the list must be followed by {@link #invalidate()}.
+     */
+    public void setItems(@NonNull List<FeedItem> items) {
+        this.items = items;
+        invalidate();
+    }
+
+    public void invalidate() {
+        valid = false;
+    }
+
+    /**
+     * @return position of the item with the given id, or -1 if the list does not contain it.
+     */
+    public int indexOf(long itemId) {
+        if (!valid) {
+            rebuild();
+        }
+        Integer position = positions.get(itemId);
+        return position != null ? position : -1;
+    }
+
+    private void rebuild() {
+        positions.clear();
+        for (int i = 0, size = items.size(); i < size; i++) {
+            positions.put(items.get(i).getId(), i);
+        }
+        valid = true;
+    }
+}
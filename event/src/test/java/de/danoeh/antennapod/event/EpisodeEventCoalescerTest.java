@@ -0,0 +1,142 @@
+package de.danoeh.antennapod.event;
+
+import android.os.Looper;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import de.danoeh.antennapod.model.feed.FeedItem;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+@RunWith(RobolectricTestRunner.class)
+public class EpisodeEventCoalescerTest {
+    private final List<EpisodeEventCoalescer.Delta> deltas = new ArrayList<>();
+    private EpisodeEventCoalescer coalescer;
+
+    @Before
+    public void setUp() {
+        coalescer = new EpisodeEventCoalescer(deltas::add);
+    }
+
+    @Test
+    public void testEventsOfOneFrameAreDispatchedOnce() {
+        coalescer.add(FeedItemEvent.updated(item(1)));
+        coalescer.add(QueueEvent.added(item(2), 0));
+        assertTrue(deltas.isEmpty());
+
+        nextFrame();
+        assertEquals(1, deltas.size());
+        assertFalse(deltas.get(0).reload);
+        assertEquals(1, deltas.get(0).queueEvents.size());
+        assertEquals(1, deltas.get(0).updatedItems.size());
+
+        nextFrame();
+        assertEquals(1, deltas.size());
+    }
+
+    @Test
+    public void testItemUpdatesAreMergedByIdLatestWins() {
+        FeedItem first = item(1);
+        FeedItem second = item(2);
+        FeedItem firstUpdated = item(1);
+        coalescer.add(FeedItemEvent.updated(first, second));
+        coalescer.add(FeedItemEvent.updated(firstUpdated));
+
+        nextFrame();
+        List<FeedItem> updated = new ArrayList<>(deltas.get(0).updatedItems);
+        assertEquals(2, updated.size());
+        assertSame(firstUpdated, updated.get(0));
+        assertSame(second, updated.get(1));
+    }
+
+    @Test
+    public void testQueueEventsKeepTheirOrder() {
+        FeedItem first = item(1);
+        FeedItem second = item(2);
+        coalescer.add(QueueEvent.added(first, 0));
+        coalescer.add(QueueEvent.added(second, 1));
+        coalescer.add(QueueEvent.removed(first));
+
+        nextFrame();
+        List<QueueEvent> events = deltas.get(0).queueEvents;
+        assertEquals(3, events.size());
+        assertEquals(QueueEvent.Action.ADDED, events.get(0).action);
+        assertSame(first, events.get(0).item);
+        assertEquals(QueueEvent.Action.ADDED, events.get(1).action);
+        assertSame(second, events.get(1).item);
+        assertEquals(QueueEvent.Action.REMOVED, events.get(2).action);
+    }
+
+    @Test
+    public void testQueueReplacementDropsEarlierStructuralChanges() {
+        coalescer.add(QueueEvent.added(item(1), 0));
+        coalescer.add(QueueEvent.setQueue(Arrays.asList(item(2), item(3))));
+        coalescer.add(QueueEvent.added(item(4), 2));
+
+        nextFrame();
+        List<QueueEvent> events = deltas.get(0).queueEvents;
+        assertEquals(2, events.size());
+        assertEquals(QueueEvent.Action.SET_QUEUE, events.get(0).action);
+        assertEquals(QueueEvent.Action.ADDED, events.get(1).action);
+    }
+
+    @Test
+    public void testReloadReplacesOtherChanges() {
+        coalescer.add(FeedItemEvent.updated(item(1)));
+        coalescer.requestReload();
+        coalescer.requestReload();
+        coalescer.add(FeedItemEvent.updated(item(2)));
+
+        nextFrame();
+        assertEquals(1, deltas.size());
+        assertTrue(deltas.get(0).reload);
+        assertTrue(deltas.get(0).queueEvents.isEmpty());
+        assertTrue(deltas.get(0).updatedItems.isEmpty());
+    }
+
+    @Test
+    public void testManyQueueEventsBecomeReload() {
+        for (int i = 0; i < 50; i++) {
+            coalescer.add(QueueEvent.added(item(i), 0));
+        }
+
+        nextFrame();
+        assertEquals(1, deltas.size());
+        assertTrue(deltas.get(0).reload);
+    }
+
+    @Test
+    public void testCancelDropsPendingChanges() {
+        coalescer.add(FeedItemEvent.updated(item(1)));
+        coalescer.cancel();
+
+        nextFrame();
+        assertTrue(deltas.isEmpty());
+
+        coalescer.add(QueueEvent.cleared());
+        nextFrame();
+        assertEquals(1, deltas.size());
+        assertEquals(QueueEvent.Action.CLEARED, deltas.get(0).queueEvents.get(0).action);
+    }
+
+    private static FeedItem item(long id) {
+        return new FeedItem(id, "Item " + id, "id" + id, null, new Date(), FeedItem.PLAYED, null);
+    }
+
+    private static void nextFrame() {
+        shadowOf(Looper.getMainLooper()).idleFor(Duration.ofMillis(100));
+    }
+}
@@ -8,9 +8,16 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 public class FeedFilter implements Serializable {
+    private static final Pattern TERM_PATTERN = Pattern.compile("([^\"]\\S*|\".+?\")\\s*");
+
     private final String includeFilter;
     private final String excludeFilter;
     private final int minimalDuration;
+    /**
+     * Compiled terms, built when the filter is first applied. The filter is immutable,
+     * so this lives as long as the {@link FeedPreferences} holding it.
+     */
+    private transient volatile FeedFilterMatcher matcher;
 
     public FeedFilter() {
         this("", "", -1);
@@ -39,23 +46,39 @@ public class FeedFilter implements Serializable {
     private List<String> parseTerms(String filter) {
         // from http://stackoverflow.com/questions/7804335/split-string-on-spaces-in-java-except-if-between-quotes-i-e-treat-hello-wor
         List<String> list = new ArrayList<>();
-        Matcher m = Pattern.compile("([^\"]\\S*|\".+?\")\\s*").matcher(filter);
+        Matcher m = TERM_PATTERN.matcher(filter);
         while (m.find()) {
             list.add(m.group(1).replace("\"", ""));
         }
         return list;
     }
 
+    private FeedFilterMatcher getMatcher() {
+        FeedFilterMatcher result = matcher;
+        if (result == null) {
+            result = new FeedFilterMatcher(normalizeTerms(parseTerms(includeFilter)),
+                    normalizeTerms(parseTerms(excludeFilter)));
+            matcher = result;
+        }
+        return result;
+    }
+
+    private static List<String> normalizeTerms(List<String> terms) {
+        List<String> normalized = new ArrayList<>(terms.size());
+        for (String term : terms) {
+            // check using lowercase so the users don't have to worry about case.
+            normalized.add(term.trim().toLowerCase(Locale.getDefault()));
+        }
+        return normalized;
+    }
+
     /**
      * @param item
      * @return true if the item should be downloaded
      */
     public boolean shouldAutoDownload(FeedItem item) {
-
-        List<String> includeTerms = parseTerms(includeFilter);
-        List<String> excludeTerms = parseTerms(excludeFilter);
-
-        if (includeTerms.size() == 0 && excludeTerms.size() == 0 && minimalDuration <= -1) {
+        FeedFilterMatcher termMatcher = getMatcher();
+        if (termMatcher.hasNoTerms() && minimalDuration <= -1) {
             // nothing has been specified, so include everything
             return true;
         }
@@ -69,21 +92,17 @@ public class FeedFilter implements Serializable {
             }
         }
 
-        // check using lowercase so the users don't have to worry about case.
-        String title = item.getTitle().toLowerCase(Locale.getDefault());
+        String title = item.getTitle() == null ? "" : item.getTitle().toLowerCase(Locale.getDefault());
+        int matches = termMatcher.match(title);
 
         // if it's explicitly excluded, it shouldn't be autodownloaded
         // even if it has include terms
-        for (String term : excludeTerms) {
-            if (title.contains(term.trim().toLowerCase(Locale.getDefault()))) {
-                return false;
-            }
+        if ((matches & FeedFilterMatcher.EXCLUDE) != 0) {
+            return false;
         }
 
-        for (String term : includeTerms) {
-            if (title.contains(term.trim().toLowerCase(Locale.getDefault()))) {
-                return true;
-            }
+        if ((matches & FeedFilterMatcher.INCLUDE) != 0) {
+            return true;
         }
 
         // now's the tricky bit
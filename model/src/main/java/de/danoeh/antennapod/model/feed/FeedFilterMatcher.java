@@ -0,0 +1,154 @@
+package de.danoeh.antennapod.model.feed;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+
+/**
+ * Finds the include and exclude terms of a {@link FeedFilter} in a title with a single pass
+ * over the title (Aho-Corasick), no matter how many terms there are.
+ * Immutable once built, so it can be shared between threads.
+ */
+class FeedFilterMatcher {
+    static final int INCLUDE = 1;
+    static final int EXCLUDE = 2;
+
+    private static final char[] NO_KEYS = new char[0];
+    private static final int[] NO_TARGETS = new int[0];
+
+    /** Sorted transition characters of each node. */
+    private final char[][] keys;
+    private final int[][] targets;
+    private final int[] fail;
+    /** Flags of the terms that end in each node, including the ones reached by fail links. */
+    private final int[] output;
+    /** Flags of empty terms, which are contained in every title. */
+    private final int alwaysMatched;
+    private final boolean noTerms;
+
+    /**
+     * @param includeTerms Trimmed, lower case terms
+     * @param excludeTerms Trimmed, lower case terms
+     */
+    FeedFilterMatcher(List<String> includeTerms, List<String> excludeTerms) {
+        noTerms = includeTerms.isEmpty() && excludeTerms.isEmpty();
+        List<char[]> keyList = new ArrayList<>();
+        List<int[]> targetList = new ArrayList<>();
+        List<Integer> outputList = new ArrayList<>();
+        keyList.add(NO_KEYS);
+        targetList.add(NO_TARGETS);
+        outputList.add(0);
+
+        int always = 0;
+        for (int pass = 0; pass < 2; pass++) {
+            List<String> terms = pass == 0 ? includeTerms : excludeTerms;
+            int flag = pass == 0 ? INCLUDE : EXCLUDE;
+            for (String term : terms) {
+                if (term.isEmpty()) {
+                    always |= flag;
+                    continue;
+                }
+                int node = 0;
+                for (int i = 0; i < term.length(); i++) {
+                    char c = term.charAt(i);
+                    int next = find(keyList.get(node), targetList.get(node), c);
+                    if (next < 0) {
+                        next = keyList.size();
+                        keyList.add(NO_KEYS);
+                        targetList.add(NO_TARGETS);
+                        outputList.add(0);
+                        addTransition(keyList, targetList, node, c, next);
+                    }
+                    node = next;
+                }
+                outputList.set(node, outputList.get(node) | flag);
+            }
+        }
+
+        int size = keyList.size();
+        keys = keyList.toArray(new char[size][]);
+        targets = targetList.toArray(new int[size][]);
+        output = new int[size];
+        for (int i = 0; i < size; i++) {
+            output[i] = outputList.get(i);
+        }
+        alwaysMatched = always;
+
+        // Breadth first, so the fail link of a parent is known before its children
+        fail = new int[size];
+        Queue<Integer> queue = new ArrayDeque<>();
+        for (int child : targets[0]) {
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            int node = queue.remove();
+            for (int i = 0; i < keys[node].length; i++) {
+                char c = keys[node][i];
+                int child = targets[node][i];
+                int candidate = fail[node];
+                int next = find(keys[candidate], targets[candidate], c);
+                while (next < 0 && candidate != 0) {
+                    candidate = fail[candidate];
+                    next = find(keys[candidate], targets[candidate], c);
+                }
+                fail[child] = next < 0 ? 0 : next;
+                output[child] |= output[fail[child]];
+                queue.add(child);
+            }
+        }
+    }
+
+    boolean hasNoTerms() {
+        return noTerms;
+    }
+
+    /**
+     * @param lowerCaseTitle The title, already in lower case
+     * @return {@link #INCLUDE} and/or {@link #EXCLUDE}, depending on which terms the title contains.
+     *     Stops at the first exclude term.
+     */
+    int match(String lowerCaseTitle) {
+        int flags = alwaysMatched;
+        if ((flags & EXCLUDE) != 0) {
+            return flags;
+        }
+        int node = 0;
+        for (int i = 0; i < lowerCaseTitle.length(); i++) {
+            char c = lowerCaseTitle.charAt(i);
+            int next = find(keys[node], targets[node], c);
+            while (next < 0 && node != 0) {
+                node = fail[node];
+                next = find(keys[node], targets[node], c);
+            }
+            node = next < 0 ? 0 : next;
+            flags |= output[node];
+            if ((flags & EXCLUDE) != 0) {
+                return flags;
+            }
+        }
+        return flags;
+    }
+
+    private static int find(char[] nodeKeys, int[] nodeTargets, char c) {
+        int index = Arrays.binarySearch(nodeKeys, c);
+        return index < 0 ? -1 : nodeTargets[index];
+    }
+
+    private static void addTransition(List<char[]> keyList, List<int[]> targetList, int node, char c, int target) {
+        char[] oldKeys = keyList.get(node);
+        int[] oldTargets = targetList.get(node);
+        int insertAt = -(Arrays.binarySearch(oldKeys, c) + 1);
+        char[] newKeys = new char[oldKeys.length + 1];
+        int[] newTargets = new int[oldTargets.length + 1];
+        System.arraycopy(oldKeys, 0, newKeys, 0, insertAt);
+        System.arraycopy(oldTargets, 0, newTargets, 0, insertAt);
+        newKeys[insertAt] = c;
+        newTargets[insertAt] = target;
+        System.arraycopy(oldKeys, insertAt, newKeys, insertAt + 1, oldKeys.length - insertAt);
+        System.arraycopy(oldTargets, insertAt, newTargets, insertAt + 1, oldTargets.length - insertAt);
+        keyList.set(node, newKeys);
+        targetList.set(node, newTargets);
+    }
+}
@@ -38,6 +38,7 @@ public class FeedMedia extends FeedFile implements Playable {
     private long lastPlayedTime; // Last time this media was played (in ms)
     private int played_duration; // How many ms of this file have been played
     private long size; // File size in Byte
+    private long lastModified; // Modification time of local files (in ms), 0 if unknown
     private String mime_type;
     @Nullable private volatile FeedItem item;
     private Date playbackCompletionDate;
@@ -134,6 +135,9 @@ public class FeedMedia extends FeedFile implements Playable {
         if (other.mime_type != null) {
             mime_type = other.mime_type;
         }
+        if (other.lastModified > 0) {
+            lastModified = other.lastModified;
+        }
     }
 
     public boolean compareWithOther(FeedMedia other) {
@@ -151,6 +155,9 @@ public class FeedMedia extends FeedFile implements Playable {
         if (other.duration > 0 && duration <= 0) {
             return true;
         }
+        if (other.lastModified > 0 && other.lastModified != lastModified) {
+            return true;
+        }
         return false;
     }
 
@@ -176,6 +183,14 @@ public class FeedMedia extends FeedFile implements Playable {
         return played_duration;
     }
 
+    public long getLastModified() {
+        return lastModified;
+    }
+
+    public void setLastModified(long lastModified) {
+        this.lastModified = lastModified;
+    }
+
     public int getPlayedDurationWhenStarted() {
         return playedDurationWhenStarted;
     }
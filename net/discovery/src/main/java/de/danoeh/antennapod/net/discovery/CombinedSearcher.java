@@ -2,63 +2,113 @@ package de.danoeh.antennapod.net.discovery;
 
 import android.text.TextUtils;
 import android.util.Log;
+import android.util.Pair;
+import androidx.annotation.Nullable;
+import io.reactivex.Observable;
 import io.reactivex.Single;
-import io.reactivex.SingleOnSubscribe;
 import io.reactivex.android.schedulers.AndroidSchedulers;
-import io.reactivex.disposables.Disposable;
-import io.reactivex.schedulers.Schedulers;
 
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
 public class CombinedSearcher implements PodcastSearcher {
     private static final String TAG = "CombinedSearcher";
+    private static final int PROVIDER_TIMEOUT_SECONDS = 10;
+    private static final long CACHE_TTL_MILLIS = 10 * 60 * 1000;
+    private static final int CACHE_SIZE = 20;
+
+    private static final Map<String, CachedResult> cache = new LinkedHashMap<String, CachedResult>(
+            CACHE_SIZE, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedResult> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
 
     public CombinedSearcher() {
     }
 
     public Single<List<PodcastSearchResult>> search(String query) {
-        ArrayList<Disposable> disposables = new ArrayList<>();
-        List<List<PodcastSearchResult>> singleResults = new ArrayList<>(
-                Collections.nCopies(PodcastSearcherRegistry.getSearchProviders().size(), null));
-        CountDownLatch latch = new CountDownLatch(PodcastSearcherRegistry.getSearchProviders().size());
-        for (int i = 0; i < PodcastSearcherRegistry.getSearchProviders().size(); i++) {
-            PodcastSearcherRegistry.SearcherInfo searchProviderInfo
-                    = PodcastSearcherRegistry.getSearchProviders().get(i);
-            PodcastSearcher searcher = searchProviderInfo.searcher;
-            if (searchProviderInfo.weight <= 0.00001f || searcher.getClass() == CombinedSearcher.class) {
-                latch.countDown();
-                continue;
+        return searchIncrementally(query).last(Collections.emptyList());
+    }
+
+    /**
+     * Queries all providers in parallel. Emits the merged and ranked results every time a provider responds,
+     * so that the first results can be shown before the slowest provider is done.
+     * Providers that do not respond within {@link #PROVIDER_TIMEOUT_SECONDS} are skipped.
+     * Results of recent queries are served from memory.
+     */
+    public Observable<List<PodcastSearchResult>> searchIncrementally(String query) {
+        List<PodcastSearchResult> cachedResults = getCachedResults(query);
+        if (cachedResults != null) {
+            return Observable.just(cachedResults);
+        }
+        return Observable.defer(() -> {
+            List<PodcastSearcherRegistry.SearcherInfo> providers = PodcastSearcherRegistry.getSearchProviders();
+            List<List<PodcastSearchResult>> singleResults = new ArrayList<>(
+                    Collections.nCopies(providers.size(), null));
+            List<Observable<Pair<Integer, List<PodcastSearchResult>>>> requests = new ArrayList<>();
+            for (int i = 0; i < providers.size(); i++) {
+                PodcastSearcherRegistry.SearcherInfo searchProviderInfo = providers.get(i);
+                PodcastSearcher searcher = searchProviderInfo.searcher;
+                if (searchProviderInfo.weight <= 0.00001f || searcher.getClass() == CombinedSearcher.class) {
+                    continue;
+                }
+                final int index = i;
+                requests.add(searcher.search(query)
+                        .timeout(PROVIDER_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+                        .map(results -> new Pair<>(index, results))
+                        .onErrorReturn(throwable -> {
+                            Log.d(TAG, searcher.getName() + ": " + Log.getStackTraceString(throwable));
+                            return new Pair<>(index, null);
+                        })
+                        .toObservable());
             }
-            final int index = i;
-            disposables.add(searcher.search(query).subscribe(e -> {
-                        singleResults.set(index, e);
-                        latch.countDown();
-                    }, throwable -> {
-                        Log.d(TAG, Log.getStackTraceString(throwable));
-                        latch.countDown();
-                    }
-            ));
+            AtomicBoolean anySucceeded = new AtomicBoolean(false);
+            AtomicReference<List<PodcastSearchResult>> latestResults = new AtomicReference<>();
+            return Observable.merge(requests)
+                    .map(providerResult -> {
+                        if (providerResult.second != null) {
+                            anySucceeded.set(true);
+                        }
+                        singleResults.set(providerResult.first, providerResult.second);
+                        List<PodcastSearchResult> results = weightSearchResults(singleResults);
+                        latestResults.set(results);
+                        return results;
+                    })
+                    .doOnComplete(() -> {
+                        if (anySucceeded.get()) {
+                            putCachedResults(query, latestResults.get());
+                        }
+                    });
+        }).observeOn(AndroidSchedulers.mainThread());
+    }
+
+    @Nullable
+    private static List<PodcastSearchResult> getCachedResults(String query) {
+        synchronized (cache) {
+            CachedResult cached = cache.get(query);
+            if (cached == null) {
+                return null;
+            } else if (System.currentTimeMillis() - cached.timestamp > CACHE_TTL_MILLIS) {
+                cache.remove(query);
+                return null;
+            }
+            return cached.results;
         }
+    }
 
-        return Single.create((SingleOnSubscribe<List<PodcastSearchResult>>) subscriber -> {
-            latch.await();
-            List<PodcastSearchResult> results = weightSearchResults(singleResults);
-            subscriber.onSuccess(results);
-        })
-                .doOnDispose(() -> {
-                    for (Disposable disposable : disposables) {
-                        if (disposable != null) {
-                            disposable.dispose();
-                        }
-                    }
-                })
-                .subscribeOn(Schedulers.io())
-                .observeOn(AndroidSchedulers.mainThread());
+    private static void putCachedResults(String query, List<PodcastSearchResult> results) {
+        synchronized (cache) {
+            cache.put(query, new CachedResult(results, System.currentTimeMillis()));
+        }
     }
 
     private List<PodcastSearchResult> weightSearchResults(List<List<PodcastSearchResult>> singleResults) {
@@ -92,6 +142,16 @@ public class CombinedSearcher implements PodcastSearcher {
         return results;
     }
 
+    private static class CachedResult {
+        final List<PodcastSearchResult> results;
+        final long timestamp;
+
+        CachedResult(List<PodcastSearchResult> results, long timestamp) {
+            this.results = results;
+            this.timestamp = timestamp;
+        }
+    }
+
     @Override
     public Single<String> lookupUrl(String url) {
         return PodcastSearcherRegistry.lookupUrl(url);
@@ -28,7 +28,7 @@ import de.danoeh.antennapod.net.sync.gpoddernet.model.GpodnetEpisodeActionPostRe
 import de.danoeh.antennapod.net.sync.gpoddernet.model.GpodnetPodcast;
 import de.danoeh.antennapod.net.sync.gpoddernet.model.GpodnetUploadChangesResponse;
 import de.danoeh.antennapod.net.sync.model.EpisodeAction;
-import de.danoeh.antennapod.net.sync.model.EpisodeActionChanges;
+import de.danoeh.antennapod.net.sync.model.EpisodeActionBatchHandler;
 import de.danoeh.antennapod.net.sync.model.ISyncService;
 import de.danoeh.antennapod.net.sync.model.SubscriptionChanges;
 import de.danoeh.antennapod.net.sync.model.SyncServiceException;
@@ -252,13 +252,13 @@ public class GpodnetService implements ISyncService {
             URL url = new URI(baseScheme, null, baseHost, basePort, path, params, null).toURL();
             Request.Builder request = new Request.Builder().url(url);
 
-            String response = executeRequest(request);
-            JSONObject changes = new JSONObject(response);
-            return ResponseMapper.readSubscriptionChangesFromJsonObject(changes);
+            try (Response response = executeStreamingRequest(request)) {
+                return ResponseMapper.readSubscriptionChanges(response.body().charStream());
+            }
         } catch (URISyntaxException e) {
             e.printStackTrace();
             throw new IllegalStateException(e);
-        } catch (JSONException | MalformedURLException e) {
+        } catch (IOException | RuntimeException e) {
             e.printStackTrace();
             throw new GpodnetServiceException(e);
         }
@@ -316,16 +316,18 @@ public class GpodnetService implements ISyncService {
     }
 
     /**
-     * Returns all subscription changes of a specific device.
+     * Passes all episode actions since the timestamp to the handler, in batches while they are loaded.
      * <p/>
      * This method requires authentication.
      *
      * @param timestamp A timestamp that can be used to receive all changes since a
      *                  specific point in time.
+     * @return The timestamp of the response
      * @throws SyncServiceException If there is an authentication error.
      */
     @Override
-    public EpisodeActionChanges getEpisodeActionChanges(long timestamp) throws SyncServiceException {
+    public long getEpisodeActionChanges(long timestamp, EpisodeActionBatchHandler handler)
+            throws SyncServiceException {
         requireLoggedIn();
         String params = String.format(Locale.US, "since=%d", timestamp);
         String path = String.format("/api/2/episodes/%s.json", username);
@@ -333,13 +335,13 @@ public class GpodnetService implements ISyncService {
             URL url = new URI(baseScheme, null, baseHost, basePort, path, params, null).toURL();
             Request.Builder request = new Request.Builder().url(url);
 
-            String response = executeRequest(request);
-            JSONObject json = new JSONObject(response);
-            return ResponseMapper.readEpisodeActionsFromJsonObject(json);
+            try (Response response = executeStreamingRequest(request)) {
+                return ResponseMapper.readEpisodeActions(response.body().charStream(), handler);
+            }
         } catch (URISyntaxException e) {
             e.printStackTrace();
             throw new IllegalStateException(e);
-        } catch (JSONException | MalformedURLException e) {
+        } catch (IOException | RuntimeException e) {
             e.printStackTrace();
             throw new SyncServiceException(e);
         }
@@ -399,6 +401,26 @@ public class GpodnetService implements ISyncService {
         return responseString;
     }
 
+    /**
+     * Executes the request without reading the body. The caller needs to close the response.
+     */
+    private Response executeStreamingRequest(@NonNull Request.Builder requestB) throws GpodnetServiceException {
+        Response response;
+        try {
+            response = httpClient.newCall(requestB.build()).execute();
+        } catch (IOException e) {
+            e.printStackTrace();
+            throw new GpodnetServiceException(e);
+        }
+        try {
+            checkStatusCode(response);
+        } catch (GpodnetServiceException e) {
+            response.close();
+            throw e;
+        }
+        return response;
+    }
+
     private String getStringFromResponseBody(@NonNull ResponseBody body) throws GpodnetServiceException {
         ByteArrayOutputStream outputStream;
         int contentLength = (int) body.contentLength();
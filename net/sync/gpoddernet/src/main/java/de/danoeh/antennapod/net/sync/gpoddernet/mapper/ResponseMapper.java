@@ -1,60 +1,227 @@
 package de.danoeh.antennapod.net.sync.gpoddernet.mapper;
 
-import androidx.annotation.NonNull;
+import android.text.TextUtils;
+import android.util.JsonReader;
+import android.util.JsonToken;
 
-import org.json.JSONArray;
-import org.json.JSONException;
-import org.json.JSONObject;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
 
+import java.io.IOException;
+import java.io.Reader;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
 import de.danoeh.antennapod.net.sync.model.EpisodeAction;
-import de.danoeh.antennapod.net.sync.model.EpisodeActionChanges;
+import de.danoeh.antennapod.net.sync.model.EpisodeActionBatchHandler;
 import de.danoeh.antennapod.net.sync.model.SubscriptionChanges;
+import de.danoeh.antennapod.net.sync.model.SyncServiceException;
+import de.danoeh.antennapod.net.sync.model.UtcTimestampParser;
 
+/**
+ * Reads sync responses directly from the response body, without holding the whole text
+ * or a JSON tree of it in memory. A first sync can return tens of thousands of episode actions.
+ */
 public class ResponseMapper {
+    private static final int EPISODE_ACTION_BATCH_SIZE = 500;
 
-    public static SubscriptionChanges readSubscriptionChangesFromJsonObject(@NonNull JSONObject object)
-            throws JSONException {
+    public static SubscriptionChanges readSubscriptionChanges(@NonNull Reader reader) throws IOException {
+        List<String> added = null;
+        List<String> removed = null;
+        long timestamp = -1;
 
-        List<String> added = new LinkedList<>();
-        JSONArray jsonAdded = object.getJSONArray("add");
-        for (int i = 0; i < jsonAdded.length(); i++) {
-            String addedUrl = jsonAdded.getString(i);
-            // gpodder escapes colons unnecessarily
-            addedUrl = addedUrl.replace("%3A", ":");
-            added.add(addedUrl);
+        JsonReader json = new JsonReader(reader);
+        json.beginObject();
+        while (json.hasNext()) {
+            String name = json.nextName();
+            if ("add".equals(name)) {
+                added = readUrlArray(json);
+            } else if ("remove".equals(name)) {
+                removed = readUrlArray(json);
+            } else if ("timestamp".equals(name)) {
+                timestamp = json.nextLong();
+            } else {
+                json.skipValue();
+            }
         }
+        json.endObject();
+        if (added == null || removed == null || timestamp < 0) {
+            throw new IOException("Incomplete subscription changes");
+        }
+        return new SubscriptionChanges(added, removed, timestamp);
+    }
 
-        List<String> removed = new LinkedList<>();
-        JSONArray jsonRemoved = object.getJSONArray("remove");
-        for (int i = 0; i < jsonRemoved.length(); i++) {
-            String removedUrl = jsonRemoved.getString(i);
+    private static List<String> readUrlArray(JsonReader json) throws IOException {
+        List<String> urls = new LinkedList<>();
+        json.beginArray();
+        while (json.hasNext()) {
             // gpodder escapes colons unnecessarily
-            removedUrl = removedUrl.replace("%3A", ":");
-            removed.add(removedUrl);
+            urls.add(json.nextString().replace("%3A", ":"));
         }
+        json.endArray();
+        return urls;
+    }
 
-        long timestamp = object.getLong("timestamp");
-        return new SubscriptionChanges(added, removed, timestamp);
+    /**
+     * Reads the episode actions and passes them to the handler in batches, while the response is still loading.
+     *
+     * @return The timestamp of the response
+     */
+    public static long readEpisodeActions(@NonNull Reader reader, @NonNull EpisodeActionBatchHandler handler)
+            throws IOException, SyncServiceException {
+        return readEpisodeActions(reader, handler, EPISODE_ACTION_BATCH_SIZE);
     }
 
-    public static EpisodeActionChanges readEpisodeActionsFromJsonObject(@NonNull JSONObject object)
-            throws JSONException {
+    @VisibleForTesting
+    static long readEpisodeActions(@NonNull Reader reader, @NonNull EpisodeActionBatchHandler handler,
+                                   int batchSize) throws IOException, SyncServiceException {
+        UtcTimestampParser timestampParser = new UtcTimestampParser();
+        // Many actions refer to the same podcast, only keep one copy of each URL
+        Map<String, String> podcastUrls = new HashMap<>();
+        List<EpisodeAction> batch = new ArrayList<>();
+        long timestamp = -1;
+
+        JsonReader json = new JsonReader(reader);
+        json.beginObject();
+        while (json.hasNext()) {
+            String name = json.nextName();
+            if ("timestamp".equals(name)) {
+                timestamp = json.nextLong();
+            } else if ("actions".equals(name)) {
+                json.beginArray();
+                while (json.hasNext()) {
+                    EpisodeAction action = readEpisodeAction(json, timestampParser, podcastUrls);
+                    if (action == null) {
+                        continue;
+                    }
+                    batch.add(action);
+                    if (batch.size() >= batchSize) {
+                        handler.onEpisodeActions(batch);
+                        batch = new ArrayList<>();
+                    }
+                }
+                json.endArray();
+            } else {
+                json.skipValue();
+            }
+        }
+        json.endObject();
+        if (!batch.isEmpty()) {
+            handler.onEpisodeActions(batch);
+        }
+        if (timestamp < 0) {
+            throw new IOException("Episode actions without timestamp");
+        }
+        return timestamp;
+    }
 
-        List<EpisodeAction> episodeActions = new ArrayList<>();
+    /**
+     * Same rules as {@link EpisodeAction#readFromJsonObject}.
+     *
+     * @return The action, or null if mandatory values are missing
+     */
+    @Nullable
+    private static EpisodeAction readEpisodeAction(JsonReader json, UtcTimestampParser timestampParser,
+                                                   Map<String, String> podcastUrls) throws IOException {
+        String podcast = null;
+        String episode = null;
+        String actionString = null;
+        String utcTimestamp = null;
+        String guid = null;
+        int started = -1;
+        int position = -1;
+        int total = -1;
 
-        long timestamp = object.getLong("timestamp");
-        JSONArray jsonActions = object.getJSONArray("actions");
-        for (int i = 0; i < jsonActions.length(); i++) {
-            JSONObject jsonAction = jsonActions.getJSONObject(i);
-            EpisodeAction episodeAction = EpisodeAction.readFromJsonObject(jsonAction);
-            if (episodeAction != null) {
-                episodeActions.add(episodeAction);
+        json.beginObject();
+        while (json.hasNext()) {
+            switch (json.nextName()) {
+                case "podcast":
+                    podcast = nextStringOrNull(json);
+                    break;
+                case "episode":
+                    episode = nextStringOrNull(json);
+                    break;
+                case "action":
+                    actionString = nextStringOrNull(json);
+                    break;
+                case "timestamp":
+                    utcTimestamp = nextStringOrNull(json);
+                    break;
+                case "guid":
+                    guid = nextStringOrNull(json);
+                    break;
+                case "started":
+                    started = nextIntOrDefault(json);
+                    break;
+                case "position":
+                    position = nextIntOrDefault(json);
+                    break;
+                case "total":
+                    total = nextIntOrDefault(json);
+                    break;
+                default:
+                    json.skipValue();
+                    break;
             }
         }
-        return new EpisodeActionChanges(episodeActions, timestamp);
+        json.endObject();
+
+        if (TextUtils.isEmpty(podcast) || TextUtils.isEmpty(episode) || TextUtils.isEmpty(actionString)) {
+            return null;
+        }
+        EpisodeAction.Action action;
+        try {
+            action = EpisodeAction.Action.valueOf(actionString.toUpperCase(Locale.US));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        String sharedPodcast = podcastUrls.get(podcast);
+        if (sharedPodcast == null) {
+            podcastUrls.put(podcast, podcast);
+            sharedPodcast = podcast;
+        }
+        EpisodeAction.Builder builder = new EpisodeAction.Builder(sharedPodcast, episode, action);
+        if (!TextUtils.isEmpty(utcTimestamp)) {
+            builder.timestamp(timestampParser.parse(utcTimestamp));
+        }
+        if (!TextUtils.isEmpty(guid)) {
+            builder.guid(guid);
+        }
+        if (action == EpisodeAction.Action.PLAY && started >= 0 && position > 0 && total > 0) {
+            builder
+                    .started(started)
+                    .position(position)
+                    .total(total);
+        }
+        return builder.build();
+    }
+
+    @Nullable
+    private static String nextStringOrNull(JsonReader json) throws IOException {
+        JsonToken token = json.peek();
+        if (token == JsonToken.STRING || token == JsonToken.NUMBER) {
+            return json.nextString();
+        } else if (token == JsonToken.BOOLEAN) {
+            return String.valueOf(json.nextBoolean());
+        }
+        json.skipValue();
+        return null;
+    }
+
+    private static int nextIntOrDefault(JsonReader json) throws IOException {
+        String value = nextStringOrNull(json);
+        if (value == null) {
+            return -1;
+        }
+        try {
+            return (int) Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
     }
 }
@@ -4,7 +4,7 @@ import de.danoeh.antennapod.net.sync.HostnameParser;
 import de.danoeh.antennapod.net.sync.gpoddernet.mapper.ResponseMapper;
 import de.danoeh.antennapod.net.sync.gpoddernet.model.GpodnetUploadChangesResponse;
 import de.danoeh.antennapod.net.sync.model.EpisodeAction;
-import de.danoeh.antennapod.net.sync.model.EpisodeActionChanges;
+import de.danoeh.antennapod.net.sync.model.EpisodeActionBatchHandler;
 import de.danoeh.antennapod.net.sync.model.ISyncService;
 import de.danoeh.antennapod.net.sync.model.SubscriptionChanges;
 import de.danoeh.antennapod.net.sync.model.SyncServiceException;
@@ -17,11 +17,9 @@ import okhttp3.Request;
 import okhttp3.RequestBody;
 import okhttp3.Response;
 import org.json.JSONArray;
-import org.json.JSONException;
 import org.json.JSONObject;
 
 import java.io.IOException;
-import java.net.MalformedURLException;
 import java.util.HashMap;
 import java.util.List;
 
@@ -49,10 +47,10 @@ public class NextcloudSyncService implements ISyncService {
         try {
             HttpUrl.Builder url = makeUrl("/index.php/apps/gpoddersync/subscriptions");
             url.addQueryParameter("since", "" + lastSync);
-            String responseString = performRequest(url, "GET", null);
-            JSONObject json = new JSONObject(responseString);
-            return ResponseMapper.readSubscriptionChangesFromJsonObject(json);
-        } catch (JSONException | MalformedURLException e) {
+            try (Response response = execute(url, "GET", null)) {
+                return ResponseMapper.readSubscriptionChanges(response.body().charStream());
+            }
+        } catch (IOException e) {
             e.printStackTrace();
             throw new SyncServiceException(e);
         } catch (Exception e) {
@@ -82,14 +80,17 @@ public class NextcloudSyncService implements ISyncService {
     }
 
     @Override
-    public EpisodeActionChanges getEpisodeActionChanges(long timestamp) throws SyncServiceException {
+    public long getEpisodeActionChanges(long timestamp, EpisodeActionBatchHandler handler)
+            throws SyncServiceException {
         try {
             HttpUrl.Builder uri = makeUrl("/index.php/apps/gpoddersync/episode_action");
             uri.addQueryParameter("since", "" + timestamp);
-            String responseString = performRequest(uri, "GET", null);
-            JSONObject json = new JSONObject(responseString);
-            return ResponseMapper.readEpisodeActionsFromJsonObject(json);
-        } catch (JSONException | MalformedURLException e) {
+            try (Response response = execute(uri, "GET", null)) {
+                return ResponseMapper.readEpisodeActions(response.body().charStream(), handler);
+            }
+        } catch (SyncServiceException e) {
+            throw e;
+        } catch (IOException e) {
             e.printStackTrace();
             throw new SyncServiceException(e);
         } catch (Exception e) {
@@ -130,6 +131,15 @@ public class NextcloudSyncService implements ISyncService {
     }
 
     private String performRequest(HttpUrl.Builder url, String method, RequestBody body) throws IOException {
+        try (Response response = execute(url, method, body)) {
+            return response.body().string();
+        }
+    }
+
+    /**
+     * Executes the request without reading the body. The caller needs to close the response.
+     */
+    private Response execute(HttpUrl.Builder url, String method, RequestBody body) throws IOException {
         Request request = new Request.Builder()
                 .url(url.build())
                 .header("Authorization", Credentials.basic(username, password))
@@ -138,9 +148,10 @@ public class NextcloudSyncService implements ISyncService {
                 .build();
         Response response = httpClient.newCall(request).execute();
         if (response.code() != 200) {
+            response.close();
             throw new IOException("Response code: " + response.code());
         }
-        return response.body().string();
+        return response;
     }
 
     private HttpUrl.Builder makeUrl(String path) {
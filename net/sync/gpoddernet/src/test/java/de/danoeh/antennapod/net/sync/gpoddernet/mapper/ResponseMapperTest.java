@@ -0,0 +1,121 @@
+package de.danoeh.antennapod.net.sync.gpoddernet.mapper;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import de.danoeh.antennapod.net.sync.model.EpisodeAction;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit test for {@link ResponseMapper}.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class ResponseMapperTest {
+    private static final String PODCAST_A = "https://example.com/a.xml";
+    private static final String PODCAST_B = "https://example.com/b.xml";
+
+    @Test
+    public void testReadEpisodeActionsInBatches() throws Exception {
+        List<List<EpisodeAction>> batches = new ArrayList<>();
+        long timestamp;
+        try (Reader reader = openFixture()) {
+            timestamp = ResponseMapper.readEpisodeActions(reader, batches::add, 3);
+        }
+        assertEquals(1609491800L, timestamp);
+
+        // The action without episode and the unknown action are skipped, so 7 of 9 actions remain
+        assertEquals(3, batches.size());
+        assertEquals(3, batches.get(0).size());
+        assertEquals(3, batches.get(1).size());
+        assertEquals(1, batches.get(2).size());
+
+        List<EpisodeAction> actions = new ArrayList<>();
+        for (List<EpisodeAction> batch : batches) {
+            actions.addAll(batch);
+        }
+        assertEquals(EpisodeAction.PLAY, actions.get(0).getAction());
+        assertEquals(EpisodeAction.DOWNLOAD, actions.get(1).getAction());
+        assertEquals(EpisodeAction.PLAY, actions.get(2).getAction());
+        assertEquals(EpisodeAction.NEW, actions.get(3).getAction());
+        assertEquals(EpisodeAction.DELETE, actions.get(4).getAction());
+        assertEquals(EpisodeAction.PLAY, actions.get(5).getAction());
+        assertEquals(EpisodeAction.PLAY, actions.get(6).getAction());
+    }
+
+    @Test
+    public void testReadEpisodeActionValues() throws Exception {
+        List<EpisodeAction> actions = new ArrayList<>();
+        try (Reader reader = openFixture()) {
+            ResponseMapper.readEpisodeActions(reader, actions::addAll, 3);
+        }
+
+        EpisodeAction first = actions.get(0);
+        assertEquals(PODCAST_A, first.getPodcast());
+        assertEquals("https://example.com/a/1.mp3", first.getEpisode());
+        assertEquals(new Date(1609488000000L), first.getTimestamp());
+        assertEquals(0, first.getStarted());
+        assertEquals(100, first.getPosition());
+        assertEquals(1000, first.getTotal());
+
+        // Numbers given as strings or decimals
+        EpisodeAction second = actions.get(2);
+        assertEquals(new Date(1609491600000L), second.getTimestamp());
+        assertEquals(100, second.getStarted());
+        assertEquals(200, second.getPosition());
+
+        EpisodeAction newAction = actions.get(3);
+        assertEquals(PODCAST_B, newAction.getPodcast());
+        assertEquals("b-1", newAction.getGuid());
+
+        // Play action without position, and without timestamp
+        EpisodeAction last = actions.get(6);
+        assertNull(last.getTimestamp());
+        assertEquals(-1, last.getPosition());
+        assertEquals(-1, last.getTotal());
+    }
+
+    @Test
+    public void testReadEpisodeActionsSharesPodcastUrls() throws Exception {
+        List<EpisodeAction> actions = new ArrayList<>();
+        try (Reader reader = openFixture()) {
+            ResponseMapper.readEpisodeActions(reader, actions::addAll, 3);
+        }
+        // Also across batches
+        assertSame(actions.get(0).getPodcast(), actions.get(1).getPodcast());
+        assertSame(actions.get(0).getPodcast(), actions.get(5).getPodcast());
+        assertSame(actions.get(3).getPodcast(), actions.get(6).getPodcast());
+    }
+
+    @Test
+    public void testReadEpisodeActionsEmpty() throws Exception {
+        List<List<EpisodeAction>> batches = new ArrayList<>();
+        long timestamp = ResponseMapper.readEpisodeActions(
+                new StringReader("{\"actions\": [], \"timestamp\": 12}"), batches::add, 3);
+        assertEquals(12L, timestamp);
+        assertTrue(batches.isEmpty());
+    }
+
+    @Test(expected = IOException.class)
+    public void testReadEpisodeActionsWithoutTimestamp() throws Exception {
+        ResponseMapper.readEpisodeActions(new StringReader("{\"actions\": []}"), actions -> { }, 3);
+    }
+
+    private Reader openFixture() {
+        return new InputStreamReader(getClass().getClassLoader().getResourceAsStream("episode-actions.json"),
+                StandardCharsets.UTF_8);
+    }
+}
@@ -8,7 +8,6 @@ import androidx.annotation.NonNull;
 import org.json.JSONException;
 import org.json.JSONObject;
 
-import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.Locale;
@@ -19,7 +18,6 @@ import de.danoeh.antennapod.model.feed.FeedItem;
 
 public class EpisodeAction {
     private static final String TAG = "EpisodeAction";
-    private static final String PATTERN_ISO_DATEFORMAT = "yyyy-MM-dd'T'HH:mm:ss";
     public static final Action NEW = Action.NEW;
     public static final Action DOWNLOAD = Action.DOWNLOAD;
     public static final Action PLAY = Action.PLAY;
@@ -53,6 +51,13 @@ public class EpisodeAction {
      * @return episode action object, or null if mandatory values are missing
      */
     public static EpisodeAction readFromJsonObject(JSONObject object) {
+        return readFromJsonObject(object, new UtcTimestampParser());
+    }
+
+    /**
+     * Like {@link #readFromJsonObject(JSONObject)}, reusing the timestamp parser for many actions.
+     */
+    public static EpisodeAction readFromJsonObject(JSONObject object, UtcTimestampParser timestampParser) {
         String podcast = object.optString("podcast", null);
         String episode = object.optString("episode", null);
         String actionString = object.optString("action", null);
@@ -68,13 +73,7 @@ public class EpisodeAction {
         EpisodeAction.Builder builder = new EpisodeAction.Builder(podcast, episode, action);
         String utcTimestamp = object.optString("timestamp", null);
         if (!TextUtils.isEmpty(utcTimestamp)) {
-            try {
-                SimpleDateFormat parser = new SimpleDateFormat(PATTERN_ISO_DATEFORMAT, Locale.US);
-                parser.setTimeZone(TimeZone.getTimeZone("UTC"));
-                builder.timestamp(parser.parse(utcTimestamp));
-            } catch (ParseException e) {
-                e.printStackTrace();
-            }
+            builder.timestamp(timestampParser.parse(utcTimestamp));
         }
         String guid = object.optString("guid", null);
         if (!TextUtils.isEmpty(guid)) {
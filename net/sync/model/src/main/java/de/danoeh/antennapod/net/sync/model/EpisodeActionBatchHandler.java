@@ -0,0 +1,15 @@
+package de.danoeh.antennapod.net.sync.model;
+
+import androidx.annotation.NonNull;
+
+import java.util.List;
+
+/**
+ * Receives the episode actions of a sync response while it is being read.
+ */
+public interface EpisodeActionBatchHandler {
+    /**
+     * @param episodeActions A batch of actions in the order of the response. Owned by the handler.
+     */
+    void onEpisodeActions(@NonNull List<EpisodeAction> episodeActions) throws SyncServiceException;
+}
@@ -11,7 +11,12 @@ public interface ISyncService {
     UploadChangesResponse uploadSubscriptionChanges(
             List<String> addedFeeds, List<String> removedFeeds) throws SyncServiceException;
 
-    EpisodeActionChanges getEpisodeActionChanges(long lastSync) throws SyncServiceException;
+    /**
+     * Passes the episode actions since lastSync to the handler while the response is being read.
+     *
+     * @return The timestamp of the response
+     */
+    long getEpisodeActionChanges(long lastSync, EpisodeActionBatchHandler handler) throws SyncServiceException;
 
     UploadChangesResponse uploadEpisodeActions(List<EpisodeAction> queuedEpisodeActions)
             throws SyncServiceException;
@@ -0,0 +1,89 @@
+package de.danoeh.antennapod.net.sync.model;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.TimeZone;
+
+/**
+ * Parses the "yyyy-MM-dd'T'HH:mm:ss" UTC timestamps of episode actions.
+ * Well-formed timestamps are parsed without creating a date format, which is expensive
+ * when a sync response contains thousands of actions. Like the date format, text after
+ * the seconds is ignored. Instances are not thread-safe, but can be reused.
+ */
+public class UtcTimestampParser {
+    private static final String PATTERN_ISO_DATEFORMAT = "yyyy-MM-dd'T'HH:mm:ss";
+    private static final int LENGTH = 19;
+
+    private SimpleDateFormat fallbackFormat;
+
+    /**
+     * @return The date, or null if the timestamp could not be parsed
+     */
+    @Nullable
+    public Date parse(@NonNull String timestamp) {
+        long millis = parseWellFormed(timestamp);
+        if (millis != Long.MIN_VALUE) {
+            return new Date(millis);
+        }
+        if (fallbackFormat == null) {
+            fallbackFormat = new SimpleDateFormat(PATTERN_ISO_DATEFORMAT, Locale.US);
+            fallbackFormat.setTimeZone(TimeZone.getTimeZone("UTC"));
+        }
+        try {
+            return fallbackFormat.parse(timestamp);
+        } catch (ParseException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @return Milliseconds since the epoch, or Long.MIN_VALUE if the timestamp is not in the expected form
+     */
+    private static long parseWellFormed(String timestamp) {
+        if (timestamp.length() < LENGTH || timestamp.charAt(4) != '-' || timestamp.charAt(7) != '-'
+                || timestamp.charAt(10) != 'T' || timestamp.charAt(13) != ':' || timestamp.charAt(16) != ':') {
+            return Long.MIN_VALUE;
+        }
+        int year = digits(timestamp, 0, 4);
+        int month = digits(timestamp, 5, 2);
+        int day = digits(timestamp, 8, 2);
+        int hour = digits(timestamp, 11, 2);
+        int minute = digits(timestamp, 14, 2);
+        int second = digits(timestamp, 17, 2);
+        if (year < 1 || month < 1 || month > 12 || day < 1 || day > 31
+                || hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59) {
+            return Long.MIN_VALUE; // Let the lenient date format handle anything unusual
+        }
+        long days = daysSinceEpoch(year, month, day);
+        return ((days * 24 + hour) * 60 + minute) * 60_000L + second * 1000L;
+    }
+
+    private static int digits(String text, int start, int count) {
+        int value = 0;
+        for (int i = start; i < start + count; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    /**
+     * Days since 1970-01-01 in the proleptic Gregorian calendar.
+     */
+    private static long daysSinceEpoch(int year, int month, int day) {
+        int y = month <= 2 ? year - 1 : year;
+        int era = y / 400;
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097L + dayOfEra - 719468;
+    }
+}
@@ -0,0 +1,47 @@
+package de.danoeh.antennapod.net.sync.model;
+
+import org.junit.Test;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.Random;
+import java.util.TimeZone;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class UtcTimestampParserTest {
+    @Test
+    public void testParse() {
+        UtcTimestampParser parser = new UtcTimestampParser();
+        assertEquals(new Date(1260608400000L), parser.parse("2009-12-12T09:00:00"));
+        assertEquals(new Date(1582934399000L), parser.parse("2020-02-28T23:59:59"));
+        assertEquals(new Date(0), parser.parse("1970-01-01T00:00:00"));
+    }
+
+    @Test
+    public void testIgnoresTrailingText() {
+        UtcTimestampParser parser = new UtcTimestampParser();
+        assertEquals(new Date(1260608400000L), parser.parse("2009-12-12T09:00:00.123Z"));
+    }
+
+    @Test
+    public void testInvalid() {
+        UtcTimestampParser parser = new UtcTimestampParser();
+        assertNull(parser.parse(""));
+        assertNull(parser.parse("yesterday"));
+    }
+
+    @Test
+    public void testSameAsDateFormat() throws Exception {
+        SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss", Locale.US);
+        format.setTimeZone(TimeZone.getTimeZone("UTC"));
+        UtcTimestampParser parser = new UtcTimestampParser();
+        Random random = new Random(42);
+        for (int i = 0; i < 1000; i++) {
+            String timestamp = format.format(new Date((long) (random.nextDouble() * 4102444800000L)));
+            assertEquals(format.parse(timestamp), parser.parse(timestamp));
+        }
+    }
+}
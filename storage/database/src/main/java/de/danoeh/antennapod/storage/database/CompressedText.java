@@ -0,0 +1,95 @@
+package de.danoeh.antennapod.storage.database;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.regex.Pattern;
+import java.util.zip.Inflater;
+
+/**
+ * Stores long texts like episode descriptions deflate-compressed.
+ * Show notes are mostly HTML, which usually compresses to a fraction of its size.
+ */
+class CompressedText {
+    private static final int BUFFER_SIZE = 8 * 1024;
+    private static final Pattern HTML_TAG = Pattern.compile("<[^>]*>");
+    private static final Pattern WHITESPACE = Pattern.compile("(\\s|&nbsp;)+");
+
+    private CompressedText() {
+    }
+
+    @NonNull
+    static byte[] compress(@NonNull String text) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            deflater.setInput(text.getBytes(StandardCharsets.UTF_8));
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[BUFFER_SIZE];
+            while (!deflater.finished()) {
+                int length = deflater.deflate(buffer);
+                out.write(buffer, 0, length);
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    @Nullable
+    static String decompress(@Nullable byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(data.length * 4);
+            byte[] buffer = new byte[BUFFER_SIZE];
+            while (!inflater.finished()) {
+                int length = inflater.inflate(buffer);
+                if (length == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    return null; // Truncated
+                }
+                out.write(buffer, 0, length);
+            }
+            return new String(out.toByteArray(), StandardCharsets.UTF_8);
+        } catch (DataFormatException e) {
+            return null;
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /**
+     * 64 bit hash of the text, used to detect changes without loading the stored text.
+     */
+    static long hash(@NonNull String text) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-1").digest(text.getBytes(StandardCharsets.UTF_8));
+            long hash = 0;
+            for (int i = 0; i < 8; i++) {
+                hash = (hash << 8) | (digest[i] & 0xff);
+            }
+            return hash;
+        } catch (NoSuchAlgorithmException e) {
+            return ((long) text.hashCode() << 32) | text.length();
+        }
+    }
+
+    /**
+     * Text of a description without markup, as episode search matches it.
+     */
+    @NonNull
+    static String toSearchText(@NonNull String html) {
+        String text = HTML_TAG.matcher(html).replaceAll(" ");
+        text = WHITESPACE.matcher(text).replaceAll(" ");
+        return text.replace("&amp;", "&").trim();
+    }
+}
@@ -334,6 +334,70 @@ class DBUpgrader {
             db.execSQL("ALTER TABLE " + PodDBAdapter.TABLE_NAME_FEEDS
                     + " ADD COLUMN " + PodDBAdapter.KEY_NEW_EPISODES_ACTION + " INTEGER DEFAULT 0");
         }
+        if (oldVersion < 3020000) {
+            db.execSQL("ALTER TABLE " + PodDBAdapter.TABLE_NAME_FEED_MEDIA
+                    + " ADD COLUMN " + PodDBAdapter.KEY_LAST_MODIFIED + " INTEGER DEFAULT 0");
+            db.execSQL(PodDBAdapter.CREATE_TABLE_PLAYBACK_STATISTICS);
+            db.execSQL("INSERT INTO " + PodDBAdapter.TABLE_NAME_PLAYBACK_STATISTICS
+                    + " (" + PodDBAdapter.KEY_FEED + ", " + PodDBAdapter.KEY_DAY + ", "
+                    + PodDBAdapter.KEY_PLAYED_DURATION + ")"
+                    + " SELECT " + PodDBAdapter.TABLE_NAME_FEED_ITEMS + "." + PodDBAdapter.KEY_FEED + ", "
+                    + PodDBAdapter.KEY_LAST_PLAYED_TIME + " / 86400000 AS day, "
+                    + "SUM(" + PodDBAdapter.KEY_PLAYED_DURATION + ")"
+                    + " FROM " + PodDBAdapter.TABLE_NAME_FEED_MEDIA
+                    + " INNER JOIN " + PodDBAdapter.TABLE_NAME_FEED_ITEMS
+                    + " ON " + PodDBAdapter.TABLE_NAME_FEED_MEDIA + "." + PodDBAdapter.KEY_FEEDITEM
+                    + " = " + PodDBAdapter.TABLE_NAME_FEED_ITEMS + "." + PodDBAdapter.KEY_ID
+                    + " WHERE " + PodDBAdapter.KEY_LAST_PLAYED_TIME + " > 0"
+                    + " AND " + PodDBAdapter.KEY_PLAYED_DURATION + " > 0"
+                    + " GROUP BY " + PodDBAdapter.TABLE_NAME_FEED_ITEMS + "." + PodDBAdapter.KEY_FEED + ", day");
+            db.execSQL(PodDBAdapter.CREATE_TABLE_DESCRIPTIONS);
+            moveDescriptionsToCompressedTable(db);
+
+            // Covers everything the old index on the feed column was used for
+            db.execSQL("DROP INDEX IF EXISTS " + PodDBAdapter.TABLE_NAME_FEED_ITEMS + "_" + PodDBAdapter.KEY_FEED);
+            db.execSQL(PodDBAdapter.CREATE_INDEX_FEEDITEMS_FEED_PUBDATE);
+            db.execSQL(PodDBAdapter.CREATE_INDEX_FEEDITEMS_ITEM_IDENTIFIER);
+            db.execSQL(PodDBAdapter.CREATE_INDEX_FEEDITEMS_IMAGE_URL);
+            db.execSQL(PodDBAdapter.CREATE_INDEX_FEEDMEDIA_DOWNLOAD_URL);
+            db.execSQL(PodDBAdapter.CREATE_INDEX_FEEDMEDIA_DOWNLOADED);
+            db.execSQL(PodDBAdapter.CREATE_INDEX_FEEDMEDIA_PLAYBACK_COMPLETION_DATE);
+            db.execSQL(PodDBAdapter.CREATE_INDEX_FEEDMEDIA_LAST_PLAYED_TIME);
+        }
+    }
+
+    /**
+     * Moves the descriptions in chunks, so that not all of them need to be in memory at the same time.
+     */
+    private static void moveDescriptionsToCompressedTable(final SQLiteDatabase db) {
+        final String selectChunk = "SELECT " + PodDBAdapter.KEY_ID + ", " + PodDBAdapter.KEY_DESCRIPTION
+                + " FROM " + PodDBAdapter.TABLE_NAME_FEED_ITEMS
+                + " WHERE " + PodDBAdapter.KEY_DESCRIPTION + " IS NOT NULL LIMIT 500";
+        while (true) {
+            StringBuilder itemIds = new StringBuilder();
+            try (Cursor cursor = db.rawQuery(selectChunk, null)) {
+                if (!cursor.moveToFirst()) {
+                    return;
+                }
+                do {
+                    long itemId = cursor.getLong(0);
+                    String description = cursor.getString(1);
+                    ContentValues values = new ContentValues();
+                    values.put(PodDBAdapter.KEY_FEEDITEM, itemId);
+                    values.put(PodDBAdapter.KEY_DESCRIPTION, CompressedText.compress(description));
+                    values.put(PodDBAdapter.KEY_DESCRIPTION_HASH, CompressedText.hash(description));
+                    db.insertWithOnConflict(PodDBAdapter.TABLE_NAME_DESCRIPTIONS, null, values,
+                            SQLiteDatabase.CONFLICT_REPLACE);
+                    if (itemIds.length() != 0) {
+                        itemIds.append(",");
+                    }
+                    itemIds.append(itemId);
+                } while (cursor.moveToNext());
+            }
+            db.execSQL("UPDATE " + PodDBAdapter.TABLE_NAME_FEED_ITEMS
+                    + " SET " + PodDBAdapter.KEY_DESCRIPTION + " = NULL"
+                    + " WHERE " + PodDBAdapter.KEY_ID + " IN (" + itemIds + ")");
+        }
     }
 
 }
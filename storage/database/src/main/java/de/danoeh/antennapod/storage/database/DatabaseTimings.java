@@ -0,0 +1,155 @@
+package de.danoeh.antennapod.storage.database;
+
+import androidx.annotation.NonNull;
+
+import java.text.DateFormat;
+import java.util.ArrayDeque;
+import java.util.Date;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Opt-in timing of database work, to find out which screens and refresh steps wait for storage.
+ * Keeps a latency histogram per query and per database task, the rows returned, the time tasks wait
+ * in the executor queue and the SQL of slow queries. Nothing is recorded unless enabled.
+ */
+public class DatabaseTimings {
+    public static final long SLOW_QUERY_MILLIS = 100;
+    private static final int MAX_SLOW_QUERIES = 20;
+    /** Upper bounds of the histogram buckets. The last bucket holds everything above. */
+    private static final long[] BUCKET_BOUNDS_MILLIS = {1, 4, 16, 64, 256, 1024};
+
+    private static volatile boolean enabled = false;
+    private static final Map<String, Entry> queries = new TreeMap<>();
+    private static final Map<String, Entry> tasks = new TreeMap<>();
+    private static final ArrayDeque<String> slowQueries = new ArrayDeque<>();
+    private static int maxQueueDepth = 0;
+    private static long since = System.currentTimeMillis();
+
+    private DatabaseTimings() {
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(boolean enabled) {
+        DatabaseTimings.enabled = enabled;
+    }
+
+    public static synchronized void reset() {
+        queries.clear();
+        tasks.clear();
+        slowQueries.clear();
+        maxQueueDepth = 0;
+        since = System.currentTimeMillis();
+    }
+
+    /**
+     * @param type Name of the method that built the query
+     */
+    public static synchronized void recordQuery(@NonNull String type, @NonNull String sql,
+                                                long durationNanos, int rows) {
+        Entry entry = getEntry(queries, type);
+        entry.add(durationNanos);
+        entry.rows += rows;
+        long durationMillis = TimeUnit.NANOSECONDS.toMillis(durationNanos);
+        if (durationMillis >= SLOW_QUERY_MILLIS) {
+            if (slowQueries.size() >= MAX_SLOW_QUERIES) {
+                slowQueries.removeFirst();
+            }
+            slowQueries.addLast(DateFormat.getTimeInstance().format(new Date()) + " " + type + ", "
+                    + durationMillis + " ms, " + rows + " rows: " + sql);
+        }
+    }
+
+    /**
+     * @param type Name of the method that submitted the task
+     * @param queueDepth Number of tasks that were waiting when this task was submitted
+     */
+    public static synchronized void recordTask(@NonNull String type, long waitNanos, long runNanos,
+                                               int queueDepth) {
+        Entry entry = getEntry(tasks, type);
+        entry.add(runNanos);
+        entry.totalWaitNanos += waitNanos;
+        entry.maxWaitNanos = Math.max(entry.maxWaitNanos, waitNanos);
+        maxQueueDepth = Math.max(maxQueueDepth, queueDepth);
+    }
+
+    private static Entry getEntry(Map<String, Entry> entries, String type) {
+        Entry entry = entries.get(type);
+        if (entry == null) {
+            entry = new Entry();
+            entries.put(type, entry);
+        }
+        return entry;
+    }
+
+    @NonNull
+    public static synchronized String getReport() {
+        StringBuilder report = new StringBuilder();
+        report.append("Database timings since ")
+                .append(DateFormat.getDateTimeInstance().format(new Date(since)))
+                .append(enabled ? "" : " (recording disabled)")
+                .append("\n\nHistogram buckets: ");
+        for (long bound : BUCKET_BOUNDS_MILLIS) {
+            report.append("<").append(bound).append(" ");
+        }
+        report.append(">=").append(BUCKET_BOUNDS_MILLIS[BUCKET_BOUNDS_MILLIS.length - 1]).append(" ms\n");
+
+        report.append("\nQueries\n");
+        for (Map.Entry<String, Entry> query : queries.entrySet()) {
+            Entry entry = query.getValue();
+            report.append(query.getKey()).append(": ");
+            entry.appendTo(report);
+            report.append(", ").append(entry.rows).append(" rows\n");
+        }
+
+        report.append("\nDatabase tasks (max queue depth ").append(maxQueueDepth).append(")\n");
+        for (Map.Entry<String, Entry> task : tasks.entrySet()) {
+            Entry entry = task.getValue();
+            report.append(task.getKey()).append(": ");
+            entry.appendTo(report);
+            report.append(String.format(Locale.US, ", waited avg %.1f ms, max %d ms\n",
+                    entry.totalWaitNanos / 1e6 / entry.count, TimeUnit.NANOSECONDS.toMillis(entry.maxWaitNanos)));
+        }
+
+        report.append("\nSlow queries (>= ").append(SLOW_QUERY_MILLIS).append(" ms)\n");
+        for (String slowQuery : slowQueries) {
+            report.append(slowQuery).append("\n");
+        }
+        return report.toString();
+    }
+
+    private static class Entry {
+        int count;
+        long totalNanos;
+        long maxNanos;
+        long rows;
+        long totalWaitNanos;
+        long maxWaitNanos;
+        final int[] histogram = new int[BUCKET_BOUNDS_MILLIS.length + 1];
+
+        void add(long durationNanos) {
+            count++;
+            totalNanos += durationNanos;
+            maxNanos = Math.max(maxNanos, durationNanos);
+            long durationMillis = TimeUnit.NANOSECONDS.toMillis(durationNanos);
+            int bucket = 0;
+            while (bucket < BUCKET_BOUNDS_MILLIS.length && durationMillis >= BUCKET_BOUNDS_MILLIS[bucket]) {
+                bucket++;
+            }
+            histogram[bucket]++;
+        }
+
+        void appendTo(StringBuilder report) {
+            report.append(String.format(Locale.US, "%d times, avg %.1f ms, max %d ms, histogram",
+                    count, totalNanos / 1e6 / count, TimeUnit.NANOSECONDS.toMillis(maxNanos)));
+            for (int bucketCount : histogram) {
+                report.append(" ").append(bucketCount);
+            }
+        }
+    }
+}
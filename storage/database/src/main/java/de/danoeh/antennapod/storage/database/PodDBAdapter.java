@@ -10,7 +10,10 @@ import android.database.SQLException;
 import android.database.sqlite.SQLiteDatabase;
 import android.database.sqlite.SQLiteDatabase.CursorFactory;
 import android.database.sqlite.SQLiteOpenHelper;
+import android.database.sqlite.SQLiteQueryBuilder;
+import android.database.sqlite.SQLiteStatement;
 import android.text.TextUtils;
+import android.text.format.DateUtils;
 import android.util.Log;
 
 import androidx.annotation.NonNull;
@@ -22,6 +25,7 @@ import de.danoeh.antennapod.model.feed.FeedFunding;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
@@ -52,13 +56,19 @@ public class PodDBAdapter {
 
     private static final String TAG = "PodDBAdapter";
     public static final String DATABASE_NAME = "Antennapod.db";
-    public static final int VERSION = 3010000;
+    public static final int VERSION = 3020000;
 
     /**
      * Maximum number of arguments for IN-operator.
      */
     private static final int IN_OPERATOR_MAXIMUM = 800;
 
+    /**
+     * Distance between the positions of neighbouring queue items after the queue was written as a whole.
+     * Items that are inserted or moved get a position in the gap between their new neighbours.
+     */
+    public static final long QUEUE_POSITION_GAP = 1 << 16;
+
     // Key-constants
     public static final String KEY_ID = "id";
     public static final String KEY_TITLE = "title";
@@ -110,6 +120,9 @@ public class PodDBAdapter {
     public static final String KEY_LAST_UPDATE_FAILED = "last_update_failed";
     public static final String KEY_HAS_EMBEDDED_PICTURE = "has_embedded_picture";
     public static final String KEY_LAST_PLAYED_TIME = "last_played_time";
+    public static final String KEY_LAST_MODIFIED = "last_modified";
+    public static final String KEY_DAY = "day";
+    public static final String KEY_DESCRIPTION_HASH = "description_hash";
     public static final String KEY_INCLUDE_FILTER = "include_filter";
     public static final String KEY_EXCLUDE_FILTER = "exclude_filter";
     public static final String KEY_MINIMAL_DURATION_FILTER = "minimal_duration_filter";
@@ -130,6 +143,8 @@ public class PodDBAdapter {
     public static final String TABLE_NAME_QUEUE = "Queue";
     public static final String TABLE_NAME_SIMPLECHAPTERS = "SimpleChapters";
     public static final String TABLE_NAME_FAVORITES = "Favorites";
+    public static final String TABLE_NAME_PLAYBACK_STATISTICS = "PlaybackStatistics";
+    public static final String TABLE_NAME_DESCRIPTIONS = "Descriptions";
 
     // SQL Statements for creating new tables
     private static final String TABLE_PRIMARY_KEY = KEY_ID
@@ -183,7 +198,8 @@ public class PodDBAdapter {
             + KEY_FEEDITEM + " INTEGER,"
             + KEY_PLAYED_DURATION + " INTEGER,"
             + KEY_HAS_EMBEDDED_PICTURE + " INTEGER,"
-            + KEY_LAST_PLAYED_TIME + " INTEGER" + ")";
+            + KEY_LAST_PLAYED_TIME + " INTEGER,"
+            + KEY_LAST_MODIFIED + " INTEGER DEFAULT 0" + ")";
 
     private static final String CREATE_TABLE_DOWNLOAD_LOG = "CREATE TABLE "
             + TABLE_NAME_DOWNLOAD_LOG + " (" + TABLE_PRIMARY_KEY + KEY_FEEDFILE
@@ -226,10 +242,55 @@ public class PodDBAdapter {
             + TABLE_NAME_SIMPLECHAPTERS + "_" + KEY_FEEDITEM + " ON " + TABLE_NAME_SIMPLECHAPTERS + " ("
             + KEY_FEEDITEM + ")";
 
+    static final String CREATE_INDEX_FEEDITEMS_FEED_PUBDATE = "CREATE INDEX "
+            + TABLE_NAME_FEED_ITEMS + "_" + KEY_FEED + "_" + KEY_PUBDATE + " ON " + TABLE_NAME_FEED_ITEMS + " ("
+            + KEY_FEED + ", " + KEY_PUBDATE + ")";
+
+    static final String CREATE_INDEX_FEEDITEMS_ITEM_IDENTIFIER = "CREATE INDEX "
+            + TABLE_NAME_FEED_ITEMS + "_" + KEY_ITEM_IDENTIFIER + " ON " + TABLE_NAME_FEED_ITEMS + " ("
+            + KEY_ITEM_IDENTIFIER + ")";
+
+    static final String CREATE_INDEX_FEEDITEMS_IMAGE_URL = "CREATE INDEX "
+            + TABLE_NAME_FEED_ITEMS + "_" + KEY_IMAGE_URL + " ON " + TABLE_NAME_FEED_ITEMS + " ("
+            + KEY_IMAGE_URL + ")";
+
+    static final String CREATE_INDEX_FEEDMEDIA_DOWNLOAD_URL = "CREATE INDEX "
+            + TABLE_NAME_FEED_MEDIA + "_" + KEY_DOWNLOAD_URL + " ON " + TABLE_NAME_FEED_MEDIA + " ("
+            + KEY_DOWNLOAD_URL + ")";
+
+    static final String CREATE_INDEX_FEEDMEDIA_DOWNLOADED = "CREATE INDEX "
+            + TABLE_NAME_FEED_MEDIA + "_" + KEY_DOWNLOADED + " ON " + TABLE_NAME_FEED_MEDIA + " ("
+            + KEY_DOWNLOADED + ")";
+
+    static final String CREATE_INDEX_FEEDMEDIA_PLAYBACK_COMPLETION_DATE = "CREATE INDEX "
+            + TABLE_NAME_FEED_MEDIA + "_" + KEY_PLAYBACK_COMPLETION_DATE + " ON " + TABLE_NAME_FEED_MEDIA + " ("
+            + KEY_PLAYBACK_COMPLETION_DATE + ")";
+
+    static final String CREATE_INDEX_FEEDMEDIA_LAST_PLAYED_TIME = "CREATE INDEX "
+            + TABLE_NAME_FEED_MEDIA + "_" + KEY_LAST_PLAYED_TIME + " ON " + TABLE_NAME_FEED_MEDIA + " ("
+            + KEY_LAST_PLAYED_TIME + ")";
+
     static final String CREATE_TABLE_FAVORITES = "CREATE TABLE "
             + TABLE_NAME_FAVORITES + "(" + KEY_ID + " INTEGER PRIMARY KEY,"
             + KEY_FEEDITEM + " INTEGER," + KEY_FEED + " INTEGER)";
 
+    /**
+     * Played duration per feed and day (days since the epoch, UTC).
+     * Updated while playing, so statistics do not need to aggregate all media.
+     */
+    static final String CREATE_TABLE_PLAYBACK_STATISTICS = "CREATE TABLE "
+            + TABLE_NAME_PLAYBACK_STATISTICS + "(" + KEY_FEED + " INTEGER," + KEY_DAY + " INTEGER,"
+            + KEY_PLAYED_DURATION + " INTEGER DEFAULT 0,"
+            + "PRIMARY KEY(" + KEY_FEED + "," + KEY_DAY + "))";
+
+    /**
+     * Episode descriptions, compressed. Kept out of the FeedItems table so that lists do not page them in,
+     * and with a hash, so that a feed refresh only rewrites descriptions that actually changed.
+     */
+    static final String CREATE_TABLE_DESCRIPTIONS = "CREATE TABLE "
+            + TABLE_NAME_DESCRIPTIONS + "(" + KEY_FEEDITEM + " INTEGER PRIMARY KEY,"
+            + KEY_DESCRIPTION + " BLOB," + KEY_DESCRIPTION_HASH + " INTEGER)";
+
     /**
      * All the tables in the database
      */
@@ -240,7 +301,9 @@ public class PodDBAdapter {
             TABLE_NAME_DOWNLOAD_LOG,
             TABLE_NAME_QUEUE,
             TABLE_NAME_SIMPLECHAPTERS,
-            TABLE_NAME_FAVORITES
+            TABLE_NAME_FAVORITES,
+            TABLE_NAME_PLAYBACK_STATISTICS,
+            TABLE_NAME_DESCRIPTIONS
     };
 
     public static final String SELECT_KEY_ITEM_ID = "item_id";
@@ -275,7 +338,8 @@ public class PodDBAdapter {
             + TABLE_NAME_FEED_MEDIA + "." + KEY_FEEDITEM + ", "
             + TABLE_NAME_FEED_MEDIA + "." + KEY_PLAYED_DURATION + ", "
             + TABLE_NAME_FEED_MEDIA + "." + KEY_HAS_EMBEDDED_PICTURE + ", "
-            + TABLE_NAME_FEED_MEDIA + "." + KEY_LAST_PLAYED_TIME;
+            + TABLE_NAME_FEED_MEDIA + "." + KEY_LAST_PLAYED_TIME + ", "
+            + TABLE_NAME_FEED_MEDIA + "." + KEY_LAST_MODIFIED;
 
     private static final String KEYS_FEED =
             TABLE_NAME_FEEDS + "." + KEY_ID + " AS " + SELECT_KEY_FEED_ID + ", "
@@ -317,11 +381,20 @@ public class PodDBAdapter {
     private static final String JOIN_FEED_ITEM_AND_MEDIA = " LEFT JOIN " + TABLE_NAME_FEED_MEDIA
             + " ON " + TABLE_NAME_FEED_ITEMS + "." + KEY_ID + "=" + TABLE_NAME_FEED_MEDIA + "." + KEY_FEEDITEM + " ";
 
-    private static final String SELECT_FEED_ITEMS_AND_MEDIA_WITH_DESCRIPTION =
-            "SELECT " + KEYS_FEED_ITEM_WITHOUT_DESCRIPTION + ", " + KEYS_FEED_MEDIA + ", "
-                    + TABLE_NAME_FEED_ITEMS + "." + KEY_DESCRIPTION
+    private static final String SELECT_MEDIA_BROWSER_ITEMS = "SELECT "
+            + TABLE_NAME_FEED_MEDIA + "." + KEY_ID + ", "
+            + TABLE_NAME_FEED_ITEMS + "." + KEY_TITLE + ", "
+            + TABLE_NAME_FEEDS + "." + KEY_TITLE + ", "
+            + TABLE_NAME_FEEDS + "." + KEY_CUSTOM_TITLE + ", "
+            + "IFNULL(" + TABLE_NAME_FEED_ITEMS + "." + KEY_IMAGE_URL + ", "
+                + TABLE_NAME_FEEDS + "." + KEY_IMAGE_URL + "), "
+            + TABLE_NAME_FEED_MEDIA + "." + KEY_DURATION
             + " FROM " + TABLE_NAME_FEED_ITEMS
-            + JOIN_FEED_ITEM_AND_MEDIA;
+            + " INNER JOIN " + TABLE_NAME_FEED_MEDIA
+            + " ON " + TABLE_NAME_FEED_ITEMS + "." + KEY_ID + "=" + TABLE_NAME_FEED_MEDIA + "." + KEY_FEEDITEM
+            + " INNER JOIN " + TABLE_NAME_FEEDS
+            + " ON " + TABLE_NAME_FEED_ITEMS + "." + KEY_FEED + "=" + TABLE_NAME_FEEDS + "." + KEY_ID;
+
     private static final String SELECT_FEED_ITEMS_AND_MEDIA =
             "SELECT " + KEYS_FEED_ITEM_WITHOUT_DESCRIPTION + ", " + KEYS_FEED_MEDIA
             + " FROM " + TABLE_NAME_FEED_ITEMS
@@ -329,6 +402,7 @@ public class PodDBAdapter {
 
     private static Context context;
     private static PodDBAdapter instance;
+    private static volatile QueryObserver queryObserver;
 
     private final SQLiteDatabase db;
     private final PodDBHelper dbHelper;
@@ -361,6 +435,74 @@ public class PodDBAdapter {
         return newDb;
     }
 
+    /**
+     * Receives the SQL of every query that reads from the database.
+     */
+    public interface QueryObserver {
+        void onQuery(@NonNull String sql);
+    }
+
+    @VisibleForTesting(otherwise = VisibleForTesting.NONE)
+    public static void setQueryObserver(@Nullable QueryObserver observer) {
+        queryObserver = observer;
+    }
+
+    private Cursor rawQuery(String sql, @Nullable String[] selectionArgs) {
+        QueryObserver observer = queryObserver;
+        if (observer != null) {
+            observer.onQuery(sql);
+        }
+        if (!DatabaseTimings.isEnabled()) {
+            return db.rawQuery(sql, selectionArgs);
+        }
+        long start = System.nanoTime();
+        Cursor cursor = db.rawQuery(sql, selectionArgs);
+        int rows = cursor.getCount(); // The query only runs when the cursor is first accessed
+        DatabaseTimings.recordQuery(getQueryType(), sql, System.nanoTime() - start, rows);
+        return cursor;
+    }
+
+    /**
+     * @return Name of the method that built the query
+     */
+    private static String getQueryType() {
+        for (StackTraceElement element : new Throwable().getStackTrace()) {
+            String method = element.getMethodName();
+            if (element.getClassName().equals(PodDBAdapter.class.getName())
+                    && !"rawQuery".equals(method) && !"query".equals(method) && !"getQueryType".equals(method)) {
+                return method;
+            }
+        }
+        return "unknown";
+    }
+
+    private Cursor query(String table, String[] columns, String selection, String[] selectionArgs,
+                         String groupBy, String having, String orderBy) {
+        return query(table, columns, selection, selectionArgs, groupBy, having, orderBy, null);
+    }
+
+    private Cursor query(String table, String[] columns, String selection, String[] selectionArgs,
+                         String groupBy, String having, String orderBy, String limit) {
+        return rawQuery(SQLiteQueryBuilder.buildQueryString(false, table, columns, selection,
+                groupBy, having, orderBy, limit), selectionArgs);
+    }
+
+    /**
+     * Returns the steps SQLite takes to run the query, one "detail" line per step.
+     * Call method only for unit tests.
+     */
+    @VisibleForTesting(otherwise = VisibleForTesting.NONE)
+    public List<String> explainQueryPlan(@NonNull String sql) {
+        List<String> steps = new ArrayList<>();
+        try (Cursor cursor = db.rawQuery("EXPLAIN QUERY PLAN " + sql, null)) {
+            int detailIndex = cursor.getColumnIndexOrThrow("detail");
+            while (cursor.moveToNext()) {
+                steps.add(cursor.getString(detailIndex));
+            }
+        }
+        return steps;
+    }
+
     public synchronized PodDBAdapter open() {
         // do nothing
         return this;
@@ -399,6 +541,26 @@ public class PodDBAdapter {
         }
     }
 
+    /**
+     * Writes a consistent and compacted copy of the database to the given file, which must not exist yet.
+     * Needs SQLite 3.27, which is available starting with Android 11.
+     */
+    public void vacuumInto(File destination) {
+        db.execSQL("VACUUM INTO ?", new Object[]{destination.getAbsolutePath()});
+    }
+
+    /**
+     * Copies the database file while holding the connection, so that no transaction can change it in the meantime.
+     */
+    public void copyDatabaseFile(File destination) throws IOException {
+        db.beginTransactionNonExclusive();
+        try {
+            FileUtils.copyFile(new File(db.getPath()), destination);
+        } finally {
+            db.endTransaction();
+        }
+    }
+
     /**
      * Inserts or updates a feed entry
      *
@@ -496,6 +658,7 @@ public class PodDBAdapter {
         values.put(KEY_FILE_URL, media.getFile_url());
         values.put(KEY_HAS_EMBEDDED_PICTURE, media.hasEmbeddedPicture());
         values.put(KEY_LAST_PLAYED_TIME, media.getLastPlayedTime());
+        values.put(KEY_LAST_MODIFIED, media.getLastModified());
 
         if (media.getPlaybackCompletionDate() != null) {
             values.put(KEY_PLAYBACK_COMPLETION_DATE, media.getPlaybackCompletionDate().getTime());
@@ -540,12 +703,34 @@ public class PodDBAdapter {
         }
     }
 
+    /**
+     * Adds played time to the statistics of the feed on the given day.
+     *
+     * @param day Days since the epoch, UTC
+     */
+    public void addPlayedDuration(long feedId, long day, long duration) {
+        try {
+            db.beginTransactionNonExclusive();
+            db.execSQL("INSERT OR IGNORE INTO " + TABLE_NAME_PLAYBACK_STATISTICS
+                    + " (" + KEY_FEED + "," + KEY_DAY + ") VALUES (?,?)", new Object[]{feedId, day});
+            db.execSQL("UPDATE " + TABLE_NAME_PLAYBACK_STATISTICS
+                    + " SET " + KEY_PLAYED_DURATION + "=" + KEY_PLAYED_DURATION + "+?"
+                    + " WHERE " + KEY_FEED + "=? AND " + KEY_DAY + "=?", new Object[]{duration, feedId, day});
+            db.setTransactionSuccessful();
+        } catch (SQLException e) {
+            Log.e(TAG, Log.getStackTraceString(e));
+        } finally {
+            db.endTransaction();
+        }
+    }
+
     public void resetAllMediaPlayedDuration() {
         try {
             db.beginTransactionNonExclusive();
             ContentValues values = new ContentValues();
             values.put(KEY_PLAYED_DURATION, 0);
             db.update(TABLE_NAME_FEED_MEDIA, values, null, new String[0]);
+            db.delete(TABLE_NAME_PLAYBACK_STATISTICS, null, null);
             db.setTransactionSuccessful();
         } catch (SQLException e) {
             Log.e(TAG, Log.getStackTraceString(e));
@@ -634,9 +819,6 @@ public class PodDBAdapter {
         ContentValues values = new ContentValues();
         values.put(KEY_TITLE, item.getTitle());
         values.put(KEY_LINK, item.getLink());
-        if (item.getDescription() != null) {
-            values.put(KEY_DESCRIPTION, item.getDescription());
-        }
         values.put(KEY_PUBDATE, item.getPubDate().getTime());
         values.put(KEY_PAYMENT_LINK, item.getPaymentLink());
         if (saveFeed && item.getFeed() != null) {
@@ -662,6 +844,9 @@ public class PodDBAdapter {
             db.update(TABLE_NAME_FEED_ITEMS, values, KEY_ID + "=?",
                     new String[]{String.valueOf(item.getId())});
         }
+        if (item.getDescription() != null) {
+            setItemDescription(item.getId(), item.getDescription());
+        }
         if (item.getMedia() != null) {
             setMedia(item.getMedia());
         }
@@ -671,6 +856,24 @@ public class PodDBAdapter {
         return item.getId();
     }
 
+    /**
+     * Stores the description compressed, unless the stored one is the same.
+     */
+    private void setItemDescription(long itemId, @NonNull String description) {
+        long hash = CompressedText.hash(description);
+        try (Cursor cursor = query(TABLE_NAME_DESCRIPTIONS, new String[]{KEY_DESCRIPTION_HASH},
+                KEY_FEEDITEM + "=?", new String[]{String.valueOf(itemId)}, null, null, null)) {
+            if (cursor.moveToFirst() && cursor.getLong(0) == hash) {
+                return;
+            }
+        }
+        ContentValues values = new ContentValues();
+        values.put(KEY_FEEDITEM, itemId);
+        values.put(KEY_DESCRIPTION, CompressedText.compress(description));
+        values.put(KEY_DESCRIPTION_HASH, hash);
+        db.insertWithOnConflict(TABLE_NAME_DESCRIPTIONS, null, values, SQLiteDatabase.CONFLICT_REPLACE);
+    }
+
     public void setFeedItemRead(int played, long itemId, long mediaId,
                                 boolean resetMediaPosition) {
         try {
@@ -821,12 +1024,16 @@ public class PodDBAdapter {
     private boolean isItemInFavorites(FeedItem item) {
         String query = String.format(Locale.US, "SELECT %s from %s WHERE %s=%d",
                 KEY_ID, TABLE_NAME_FAVORITES, KEY_FEEDITEM, item.getId());
-        Cursor c = db.rawQuery(query, null);
+        Cursor c = rawQuery(query, null);
         int count = c.getCount();
         c.close();
         return count > 0;
     }
 
+    /**
+     * Replaces the whole queue. The items get evenly spaced positions, so that later single-item
+     * changes can usually be written without touching the other rows.
+     */
     public void setQueue(List<FeedItem> queue) {
         ContentValues values = new ContentValues();
         try {
@@ -834,7 +1041,7 @@ public class PodDBAdapter {
             db.delete(TABLE_NAME_QUEUE, null, null);
             for (int i = 0; i < queue.size(); i++) {
                 FeedItem item = queue.get(i);
-                values.put(KEY_ID, i);
+                values.put(KEY_ID, (i + 1) * QUEUE_POSITION_GAP);
                 values.put(KEY_FEEDITEM, item.getId());
                 values.put(KEY_FEED, item.getFeed().getId());
                 db.insertWithOnConflict(TABLE_NAME_QUEUE, null, values, SQLiteDatabase.CONFLICT_REPLACE);
@@ -851,6 +1058,92 @@ public class PodDBAdapter {
         db.delete(TABLE_NAME_QUEUE, null, null);
     }
 
+    /**
+     * Inserts items into the queue. The queue is ordered by position,
+     * so the caller needs to pick positions that are not used yet.
+     *
+     * @throws SQLException if writing failed. The queue is left unchanged then.
+     */
+    public void addQueueItems(long[] positions, long[] itemIds, long[] feedIds) {
+        ContentValues values = new ContentValues();
+        try {
+            db.beginTransactionNonExclusive();
+            for (int i = 0; i < itemIds.length; i++) {
+                values.put(KEY_ID, positions[i]);
+                values.put(KEY_FEEDITEM, itemIds[i]);
+                values.put(KEY_FEED, feedIds[i]);
+                db.insertOrThrow(TABLE_NAME_QUEUE, null, values);
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    /**
+     * Moves a single item of the queue to a position that is not used yet.
+     */
+    public void setQueueItemPosition(long itemId, long position) {
+        ContentValues values = new ContentValues();
+        values.put(KEY_ID, position);
+        db.update(TABLE_NAME_QUEUE, values, KEY_FEEDITEM + "=?", new String[]{String.valueOf(itemId)});
+    }
+
+    /**
+     * @throws SQLException if writing failed. The queue is left unchanged then.
+     */
+    public void removeQueueItems(long... itemIds) {
+        try {
+            db.beginTransactionNonExclusive();
+            for (int i = 0; i < itemIds.length; i += IN_OPERATOR_MAXIMUM) {
+                int end = Math.min(itemIds.length, i + IN_OPERATOR_MAXIMUM);
+                StringBuilder ids = new StringBuilder();
+                for (int j = i; j < end; j++) {
+                    if (j > i) {
+                        ids.append(",");
+                    }
+                    ids.append(itemIds[j]);
+                }
+                db.delete(TABLE_NAME_QUEUE, KEY_FEEDITEM + " IN (" + ids + ")", null);
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    /**
+     * Gives the queue items evenly spaced positions again, keeping their order.
+     * Needed when there is no free position left between two neighbouring items.
+     *
+     * @throws SQLException if writing failed. The queue is left unchanged then.
+     */
+    public void respaceQueue() {
+        long[] positions;
+        try (Cursor cursor = query(TABLE_NAME_QUEUE, new String[]{KEY_ID},
+                null, null, null, null, KEY_ID + " ASC")) {
+            positions = new long[cursor.getCount()];
+            for (int i = 0; cursor.moveToNext(); i++) {
+                positions[i] = cursor.getLong(0);
+            }
+        }
+        try {
+            db.beginTransactionNonExclusive();
+            // Positions are never negative, so moving everything out of the way first avoids conflicts
+            db.execSQL("UPDATE " + TABLE_NAME_QUEUE + " SET " + KEY_ID + " = -" + KEY_ID + " - 1");
+            SQLiteStatement statement = db.compileStatement("UPDATE " + TABLE_NAME_QUEUE
+                    + " SET " + KEY_ID + " = ? WHERE " + KEY_ID + " = ?");
+            for (int i = 0; i < positions.length; i++) {
+                statement.bindLong(1, (i + 1) * QUEUE_POSITION_GAP);
+                statement.bindLong(2, -positions[i] - 1);
+                statement.executeUpdateDelete();
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
     /**
      * Remove the listed items and their FeedMedia entries.
      */
@@ -873,6 +1166,7 @@ public class PodDBAdapter {
 
             db.beginTransactionNonExclusive();
             db.delete(TABLE_NAME_SIMPLECHAPTERS, KEY_FEEDITEM + " IN (" + itemIds + ")", null);
+            db.delete(TABLE_NAME_DESCRIPTIONS, KEY_FEEDITEM + " IN (" + itemIds + ")", null);
             db.delete(TABLE_NAME_DOWNLOAD_LOG, KEY_FEEDFILETYPE + "=" + FeedMedia.FEEDFILETYPE_FEEDMEDIA
                             + " AND " + KEY_FEEDFILE + " IN (" + mediaIds + ")", null);
             db.delete(TABLE_NAME_FEED_MEDIA, KEY_ID + " IN (" + mediaIds + ")", null);
@@ -898,6 +1192,8 @@ public class PodDBAdapter {
             db.delete(TABLE_NAME_DOWNLOAD_LOG, KEY_FEEDFILE + "=? AND " + KEY_FEEDFILETYPE + "=?",
                     new String[]{String.valueOf(feed.getId()), String.valueOf(Feed.FEEDFILETYPE_FEED)});
 
+            db.delete(TABLE_NAME_PLAYBACK_STATISTICS, KEY_FEED + "=?",
+                    new String[]{String.valueOf(feed.getId())});
             db.delete(TABLE_NAME_FEEDS, KEY_ID + "=?",
                     new String[]{String.valueOf(feed.getId())});
             db.setTransactionSuccessful();
@@ -927,11 +1223,11 @@ public class PodDBAdapter {
         final String query = "SELECT " + KEYS_FEED
                 + " FROM " + TABLE_NAME_FEEDS
                 + " ORDER BY " + TABLE_NAME_FEEDS + "." + KEY_TITLE + " COLLATE NOCASE ASC";
-        return db.rawQuery(query, null);
+        return rawQuery(query, null);
     }
 
     public final Cursor getFeedCursorDownloadUrls() {
-        return db.query(TABLE_NAME_FEEDS, new String[]{KEY_ID, KEY_DOWNLOAD_URL}, null, null, null, null, null);
+        return query(TABLE_NAME_FEEDS, new String[]{KEY_ID, KEY_DOWNLOAD_URL}, null, null, null, null, null);
     }
 
     /**
@@ -946,21 +1242,108 @@ public class PodDBAdapter {
         final String query = SELECT_FEED_ITEMS_AND_MEDIA
                 + " WHERE " + TABLE_NAME_FEED_ITEMS + "." + KEY_FEED + "=" + feed.getId()
                 + whereClauseAnd;
-        return db.rawQuery(query, null);
+        return rawQuery(query, null);
     }
 
     /**
-     * Return the description and content_encoded of item
+     * Returns a page of the items of a feed, sorted in the database.
+     * Items with the same sort value are sorted by date, newest first.
+     *
+     * @param sortOrder The order, or null to sort by date. Orders across feeds also sort by date.
      */
-    public final Cursor getDescriptionOfItem(final FeedItem item) {
-        final String query = "SELECT " + KEY_DESCRIPTION
-                + " FROM " + TABLE_NAME_FEED_ITEMS
-                + " WHERE " + KEY_ID + "=" + item.getId();
-        return db.rawQuery(query, null);
+    public final Cursor getItemsOfFeedCursor(final Feed feed, FeedItemFilter filter, @Nullable SortOrder sortOrder,
+                                             int offset, int limit) {
+        String filterQuery = FeedItemFilterQuery.generateFrom(filter);
+        String whereClauseAnd = "".equals(filterQuery) ? "" : " AND " + filterQuery;
+        String orderByQuery = sortOrder == null ? "" : FeedItemSortQuery.generateFrom(sortOrder);
+        String byDate = TABLE_NAME_FEED_ITEMS + "." + KEY_PUBDATE + " DESC, " + TABLE_NAME_FEED_ITEMS + "." + KEY_ID
+                + " DESC";
+        orderByQuery = "".equals(orderByQuery) ? byDate : orderByQuery + ", " + byDate;
+        final String query = SELECT_FEED_ITEMS_AND_MEDIA
+                + " WHERE " + TABLE_NAME_FEED_ITEMS + "." + KEY_FEED + "=" + feed.getId()
+                + whereClauseAnd
+                + " ORDER BY " + orderByQuery
+                + " LIMIT " + offset + ", " + limit;
+        return rawQuery(query, null);
+    }
+
+    /**
+     * Returns a cursor with the feeds for a media browser (like Android Auto), without their preferences.
+     * Columns: ID, title, custom title, image URL. Sorted like {@link #getAllFeedsCursor()}.
+     */
+    public final Cursor getMediaBrowserFeedsCursor() {
+        final String query = "SELECT " + KEY_ID + ", " + KEY_TITLE + ", " + KEY_CUSTOM_TITLE + ", " + KEY_IMAGE_URL
+                + " FROM " + TABLE_NAME_FEEDS
+                + " ORDER BY " + KEY_TITLE + " COLLATE NOCASE ASC";
+        return rawQuery(query, null);
+    }
+
+    /**
+     * Returns a page of episodes with media for a media browser (like Android Auto), with only the columns
+     * it shows: media ID, episode title, feed title, feed custom title, image URL and duration.
+     *
+     * @param feedId Only episodes of this feed, or 0 for all feeds
+     * @param sortOrder The order, or null to sort by date
+     */
+    public final Cursor getMediaBrowserItemsCursor(long feedId, FeedItemFilter filter, @Nullable SortOrder sortOrder,
+                                                   int offset, int limit) {
+        List<String> conditions = new ArrayList<>();
+        if (feedId != 0) {
+            conditions.add(TABLE_NAME_FEED_ITEMS + "." + KEY_FEED + "=" + feedId);
+        }
+        String filterQuery = FeedItemFilterQuery.generateFrom(filter);
+        if (!"".equals(filterQuery)) {
+            conditions.add(filterQuery);
+        }
+        String whereClause = conditions.isEmpty() ? "" : " WHERE " + TextUtils.join(" AND ", conditions);
+        String orderByQuery = sortOrder == null ? "" : FeedItemSortQuery.generateFrom(sortOrder);
+        String byDate = TABLE_NAME_FEED_ITEMS + "." + KEY_PUBDATE + " DESC";
+        orderByQuery = "".equals(orderByQuery) ? byDate : orderByQuery + ", " + byDate;
+        final String query = SELECT_MEDIA_BROWSER_ITEMS
+                + whereClause
+                + " ORDER BY " + orderByQuery
+                + " LIMIT " + offset + ", " + limit;
+        return rawQuery(query, null);
+    }
+
+    /**
+     * Like {@link #getMediaBrowserItemsCursor}, for a page of the queue.
+     */
+    public final Cursor getMediaBrowserQueueCursor(int offset, int limit) {
+        final String query = SELECT_MEDIA_BROWSER_ITEMS
+                + " INNER JOIN " + TABLE_NAME_QUEUE
+                + " ON " + TABLE_NAME_QUEUE + "." + KEY_FEEDITEM + "=" + TABLE_NAME_FEED_ITEMS + "." + KEY_ID
+                + " ORDER BY " + TABLE_NAME_QUEUE + "." + KEY_ID
+                + " LIMIT " + offset + ", " + limit;
+        return rawQuery(query, null);
+    }
+
+    public final Cursor getFeedEpisodeCountCursor(long feedId, FeedItemFilter filter) {
+        String filterQuery = FeedItemFilterQuery.generateFrom(filter);
+        String whereClauseAnd = "".equals(filterQuery) ? "" : " AND " + filterQuery;
+        final String query = "SELECT count(" + TABLE_NAME_FEED_ITEMS + "." + KEY_ID + ") FROM " + TABLE_NAME_FEED_ITEMS
+                + JOIN_FEED_ITEM_AND_MEDIA
+                + " WHERE " + TABLE_NAME_FEED_ITEMS + "." + KEY_FEED + "=" + feedId
+                + whereClauseAnd;
+        return rawQuery(query, null);
+    }
+
+    /**
+     * Return the description of item, or null if it has none.
+     */
+    @Nullable
+    public final String getDescriptionOfItem(final FeedItem item) {
+        try (Cursor cursor = query(TABLE_NAME_DESCRIPTIONS, new String[]{KEY_DESCRIPTION},
+                KEY_FEEDITEM + "=?", new String[]{String.valueOf(item.getId())}, null, null, null)) {
+            if (!cursor.moveToFirst()) {
+                return null;
+            }
+            return CompressedText.decompress(cursor.getBlob(0));
+        }
     }
 
     public final Cursor getSimpleChaptersOfFeedItemCursor(final FeedItem item) {
-        return db.query(TABLE_NAME_SIMPLECHAPTERS, null, KEY_FEEDITEM
+        return query(TABLE_NAME_SIMPLECHAPTERS, null, KEY_FEEDITEM
                         + "=?", new String[]{String.valueOf(item.getId())}, null,
                 null, null
         );
@@ -970,11 +1353,11 @@ public class PodDBAdapter {
         final String query = "SELECT * FROM " + TABLE_NAME_DOWNLOAD_LOG +
                 " WHERE " + KEY_FEEDFILE + "=" + feedFileId + " AND " + KEY_FEEDFILETYPE + "=" + feedFileType
                 + " ORDER BY " + KEY_ID + " DESC";
-        return db.rawQuery(query, null);
+        return rawQuery(query, null);
     }
 
     public final Cursor getDownloadLogCursor(final int limit) {
-        return db.query(TABLE_NAME_DOWNLOAD_LOG, null, null, null, null,
+        return query(TABLE_NAME_DOWNLOAD_LOG, null, null, null, null,
                 null, KEY_COMPLETION_DATE + " DESC LIMIT " + limit);
     }
 
@@ -990,11 +1373,19 @@ public class PodDBAdapter {
                 + " ON " + SELECT_KEY_ITEM_ID + " = " + TABLE_NAME_QUEUE + "." + KEY_FEEDITEM
                 +  JOIN_FEED_ITEM_AND_MEDIA
                 + " ORDER BY " + TABLE_NAME_QUEUE + "." + KEY_ID;
-        return db.rawQuery(query, null);
+        return rawQuery(query, null);
     }
 
     public Cursor getQueueIDCursor() {
-        return db.query(TABLE_NAME_QUEUE, new String[]{KEY_FEEDITEM}, null, null, null, null, KEY_ID + " ASC", null);
+        return query(TABLE_NAME_QUEUE, new String[]{KEY_FEEDITEM}, null, null, null, null, KEY_ID + " ASC", null);
+    }
+
+    /**
+     * Returns a cursor with the item ID and position of every queue item, ordered by position.
+     */
+    public Cursor getQueuePositionsCursor() {
+        return query(TABLE_NAME_QUEUE, new String[]{KEY_FEEDITEM, KEY_ID},
+                null, null, null, null, KEY_ID + " ASC", null);
     }
 
     public Cursor getNextInQueue(final FeedItem item) {
@@ -1008,7 +1399,7 @@ public class PodDBAdapter {
                 + ")"
                 + " ORDER BY Queue.ID"
                 + " LIMIT 1";
-        return db.rawQuery(query, null);
+        return rawQuery(query, null);
     }
 
     public final Cursor getPausedQueueCursor(int limit) {
@@ -1024,7 +1415,7 @@ public class PodDBAdapter {
                     + TABLE_NAME_FEED_MEDIA + "." + KEY_LAST_PLAYED_TIME + " ELSE 0 END) DESC , "
                 + TABLE_NAME_QUEUE + "." + KEY_ID
                 + " LIMIT " + limit;
-        return db.rawQuery(query, null);
+        return rawQuery(query, null);
     }
 
     public final Cursor getFavoritesIdsCursor(int offset, int limit) {
@@ -1035,7 +1426,7 @@ public class PodDBAdapter {
                 + " ON " + TABLE_NAME_FEED_ITEMS + "." + KEY_ID + " = " + TABLE_NAME_FAVORITES + "." + KEY_FEEDITEM
                 + " ORDER BY " + TABLE_NAME_FEED_ITEMS + "." + KEY_PUBDATE + " DESC"
                 + " LIMIT " + offset + ", " + limit;
-        return db.rawQuery(query, null);
+        return rawQuery(query, null);
     }
 
     public void setFeedItems(int oldState, int newState) {
@@ -1060,7 +1451,7 @@ public class PodDBAdapter {
         String whereClause = "".equals(filterQuery) ? "" : " WHERE " + filterQuery;
         final String query = SELECT_FEED_ITEMS_AND_MEDIA + whereClause
                 + "ORDER BY " +  orderByQuery + " LIMIT " + offset + ", " + limit;
-        return db.rawQuery(query, null);
+        return rawQuery(query, null);
     }
 
     public final Cursor getEpisodeCountCursor(FeedItemFilter filter) {
@@ -1068,7 +1459,7 @@ public class PodDBAdapter {
         String whereClause = "".equals(filterQuery) ? "" : " WHERE " + filterQuery;
         final String query = "SELECT count(" + TABLE_NAME_FEED_ITEMS + "." + KEY_ID + ") FROM " + TABLE_NAME_FEED_ITEMS
                 + JOIN_FEED_ITEM_AND_MEDIA + whereClause;
-        return db.rawQuery(query, null);
+        return rawQuery(query, null);
     }
 
     public Cursor getRandomEpisodesCursor(int limit, int seed) {
@@ -1083,7 +1474,7 @@ public class PodDBAdapter {
         final String query = "SELECT * FROM (" + allItemsRandomOrder + ")"
                 + " GROUP BY " + KEY_FEED
                 + " ORDER BY " + randomEpisodeNumber(seed * 3) + " DESC LIMIT " + limit;
-        return db.rawQuery(query, null);
+        return rawQuery(query, null);
     }
 
     /**
@@ -1107,7 +1498,7 @@ public class PodDBAdapter {
             throw new IllegalArgumentException("Limit must be >= 0");
         }
 
-        return db.query(TABLE_NAME_FEED_MEDIA, null,
+        return query(TABLE_NAME_FEED_MEDIA, null,
                 KEY_PLAYBACK_COMPLETION_DATE + " > 0", null, null,
                 null, String.format(Locale.US, "%s DESC LIMIT %d, %d", KEY_PLAYBACK_COMPLETION_DATE, offset, limit));
     }
@@ -1119,14 +1510,14 @@ public class PodDBAdapter {
     public final Cursor getSingleFeedMediaCursor(long id) {
         final String query = "SELECT " + KEYS_FEED_MEDIA + " FROM " + TABLE_NAME_FEED_MEDIA
                 + " WHERE " + KEY_ID + "=" + id;
-        return db.rawQuery(query, null);
+        return rawQuery(query, null);
     }
 
     public final Cursor getFeedCursor(final long id) {
         final String query = "SELECT " + KEYS_FEED
                 + " FROM " + TABLE_NAME_FEEDS
                 + " WHERE " + SELECT_KEY_FEED_ID + " = " + id;
-        return db.rawQuery(query, null);
+        return rawQuery(query, null);
     }
 
     public final Cursor getFeedItemCursor(final String id) {
@@ -1139,7 +1530,7 @@ public class PodDBAdapter {
         }
         final String query = SELECT_FEED_ITEMS_AND_MEDIA
                 + " WHERE " + SELECT_KEY_ITEM_ID + " IN (" + TextUtils.join(",", ids) + ")";
-        return db.rawQuery(query, null);
+        return rawQuery(query, null);
     }
 
     public final Cursor getFeedItemCursorByUrl(List<String> urls) {
@@ -1153,14 +1544,18 @@ public class PodDBAdapter {
             }
             urlsString.append(DatabaseUtils.sqlEscapeString(urls.get(i)));
         }
+        // Look up the media first, so that the index on the download URL can be used
         final String query = SELECT_FEED_ITEMS_AND_MEDIA
-                + " WHERE " + KEY_DOWNLOAD_URL + " IN (" + urlsString + ")";
-        return db.rawQuery(query, null);
+                + " WHERE " + TABLE_NAME_FEED_ITEMS + "." + KEY_ID + " IN (SELECT " + KEY_FEEDITEM
+                + " FROM " + TABLE_NAME_FEED_MEDIA
+                + " WHERE " + KEY_DOWNLOAD_URL + " IN (" + urlsString + "))";
+        return rawQuery(query, null);
     }
 
     public final Cursor getFeedItemCursor(final String guid, final String episodeUrl) {
         String escapedEpisodeUrl = DatabaseUtils.sqlEscapeString(episodeUrl);
-        String whereClauseCondition = TABLE_NAME_FEED_MEDIA + "." + KEY_DOWNLOAD_URL + "=" + escapedEpisodeUrl;
+        String whereClauseCondition = TABLE_NAME_FEED_ITEMS + "." + KEY_ID + " IN (SELECT " + KEY_FEEDITEM
+                + " FROM " + TABLE_NAME_FEED_MEDIA + " WHERE " + KEY_DOWNLOAD_URL + "=" + escapedEpisodeUrl + ")";
 
         if (guid != null) {
             String escapedGuid = DatabaseUtils.sqlEscapeString(guid);
@@ -1171,7 +1566,7 @@ public class PodDBAdapter {
                 + " INNER JOIN " + TABLE_NAME_FEEDS
                 + " ON " + TABLE_NAME_FEED_ITEMS + "." + KEY_FEED + "=" + TABLE_NAME_FEEDS + "." + KEY_ID
                 + " WHERE " + whereClauseCondition;
-        return db.rawQuery(query, null);
+        return rawQuery(query, null);
     }
 
     public Cursor getImageAuthenticationCursor(final String imageUrl) {
@@ -1183,18 +1578,18 @@ public class PodDBAdapter {
                 + " WHERE " + TABLE_NAME_FEED_ITEMS + "." + KEY_IMAGE_URL + "=" + downloadUrl
                 + " UNION SELECT " + KEY_USERNAME + "," + KEY_PASSWORD + " FROM " + TABLE_NAME_FEEDS
                 + " WHERE " + TABLE_NAME_FEEDS + "." + KEY_IMAGE_URL + "=" + downloadUrl;
-        return db.rawQuery(query, null);
+        return rawQuery(query, null);
     }
 
     public final Cursor getMonthlyStatisticsCursor() {
         final String query = "SELECT SUM(" + KEY_PLAYED_DURATION + ") AS total_duration"
-                + ", strftime('%m', datetime(" + KEY_LAST_PLAYED_TIME + "/1000, 'unixepoch')) AS month"
-                + ", strftime('%Y', datetime(" + KEY_LAST_PLAYED_TIME + "/1000, 'unixepoch')) AS year"
-                + " FROM " + TABLE_NAME_FEED_MEDIA
-                + " WHERE " + KEY_LAST_PLAYED_TIME + " > 0 AND " + KEY_PLAYED_DURATION + " > 0"
+                + ", strftime('%m', datetime(" + KEY_DAY + " * 86400, 'unixepoch')) AS month"
+                + ", strftime('%Y', datetime(" + KEY_DAY + " * 86400, 'unixepoch')) AS year"
+                + " FROM " + TABLE_NAME_PLAYBACK_STATISTICS
+                + " WHERE " + KEY_PLAYED_DURATION + " > 0"
                 + " GROUP BY year, month"
                 + " ORDER BY year, month";
-        return db.rawQuery(query, null);
+        return rawQuery(query, null);
     }
 
     public final Cursor getFeedStatisticsCursor(boolean includeMarkedAsPlayed, long timeFilterFrom, long timeFilterTo) {
@@ -1208,22 +1603,28 @@ public class PodDBAdapter {
         }
         final String timeFilter = lastPlayedTime + ">=" + timeFilterFrom
                 + " AND " + lastPlayedTime + "<" + timeFilterTo;
-        String playedTime = TABLE_NAME_FEED_MEDIA + "." + KEY_PLAYED_DURATION;
+        // Time actually played comes from the daily statistics, only episodes that were marked as played
+        // without playing them need to be looked at individually
+        String markedAsPlayedTime = "0";
         if (includeMarkedAsPlayed) {
-            playedTime = "(CASE WHEN " + playedTime + " != 0"
-                    + " THEN " + playedTime + " ELSE ("
-                            + "CASE WHEN " + TABLE_NAME_FEED_ITEMS + "." + KEY_READ + "=" + FeedItem.PLAYED
-                                + " THEN " + TABLE_NAME_FEED_MEDIA + "." + KEY_DURATION + " ELSE 0 END"
-                    + ") END)";
+            markedAsPlayedTime = "IFNULL(SUM(CASE WHEN (" + timeFilter + ")"
+                    + " AND " + TABLE_NAME_FEED_MEDIA + "." + KEY_PLAYED_DURATION + " = 0"
+                    + " AND " + TABLE_NAME_FEED_ITEMS + "." + KEY_READ + "=" + FeedItem.PLAYED
+                    + " THEN " + TABLE_NAME_FEED_MEDIA + "." + KEY_DURATION + " ELSE 0 END), 0)";
         }
+        final long dayFrom = timeFilterFrom / DateUtils.DAY_IN_MILLIS;
+        final long dayTo = timeFilterTo == Long.MAX_VALUE ? Long.MAX_VALUE : timeFilterTo / DateUtils.DAY_IN_MILLIS;
+        final String statisticsPlayedTime = "(SELECT IFNULL(SUM(" + KEY_PLAYED_DURATION + "), 0)"
+                + " FROM " + TABLE_NAME_PLAYBACK_STATISTICS
+                + " WHERE " + TABLE_NAME_PLAYBACK_STATISTICS + "." + KEY_FEED + "=" + TABLE_NAME_FEEDS + "." + KEY_ID
+                + " AND " + KEY_DAY + ">=" + dayFrom + " AND " + KEY_DAY + "<" + dayTo + ")";
 
         final String query = "SELECT " + KEYS_FEED + ", "
                         + "COUNT(*) AS num_episodes, "
                         + "MIN(CASE WHEN " + lastPlayedTime + " > 0"
                                 + " THEN " + lastPlayedTime + " ELSE " + Long.MAX_VALUE + " END) AS oldest_date, "
                         + "SUM(CASE WHEN (" + wasStarted + ") THEN 1 ELSE 0 END) AS episodes_started, "
-                        + "IFNULL(SUM(CASE WHEN (" + timeFilter + ")"
-                                + " THEN (" + playedTime + ") ELSE 0 END), 0) AS played_time, "
+                        + "(" + statisticsPlayedTime + " + " + markedAsPlayedTime + ") AS played_time, "
                         + "IFNULL(SUM(" + TABLE_NAME_FEED_MEDIA + "." + KEY_DURATION + "), 0) AS total_time, "
                         + "SUM(CASE WHEN " + TABLE_NAME_FEED_MEDIA + "." + KEY_DOWNLOADED + " > 0"
                                 + " THEN 1 ELSE 0 END) AS num_downloaded, "
@@ -1234,12 +1635,12 @@ public class PodDBAdapter {
                 + " INNER JOIN " + TABLE_NAME_FEEDS
                 + " ON " + TABLE_NAME_FEED_ITEMS + "." + KEY_FEED + "=" + TABLE_NAME_FEEDS + "." + KEY_ID
                 + " GROUP BY " + TABLE_NAME_FEEDS + "." + KEY_ID;
-        return db.rawQuery(query, null);
+        return rawQuery(query, null);
     }
 
     public int getQueueSize() {
         final String query = String.format("SELECT COUNT(%s) FROM %s", KEY_ID, TABLE_NAME_QUEUE);
-        Cursor c = db.rawQuery(query, null);
+        Cursor c = rawQuery(query, null);
         int result = 0;
         if (c.moveToFirst()) {
             result = c.getInt(0);
@@ -1296,7 +1697,7 @@ public class PodDBAdapter {
                 + " WHERE " + limitFeeds + " "
                 + whereRead + " GROUP BY " + KEY_FEED;
 
-        Cursor c = db.rawQuery(query, null);
+        Cursor c = rawQuery(query, null);
         Map<Long, Integer> result = new HashMap<>();
         if (c.moveToFirst()) {
             do {
@@ -1320,7 +1721,7 @@ public class PodDBAdapter {
                 + " FROM " + TABLE_NAME_FEED_ITEMS
                 + " GROUP BY " + KEY_FEED;
 
-        Cursor c = db.rawQuery(query, null);
+        Cursor c = rawQuery(query, null);
         Map<Long, Long> result = new HashMap<>();
         if (c.moveToFirst()) {
             do {
@@ -1353,41 +1754,79 @@ public class PodDBAdapter {
     /**
      * Searches for the given query in various values of all items or the items
      * of a specified feed.
+     * SQL checks which of the words each title contains. Descriptions are stored compressed,
+     * so the remaining words are matched against the decompressed text without markup,
+     * and only for items whose title misses a word.
      *
      * @return A cursor with all search results in SEL_FI_EXTRA selection.
      */
     public Cursor searchItems(long feedID, String searchQuery) {
         String[] queryWords = prepareSearchQuery(searchQuery);
+        String[] lowerCaseWords = searchQuery.toLowerCase(Locale.getDefault()).split("\\s+");
 
         String queryFeedId;
         if (feedID != 0) {
             // search items in specific feed
-            queryFeedId = KEY_FEED + " = " + feedID;
+            queryFeedId = TABLE_NAME_FEED_ITEMS + "." + KEY_FEED + " = " + feedID;
         } else {
             // search through all items
             queryFeedId = "1 = 1";
         }
 
-        String queryStart = SELECT_FEED_ITEMS_AND_MEDIA_WITH_DESCRIPTION
-                + " WHERE " + queryFeedId + " AND (";
-        StringBuilder sb = new StringBuilder(queryStart);
-
+        StringBuilder titleMatches = new StringBuilder();
+        StringBuilder allInTitle = new StringBuilder();
         for (int i = 0; i < queryWords.length; i++) {
-            sb
-                    .append("(")
-                    .append(KEY_DESCRIPTION + " LIKE '%").append(queryWords[i])
-                    .append("%' OR ")
-                    .append(KEY_TITLE).append(" LIKE '%").append(queryWords[i])
-                    .append("%') ");
-
-            if (i != queryWords.length - 1) {
-                sb.append("AND ");
+            String titleMatch = TABLE_NAME_FEED_ITEMS + "." + KEY_TITLE + " LIKE '%" + queryWords[i] + "%'";
+            titleMatches.append(", ").append(titleMatch);
+            if (i != 0) {
+                allInTitle.append(" AND ");
+            }
+            allInTitle.append(titleMatch);
+        }
+        // Column 1 is the description, only if it needs to be searched. Column 2 + i tells if the title has word i.
+        String candidatesQuery = "SELECT " + TABLE_NAME_FEED_ITEMS + "." + KEY_ID + ", "
+                + "CASE WHEN " + allInTitle + " THEN NULL ELSE "
+                + TABLE_NAME_DESCRIPTIONS + "." + KEY_DESCRIPTION + " END"
+                + titleMatches
+                + " FROM " + TABLE_NAME_FEED_ITEMS
+                + " LEFT JOIN " + TABLE_NAME_DESCRIPTIONS + " ON " + TABLE_NAME_FEED_ITEMS + "." + KEY_ID
+                + "=" + TABLE_NAME_DESCRIPTIONS + "." + KEY_FEEDITEM
+                + " WHERE " + queryFeedId
+                + " ORDER BY " + TABLE_NAME_FEED_ITEMS + "." + KEY_PUBDATE + " DESC";
+        StringBuilder itemIds = new StringBuilder();
+        int numResults = 0;
+        try (Cursor cursor = rawQuery(candidatesQuery, null)) {
+            while (numResults < 300 && cursor.moveToNext()) {
+                String description = null;
+                boolean matches = true;
+                for (int i = 0; i < lowerCaseWords.length; i++) {
+                    if (cursor.getInt(2 + i) != 0) {
+                        continue;
+                    }
+                    if (description == null) {
+                        String decompressed = CompressedText.decompress(cursor.getBlob(1));
+                        description = decompressed == null ? ""
+                                : CompressedText.toSearchText(decompressed).toLowerCase(Locale.getDefault());
+                    }
+                    if (!description.contains(lowerCaseWords[i])) {
+                        matches = false;
+                        break;
+                    }
+                }
+                if (matches) {
+                    if (itemIds.length() != 0) {
+                        itemIds.append(",");
+                    }
+                    itemIds.append(cursor.getLong(0));
+                    numResults++;
+                }
             }
         }
 
-        sb.append(") ORDER BY " + KEY_PUBDATE + " DESC LIMIT 300");
-
-        return db.rawQuery(sb.toString(), null);
+        final String query = SELECT_FEED_ITEMS_AND_MEDIA
+                + " WHERE " + TABLE_NAME_FEED_ITEMS + "." + KEY_ID + " IN (" + itemIds + ")"
+                + " ORDER BY " + TABLE_NAME_FEED_ITEMS + "." + KEY_PUBDATE + " DESC";
+        return rawQuery(query, null);
     }
 
     /**
@@ -1420,7 +1859,7 @@ public class PodDBAdapter {
 
         sb.append("ORDER BY " + KEY_TITLE + " ASC LIMIT 300");
 
-        return db.rawQuery(sb.toString(), null);
+        return rawQuery(sb.toString(), null);
     }
 
     /**
@@ -1478,11 +1917,19 @@ public class PodDBAdapter {
             db.execSQL(CREATE_TABLE_QUEUE);
             db.execSQL(CREATE_TABLE_SIMPLECHAPTERS);
             db.execSQL(CREATE_TABLE_FAVORITES);
+            db.execSQL(CREATE_TABLE_PLAYBACK_STATISTICS);
+            db.execSQL(CREATE_TABLE_DESCRIPTIONS);
 
-            db.execSQL(CREATE_INDEX_FEEDITEMS_FEED);
+            db.execSQL(CREATE_INDEX_FEEDITEMS_FEED_PUBDATE);
             db.execSQL(CREATE_INDEX_FEEDITEMS_PUBDATE);
             db.execSQL(CREATE_INDEX_FEEDITEMS_READ);
+            db.execSQL(CREATE_INDEX_FEEDITEMS_ITEM_IDENTIFIER);
+            db.execSQL(CREATE_INDEX_FEEDITEMS_IMAGE_URL);
             db.execSQL(CREATE_INDEX_FEEDMEDIA_FEEDITEM);
+            db.execSQL(CREATE_INDEX_FEEDMEDIA_DOWNLOAD_URL);
+            db.execSQL(CREATE_INDEX_FEEDMEDIA_DOWNLOADED);
+            db.execSQL(CREATE_INDEX_FEEDMEDIA_PLAYBACK_COMPLETION_DATE);
+            db.execSQL(CREATE_INDEX_FEEDMEDIA_LAST_PLAYED_TIME);
             db.execSQL(CREATE_INDEX_QUEUE_FEEDITEM);
             db.execSQL(CREATE_INDEX_SIMPLECHAPTERS_FEEDITEM);
         }
@@ -28,6 +28,7 @@ public class FeedItemFilterQuery {
         String keyFeedItem = PodDBAdapter.KEY_FEEDITEM;
         String tableQueue = PodDBAdapter.TABLE_NAME_QUEUE;
         String tableFavorites = PodDBAdapter.TABLE_NAME_FAVORITES;
+        String tableMedia = PodDBAdapter.TABLE_NAME_FEED_MEDIA;
 
         List<String> statements = new ArrayList<>();
         if (filter.showPlayed) {
@@ -48,7 +49,9 @@ public class FeedItemFilterQuery {
             statements.add(keyItemId + " NOT IN (SELECT " + keyFeedItem + " FROM " + tableQueue + ") ");
         }
         if (filter.showDownloaded) {
-            statements.add(keyDownloaded + " = 1 ");
+            // Few episodes are downloaded, start from the index on the downloaded column
+            statements.add(keyItemId + " IN (SELECT " + keyFeedItem + " FROM " + tableMedia
+                    + " WHERE " + PodDBAdapter.KEY_DOWNLOADED + " = 1) ");
         } else if (filter.showNotDownloaded) {
             statements.add(keyDownloaded + " = 0 ");
         }
@@ -8,10 +8,10 @@ public class FeedItemSortQuery {
         String sortQuery = "";
         switch (sortOrder) {
             case EPISODE_TITLE_A_Z:
-                sortQuery = PodDBAdapter.TABLE_NAME_FEED_ITEMS + "." + PodDBAdapter.KEY_TITLE + " " + "ASC";
+                sortQuery = PodDBAdapter.TABLE_NAME_FEED_ITEMS + "." + PodDBAdapter.KEY_TITLE + " COLLATE NOCASE ASC";
                 break;
             case EPISODE_TITLE_Z_A:
-                sortQuery = PodDBAdapter.TABLE_NAME_FEED_ITEMS + "." + PodDBAdapter.KEY_TITLE + " " + "DESC";
+                sortQuery = PodDBAdapter.TABLE_NAME_FEED_ITEMS + "." + PodDBAdapter.KEY_TITLE + " COLLATE NOCASE DESC";
                 break;
             case DATE_OLD_NEW:
                 sortQuery = PodDBAdapter.TABLE_NAME_FEED_ITEMS + "." + PodDBAdapter.KEY_PUBDATE + " " + "ASC";
@@ -25,6 +25,12 @@ public class FeedItemSortQuery {
             case DURATION_LONG_SHORT:
                 sortQuery = PodDBAdapter.TABLE_NAME_FEED_MEDIA + "." + PodDBAdapter.KEY_DURATION + " " + "DESC";
                 break;
+            case EPISODE_FILENAME_A_Z:
+                sortQuery = PodDBAdapter.TABLE_NAME_FEED_ITEMS + "." + PodDBAdapter.KEY_LINK + " COLLATE NOCASE ASC";
+                break;
+            case EPISODE_FILENAME_Z_A:
+                sortQuery = PodDBAdapter.TABLE_NAME_FEED_ITEMS + "." + PodDBAdapter.KEY_LINK + " COLLATE NOCASE DESC";
+                break;
             default:
                 sortQuery = "";
                 break;
@@ -107,6 +107,7 @@ public class UserPreferences {
     // Other
     private static final String PREF_DATA_FOLDER = "prefDataFolder";
     public static final String PREF_DELETE_REMOVES_FROM_QUEUE = "prefDeleteRemovesFromQueue";
+    private static final String PREF_DATABASE_TIMINGS = "prefDatabaseTimings";
 
     // Mediaplayer
     private static final String PREF_PLAYBACK_SPEED = "prefPlaybackSpeed";
@@ -691,6 +692,16 @@ public class UserPreferences {
              .apply();
     }
 
+    public static boolean isDatabaseTimingsEnabled() {
+        return prefs.getBoolean(PREF_DATABASE_TIMINGS, false);
+    }
+
+    public static void setDatabaseTimingsEnabled(boolean enabled) {
+        prefs.edit()
+             .putBoolean(PREF_DATABASE_TIMINGS, enabled)
+             .apply();
+    }
+
     private static List<Float> readPlaybackSpeedArray(String valueFromPrefs) {
         if (valueFromPrefs != null) {
             try {
@@ -35,6 +35,7 @@ public class ApGlideModule extends AppGlideModule {
                 .format(DecodeFormat.PREFER_ARGB_8888)
                 .diskCacheStrategy(DiskCacheStrategy.ALL));
         builder.setLogLevel(Log.WARN);
+        builder.addGlobalRequestListener(GlideCacheStats.getInstance());
         @SuppressLint("UsableSpace")
         long spaceAvailable = context.getCacheDir().getUsableSpace();
         long imageCacheSize = (spaceAvailable > 2 * GIGABYTES) ? (250 * MEGABYTES) : (50 * MEGABYTES);
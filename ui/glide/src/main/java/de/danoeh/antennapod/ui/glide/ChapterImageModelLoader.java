@@ -11,14 +11,15 @@ import com.bumptech.glide.load.model.MultiModelLoaderFactory;
 import com.bumptech.glide.signature.ObjectKey;
 import de.danoeh.antennapod.core.service.download.AntennapodHttpClient;
 import de.danoeh.antennapod.model.feed.EmbeddedChapterImage;
-import java.io.BufferedInputStream;
+import java.io.EOFException;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import okhttp3.Call;
 import okhttp3.Request;
 import okhttp3.Response;
-import org.apache.commons.io.IOUtils;
 
 public final class ChapterImageModelLoader implements ModelLoader<EmbeddedChapterImage, ByteBuffer> {
 
@@ -40,7 +41,15 @@ public final class ChapterImageModelLoader implements ModelLoader<EmbeddedChapte
                                               int width,
                                               int height,
                                               @NonNull Options options) {
-        return new LoadData<>(new ObjectKey(model), new EmbeddedImageFetcher(model));
+        return new LoadData<>(new ObjectKey(getCacheKey(model)), new EmbeddedImageFetcher(model));
+    }
+
+    /**
+     * Stable across instances and app restarts, so that the image can be served from the disk cache.
+     */
+    static String getCacheKey(EmbeddedChapterImage image) {
+        return "embedded-chapter-image:" + image.getMedia().getIdentifier()
+                + ":" + image.getPosition() + ":" + image.getLength();
     }
 
     @Override
@@ -50,39 +59,65 @@ public final class ChapterImageModelLoader implements ModelLoader<EmbeddedChapte
 
     static class EmbeddedImageFetcher implements DataFetcher<ByteBuffer> {
         private final EmbeddedChapterImage image;
+        private final boolean isLocal;
+        private volatile boolean isCancelled = false;
+        private volatile Call call;
 
         public EmbeddedImageFetcher(EmbeddedChapterImage image) {
             this.image = image;
+            this.isLocal = image.getMedia().localFileAvailable();
         }
 
         @Override
         public void loadData(@NonNull Priority priority, @NonNull DataCallback<? super ByteBuffer> callback) {
-
-            BufferedInputStream stream = null;
             try {
-                if (image.getMedia().localFileAvailable()) {
-                    File localFile = new File(image.getMedia().getLocalMediaUrl());
-                    stream = new BufferedInputStream(new FileInputStream(localFile));
-                    IOUtils.skip(stream, image.getPosition());
-                    byte[] imageContent = new byte[image.getLength()];
-                    IOUtils.read(stream, imageContent, 0, image.getLength());
-                    callback.onDataReady(ByteBuffer.wrap(imageContent));
+                if (isLocal) {
+                    callback.onDataReady(readLocal());
                 } else {
-                    Request.Builder httpReq = new Request.Builder();
-                    // Skipping would download the whole file
-                    httpReq.header("Range", "bytes=" + image.getPosition()
-                            + "-" + (image.getPosition() + image.getLength()));
-                    httpReq.url(image.getMedia().getStreamUrl());
-                    Response response = AntennapodHttpClient.getHttpClient().newCall(httpReq.build()).execute();
-                    if (!response.isSuccessful() || response.body() == null) {
-                        throw new IOException("Invalid response: " + response.code() + " " + response.message());
-                    }
-                    callback.onDataReady(ByteBuffer.wrap(response.body().bytes()));
+                    callback.onDataReady(readRemote());
                 }
             } catch (IOException e) {
                 callback.onLoadFailed(e);
-            } finally {
-                IOUtils.closeQuietly(stream);
+            }
+        }
+
+        /**
+         * Positional read of only the image bytes, without streaming through the start of the file.
+         */
+        private ByteBuffer readLocal() throws IOException {
+            File localFile = new File(image.getMedia().getLocalMediaUrl());
+            try (FileChannel channel = new FileInputStream(localFile).getChannel()) {
+                ByteBuffer buffer = ByteBuffer.allocate(image.getLength());
+                while (buffer.hasRemaining()) {
+                    if (isCancelled) {
+                        throw new IOException("Cancelled");
+                    }
+                    int read = channel.read(buffer, (long) image.getPosition() + buffer.position());
+                    if (read == -1) {
+                        throw new EOFException("Embedded image exceeds file length");
+                    }
+                }
+                buffer.flip();
+                return buffer;
+            }
+        }
+
+        private ByteBuffer readRemote() throws IOException {
+            Request.Builder httpReq = new Request.Builder();
+            // Skipping would download the whole file
+            httpReq.header("Range", "bytes=" + image.getPosition()
+                    + "-" + (image.getPosition() + image.getLength() - 1));
+            httpReq.url(image.getMedia().getStreamUrl());
+            call = AntennapodHttpClient.getHttpClient().newCall(httpReq.build());
+            if (isCancelled) {
+                call.cancel();
+            }
+            try (Response response = call.execute()) {
+                if (response.code() != 206 || response.body() == null) {
+                    // A full response would contain the whole episode, not only the image
+                    throw new IOException("Invalid response: " + response.code() + " " + response.message());
+                }
+                return ByteBuffer.wrap(response.body().bytes());
             }
         }
 
@@ -93,7 +128,11 @@ public final class ChapterImageModelLoader implements ModelLoader<EmbeddedChapte
 
         @Override
         public void cancel() {
-            // cannot cancel
+            isCancelled = true;
+            Call currentCall = call;
+            if (currentCall != null) {
+                currentCall.cancel();
+            }
         }
 
         @NonNull
@@ -105,7 +144,7 @@ public final class ChapterImageModelLoader implements ModelLoader<EmbeddedChapte
         @NonNull
         @Override
         public DataSource getDataSource() {
-            return DataSource.LOCAL;
+            return isLocal ? DataSource.LOCAL : DataSource.REMOTE;
         }
     }
 }
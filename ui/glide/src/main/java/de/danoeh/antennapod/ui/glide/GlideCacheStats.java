@@ -0,0 +1,107 @@
+package de.danoeh.antennapod.ui.glide;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import com.bumptech.glide.load.DataSource;
+import com.bumptech.glide.load.engine.GlideException;
+import com.bumptech.glide.request.RequestListener;
+import com.bumptech.glide.request.target.Target;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts where the images that Glide delivers come from, to see how well the memory and disk caches work.
+ */
+public class GlideCacheStats implements RequestListener<Object> {
+    private static final String TAG = "GlideCacheStats";
+    private static final int LOG_INTERVAL = 200;
+    private static final GlideCacheStats INSTANCE = new GlideCacheStats();
+
+    private final AtomicLong memoryCache = new AtomicLong();
+    private final AtomicLong resourceDiskCache = new AtomicLong();
+    private final AtomicLong dataDiskCache = new AtomicLong();
+    private final AtomicLong local = new AtomicLong();
+    private final AtomicLong remote = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    public static GlideCacheStats getInstance() {
+        return INSTANCE;
+    }
+
+    private GlideCacheStats() {
+    }
+
+    @Override
+    public boolean onLoadFailed(@Nullable GlideException e, Object model,
+                                Target<Object> target, boolean isFirstResource) {
+        failed.incrementAndGet();
+        return false;
+    }
+
+    @Override
+    public boolean onResourceReady(Object resource, Object model, Target<Object> target,
+                                   DataSource dataSource, boolean isFirstResource) {
+        switch (dataSource) {
+            case MEMORY_CACHE:
+                memoryCache.incrementAndGet();
+                break;
+            case RESOURCE_DISK_CACHE:
+                resourceDiskCache.incrementAndGet();
+                break;
+            case DATA_DISK_CACHE:
+                dataDiskCache.incrementAndGet();
+                break;
+            case REMOTE:
+                remote.incrementAndGet();
+                break;
+            default:
+                local.incrementAndGet();
+                break;
+        }
+        if (getTotalLoads() % LOG_INTERVAL == 0) {
+            Log.d(TAG, toString());
+        }
+        return false;
+    }
+
+    public long getTotalLoads() {
+        return memoryCache.get() + resourceDiskCache.get() + dataDiskCache.get() + local.get() + remote.get();
+    }
+
+    /**
+     * @return Share of loads served from the memory cache, between 0 and 1.
+     */
+    public float getMemoryHitRate() {
+        long total = getTotalLoads();
+        return total == 0 ? 0 : (float) memoryCache.get() / total;
+    }
+
+    /**
+     * @return Share of loads that missed the memory cache but were served from one of the disk caches.
+     */
+    public float getDiskHitRate() {
+        long diskCandidates = getTotalLoads() - memoryCache.get();
+        long diskHits = resourceDiskCache.get() + dataDiskCache.get();
+        return diskCandidates == 0 ? 0 : (float) diskHits / diskCandidates;
+    }
+
+    /**
+     * @return Share of disk cache hits that could use an already resized thumbnail.
+     */
+    public float getResourceDiskHitRate() {
+        long diskHits = resourceDiskCache.get() + dataDiskCache.get();
+        return diskHits == 0 ? 0 : (float) resourceDiskCache.get() / diskHits;
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return String.format(Locale.US, "Image loads: %d (memory hit rate %.2f, disk hit rate %.2f, "
+                        + "thumbnail share of disk hits %.2f, remote %d, local %d, failed %d)",
+                getTotalLoads(), getMemoryHitRate(), getDiskHitRate(), getResourceDiskHitRate(),
+                remote.get(), local.get(), failed.get());
+    }
+}
@@ -15,6 +15,8 @@ import okhttp3.Call;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
@@ -23,14 +25,19 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 
+/**
+ * Shrinks huge cover images before they end up in Glide's source cache. Images below {@link #MAX_FILE_SIZE}
+ * are delivered from memory as they are. Larger images are downsampled once and encoded with a fixed quality.
+ * The small thumbnails that lists display are generated from the source by Glide, see {@link ThumbnailBucket}.
+ */
 public class ResizingOkHttpStreamFetcher extends OkHttpStreamFetcher {
     private static final String TAG = "ResizingOkHttpStreamFet";
     private static final int MAX_DIMENSIONS = 1500;
     private static final int MAX_FILE_SIZE = 1024 * 1024; // 1 MB
+    private static final int COMPRESSION_QUALITY = 75;
 
-    private FileInputStream stream;
+    private InputStream stream;
     private File tempIn;
-    private File tempOut;
 
     public ResizingOkHttpStreamFetcher(Call.Factory client, GlideUrl url) {
         super(client, url);
@@ -46,23 +53,21 @@ public class ResizingOkHttpStreamFetcher extends OkHttpStreamFetcher {
                     return;
                 }
                 try {
+                    byte[] head = readAtMost(data, MAX_FILE_SIZE + 1);
+                    if (head.length <= MAX_FILE_SIZE) {
+                        IOUtils.closeQuietly(data);
+                        stream = new ByteArrayInputStream(head);
+                        callback.onDataReady(stream); // Just deliver the original, non-scaled image
+                        return;
+                    }
+
                     tempIn = File.createTempFile("resize_", null);
-                    tempOut = File.createTempFile("resize_", null);
                     OutputStream outputStream = new FileOutputStream(tempIn);
+                    outputStream.write(head);
                     IOUtils.copy(data, outputStream);
                     outputStream.close();
                     IOUtils.closeQuietly(data);
 
-                    if (tempIn.length() <= MAX_FILE_SIZE) {
-                        try {
-                            stream = new FileInputStream(tempIn);
-                            callback.onDataReady(stream); // Just deliver the original, non-scaled image
-                        } catch (FileNotFoundException fileNotFoundException) {
-                            callback.onLoadFailed(fileNotFoundException);
-                        }
-                        return;
-                    }
-
                     BitmapFactory.Options options = new BitmapFactory.Options();
                     options.inJustDecodeBounds = true;
                     FileInputStream in = new FileInputStream(tempIn);
@@ -75,42 +80,35 @@ public class ResizingOkHttpStreamFetcher extends OkHttpStreamFetcher {
                         double sampleSize = (double) Math.max(options.outHeight, options.outWidth) / MAX_DIMENSIONS;
                         options.inSampleSize = (int) Math.pow(2d, Math.floor(Math.log(sampleSize) / Math.log(2d)));
                     }
+                    if ("image/jpeg".equals(options.outMimeType)) {
+                        options.inPreferredConfig = Bitmap.Config.RGB_565; // Opaque anyway
+                    }
 
                     options.inJustDecodeBounds = false;
                     in = new FileInputStream(tempIn);
                     Bitmap bitmap = BitmapFactory.decodeStream(in, null, options);
                     IOUtils.closeQuietly(in);
+                    if (bitmap == null) {
+                        throw new IOException("Unable to decode image");
+                    }
 
                     Bitmap.CompressFormat format = Build.VERSION.SDK_INT < 30
                             ? Bitmap.CompressFormat.WEBP : Bitmap.CompressFormat.WEBP_LOSSY;
-
-                    int quality = 100;
-                    while (true) {
-                        FileOutputStream out = new FileOutputStream(tempOut);
-                        bitmap.compress(format, quality, out);
-                        IOUtils.closeQuietly(out);
-
-                        if (tempOut.length() > 3 * MAX_FILE_SIZE && quality >= 45) {
-                            quality -= 40;
-                        } else if (tempOut.length() > 2 * MAX_FILE_SIZE && quality >= 25) {
-                            quality -= 20;
-                        } else if (tempOut.length() > MAX_FILE_SIZE && quality >= 15) {
-                            quality -= 10;
-                        } else if (tempOut.length() > MAX_FILE_SIZE && quality >= 10) {
-                            quality -= 5;
-                        } else {
-                            break;
-                        }
-                    }
+                    ByteArrayOutputStream out = new ByteArrayOutputStream(MAX_FILE_SIZE / 4);
+                    bitmap.compress(format, COMPRESSION_QUALITY, out);
                     bitmap.recycle();
 
-                    stream = new FileInputStream(tempOut);
+                    stream = new ByteArrayInputStream(out.toByteArray());
                     callback.onDataReady(stream);
                     Log.d(TAG, "Compressed image from " + tempIn.length() / 1024
-                            + " to " + tempOut.length() / 1024 + " kB (quality: " + quality + "%)");
+                            + " to " + out.size() / 1024 + " kB");
                 } catch (Throwable e) {
                     e.printStackTrace();
 
+                    if (tempIn == null) {
+                        callback.onLoadFailed(e instanceof Exception ? (Exception) e : new IOException(e));
+                        return;
+                    }
                     try {
                         stream = new FileInputStream(tempIn);
                         callback.onDataReady(stream); // Just deliver the original, non-scaled image
@@ -128,11 +126,24 @@ public class ResizingOkHttpStreamFetcher extends OkHttpStreamFetcher {
         });
     }
 
+    /**
+     * Reads until the stream ends or the limit is reached.
+     */
+    private static byte[] readAtMost(InputStream in, int limit) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(64 * 1024);
+        byte[] buffer = new byte[16 * 1024];
+        int read;
+        while (out.size() < limit
+                && (read = in.read(buffer, 0, Math.min(buffer.length, limit - out.size()))) != -1) {
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
+
     @Override
     public void cleanup() {
         IOUtils.closeQuietly(stream);
         FileUtils.deleteQuietly(tempIn);
-        FileUtils.deleteQuietly(tempOut);
         super.cleanup();
     }
 }
@@ -0,0 +1,57 @@
+package de.danoeh.antennapod.ui.glide;
+
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+import com.bumptech.glide.load.DecodeFormat;
+import com.bumptech.glide.request.RequestOptions;
+
+/**
+ * Sizes that cover images are decoded to. Because the target size is part of Glide's resource cache key,
+ * requesting one of these buckets instead of the exact view size means that every view showing a cover in the
+ * same place of the UI shares a single, small, disk cache entry per cover URL.
+ * The sizes are in dp, so covers are sharp on dense screens and not larger than needed on others.
+ */
+public enum ThumbnailBucket {
+    /**
+     * Episode and feed list rows.
+     */
+    LIST(64, DecodeFormat.PREFER_RGB_565),
+    /**
+     * Horizontal carousels on the home screen, and subscription grids with narrow columns.
+     */
+    GRID(150, DecodeFormat.PREFER_RGB_565),
+    /**
+     * Subscription grids with wide columns, like the default two columns on a phone.
+     */
+    GRID_LARGE(300, DecodeFormat.PREFER_RGB_565);
+
+    private final int sizeDp;
+    private final DecodeFormat format;
+
+    ThumbnailBucket(int sizeDp, DecodeFormat format) {
+        this.sizeDp = sizeDp;
+        this.format = format;
+    }
+
+    /**
+     * The smallest grid bucket that fills a column of a grid spanning the whole screen width.
+     * Columns wider than the largest bucket, on tablets, still use it to keep the cache small.
+     */
+    @NonNull
+    public static ThumbnailBucket forGridColumns(@NonNull Context context, int columns) {
+        int columnWidthDp = context.getResources().getConfiguration().screenWidthDp / Math.max(columns, 1);
+        return columnWidthDp <= GRID.sizeDp ? GRID : GRID_LARGE;
+    }
+
+    /**
+     * Options to apply on top of the caller's options. {@link DecodeFormat#PREFER_RGB_565} still decodes
+     * images with transparency as ARGB_8888, so only opaque thumbnails use the smaller format.
+     */
+    @NonNull
+    public RequestOptions getRequestOptions(@NonNull Context context) {
+        return new RequestOptions()
+                .format(format)
+                .override(Math.round(sizeDp * context.getResources().getDisplayMetrics().density));
+    }
+}